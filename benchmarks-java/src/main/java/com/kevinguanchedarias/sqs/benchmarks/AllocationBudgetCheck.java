@@ -0,0 +1,85 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.benchmarks;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.kevinguanchedarias.sqs.consumer.TextConsumer;
+
+/**
+ * Regression guard of the allocations of the onMessage loop of a consumer with
+ * message recycling, fails when the bytes allocated per message, once warmed
+ * up, grow over the budget <br>
+ * The loop is not allocation free, recycling saves around 30 of the ~350
+ * bytes per message, the rest is the body and the channel futures <br>
+ * Measures the bytes allocated by the loop thread with the ThreadMXBean of
+ * HotSpot, against the loopback server, which delivers a 16 chars body <br>
+ * Run with: <i>java -cp benchmarks-java/target/benchmarks.jar
+ * com.kevinguanchedarias.sqs.benchmarks.AllocationBudgetCheck [budgetBytes]</i>,
+ * exits with 1 when over budget
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class AllocationBudgetCheck {
+
+	/**
+	 * The body String and its array, and the futures the JDK asynchronous
+	 * channel creates for each read and write, are allocated for every message,
+	 * around 315 bytes with a 16 chars body, the budget leaves a small margin
+	 * over them, so any new per message allocation is caught
+	 */
+	private static final long DEFAULT_BUDGET_BYTES = 384;
+	private static final int BODY_SIZE = 16;
+	private static final int WARMUP_MESSAGES = 50000;
+	private static final int MEASURED_MESSAGES = 200000;
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		long budgetBytes = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_BUDGET_BYTES;
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		if (!threadBean.isThreadAllocatedMemorySupported()) {
+			System.out.println("The JVM can't measure the allocated bytes of a thread");
+			return;
+		}
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		long withoutRecycling = measureBytesPerMessage(threadBean, false);
+		long withRecycling = measureBytesPerMessage(threadBean, true);
+		System.out.println("Bytes per message without recycling: " + withoutRecycling);
+		System.out.println("Bytes per message with recycling: " + withRecycling + " (budget " + budgetBytes + ")");
+		if (withRecycling > budgetBytes) {
+			System.exit(1);
+		}
+	}
+
+	private static long measureBytesPerMessage(com.sun.management.ThreadMXBean threadBean, boolean recycle)
+			throws IOException, InterruptedException {
+		CountDownLatch measured = new CountDownLatch(1);
+		long[] allocatedBytes = new long[2];
+		int[] received = new int[1];
+		try (LoopbackServer server = new LoopbackServer()) {
+			server.setDeliveredBody(Payloads.wireText(BODY_SIZE));
+			TextConsumer consumer = new TextConsumer();
+			consumer.setMessageRecycling(recycle);
+			consumer.connect(server.getHost(), server.getPort(), Payloads.TYPE);
+			consumer.onMessage(message -> {
+				int count = ++received[0];
+				if (count == WARMUP_MESSAGES) {
+					allocatedBytes[0] = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+				} else if (count == WARMUP_MESSAGES + MEASURED_MESSAGES) {
+					allocatedBytes[1] = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+					measured.countDown();
+				}
+			});
+			if (!measured.await(2, TimeUnit.MINUTES)) {
+				throw new IllegalStateException("The consumer didn't receive the messages in time");
+			}
+			consumer.quit();
+		}
+		return (allocatedBytes[1] - allocatedBytes[0]) / MEASURED_MESSAGES;
+	}
+}
@@ -0,0 +1,82 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevinguanchedarias.sqs.JsonMessageInner;
+import com.kevinguanchedarias.sqs.Message;
+import com.kevinguanchedarias.sqs.consumer.JsonConsumer;
+import com.kevinguanchedarias.sqs.consumer.TextConsumer;
+
+/**
+ * Full round trip of a GET_MESSAGE section, reading the response through the
+ * connection decoder, against the loopback server
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsumerBenchmark {
+
+	@Param({ "64", "1024", "16384", "262144", "1048576" })
+	private int payloadSize;
+
+	private LoopbackServer textServer;
+	private LoopbackServer jsonServer;
+	private TextConsumer textConsumer;
+	private JsonConsumer jsonConsumer;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		textServer = new LoopbackServer();
+		textServer.setDeliveredBody(Payloads.wireText(payloadSize));
+		textConsumer = new TextConsumer();
+		textConsumer.connect(textServer.getHost(), textServer.getPort(), "benchmark");
+		jsonServer = new LoopbackServer();
+		jsonServer.setDeliveredBody(Payloads.wireJson(mapper, payloadSize));
+		jsonConsumer = new JsonConsumer(mapper);
+		jsonConsumer.connect(jsonServer.getHost(), jsonServer.getPort(), "benchmark");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		textConsumer.quit();
+		jsonConsumer.quit();
+		textServer.close();
+		jsonServer.close();
+	}
+
+	@Benchmark
+	public Message<String> textReceiveMessageSync() {
+		return textConsumer.receiveMessageSync();
+	}
+
+	@Benchmark
+	public Message<JsonMessageInner> jsonReceiveMessageSync() {
+		return jsonConsumer.receiveMessageSync();
+	}
+}
@@ -0,0 +1,134 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevinguanchedarias.sqs.JsonMessageInner;
+import com.kevinguanchedarias.sqs.consumer.JsonConsumer;
+import com.kevinguanchedarias.sqs.consumer.TextConsumer;
+import com.kevinguanchedarias.sqs.protocol.SqsProtocolDecoder;
+
+/**
+ * Splitting of the responses in frames, and transformation of the bodies,
+ * without any I/O
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecodingBenchmark {
+	private static final int DECODER_INITIAL_SIZE = 8 * 1024;
+	private static final int DECODER_MAX_SIZE = 16 * 1024 * 1024;
+
+	@Param({ "64", "1024", "16384", "262144", "1048576" })
+	private int payloadSize;
+
+	private SqsProtocolDecoder decoder;
+	private byte[] textFrame;
+	private byte[] jsonBody;
+	private String jsonBodyString;
+	private DecodingTextConsumer textConsumer;
+	private DecodingJsonConsumer jsonConsumer;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		ObjectMapper mapper = new ObjectMapper();
+		decoder = new SqsProtocolDecoder(DECODER_INITIAL_SIZE, DECODER_MAX_SIZE, false);
+		textFrame = (Payloads.wireText(payloadSize) + "\r\n").getBytes(StandardCharsets.UTF_8);
+		jsonBodyString = Payloads.wireJson(mapper, payloadSize);
+		jsonBody = jsonBodyString.getBytes(StandardCharsets.UTF_8);
+		textConsumer = new DecodingTextConsumer();
+		jsonConsumer = new DecodingJsonConsumer(mapper);
+	}
+
+	/**
+	 * Same work done by getConnectionMessageSync(), with the socket read
+	 * replaced by a copy of the frame into the read buffer
+	 *
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	@Benchmark
+	public String decoderNextFrame() {
+		int written = 0;
+		String retVal;
+		while ((retVal = decoder.nextFrame()) == null) {
+			ByteBuffer target = decoder.readTarget();
+			int chunk = Math.min(target.remaining(), textFrame.length - written);
+			target.put(textFrame, written, chunk);
+			written += chunk;
+		}
+		return retVal;
+	}
+
+	@Benchmark
+	public String textTransformResult() {
+		return textConsumer.transform(textFrame, textFrame.length - 2);
+	}
+
+	@Benchmark
+	public JsonMessageInner jsonTransformResultBytes() {
+		return jsonConsumer.transform(jsonBody);
+	}
+
+	@Benchmark
+	public JsonMessageInner jsonTransformResultString() {
+		return jsonConsumer.transform(jsonBodyString);
+	}
+
+	/**
+	 * Exposes the body transformation
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private static class DecodingTextConsumer extends TextConsumer {
+		private String transform(byte[] source, int length) {
+			return transformResult(source, 0, length);
+		}
+	}
+
+	/**
+	 * Exposes the body transformation
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private static class DecodingJsonConsumer extends JsonConsumer {
+		private DecodingJsonConsumer(ObjectMapper mapper) {
+			super(mapper);
+		}
+
+		private JsonMessageInner transform(byte[] source) {
+			return transformResult(source, 0, source.length);
+		}
+
+		private JsonMessageInner transform(String source) {
+			return transformResult(source);
+		}
+	}
+}
@@ -0,0 +1,101 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevinguanchedarias.sqs.JsonMessageInner;
+import com.kevinguanchedarias.sqs.JsonMessageOuter;
+import com.kevinguanchedarias.sqs.Message;
+import com.kevinguanchedarias.sqs.MessageBuilder;
+import com.kevinguanchedarias.sqs.TextMessage;
+import com.kevinguanchedarias.sqs.producer.JsonProducer;
+import com.kevinguanchedarias.sqs.producer.TextProducer;
+
+/**
+ * Creation of the bytes of a message, including the JSON serialization,
+ * without any I/O
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodingBenchmark {
+
+	@Param({ "64", "1024", "16384", "262144", "1048576" })
+	private int payloadSize;
+
+	private EncodingTextProducer textProducer;
+	private EncodingJsonProducer jsonProducer;
+	private Message<String> textMessage;
+	private Message<JsonMessageInner> jsonMessage;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		textProducer = new EncodingTextProducer();
+		jsonProducer = new EncodingJsonProducer(new ObjectMapper());
+		textMessage = MessageBuilder.newInstance(TextMessage.class).withBody(Payloads.text(payloadSize))
+				.withDeliverDelay(0L).build();
+		jsonMessage = MessageBuilder.newInstance(JsonMessageOuter.class).withBody(Payloads.json(payloadSize))
+				.withDeliverDelay(0L).build();
+	}
+
+	@Benchmark
+	public ByteBuffer[] textMessageFrames() {
+		return textProducer.encode(textMessage);
+	}
+
+	@Benchmark
+	public ByteBuffer[] jsonMessageFrames() {
+		return jsonProducer.encode(jsonMessage);
+	}
+
+	/**
+	 * Exposes the frame creation of the sync send path
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private static class EncodingTextProducer extends TextProducer {
+		private ByteBuffer[] encode(Message<String> message) {
+			return createMessageFrames(message, encoder);
+		}
+	}
+
+	/**
+	 * Exposes the frame creation of the sync send path
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private static class EncodingJsonProducer extends JsonProducer {
+		private EncodingJsonProducer(ObjectMapper mapper) {
+			super(mapper);
+		}
+
+		private ByteBuffer[] encode(Message<JsonMessageInner> message) {
+			return createMessageFrames(message, encoder);
+		}
+	}
+}
@@ -0,0 +1,254 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.benchmarks;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In process stand-in of the SQS server, speaking just enough of the protocol
+ * to run the client against it <br>
+ * Accepted messages are discarded, and every GET_MESSAGE section delivers the
+ * same body, so the queue never runs out <br>
+ * Once the buffers have grown, it doesn't allocate, so gc.alloc.rate.norm only
+ * accounts the client
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class LoopbackServer implements Closeable {
+	private static final int IO_BUFFER_SIZE = 64 * 1024;
+	private static final byte[] HELO = toBytes("HELO SERVER PIPELINING\r\n");
+	private static final byte[] OK = toBytes("OK\r\n");
+	private static final byte[] OK_WITH_VAL_PREFIX = toBytes("\r\nOK: (");
+	private static final byte[] OK_WITH_VAL_SUFFIX = toBytes(")\r\n");
+	private static final byte[] SET = toBytes("SET ");
+	private static final byte[] START_MESSAGE = toBytes("START_MESSAGE");
+	private static final byte[] END_MESSAGE = toBytes("END_MESSAGE");
+	private static final byte[] START_GET_MESSAGE = toBytes("START_GET_MESSAGE");
+	private static final byte[] RUN_QUIT = toBytes("RUN QUIT");
+
+	private final ServerSocket serverSocket;
+	private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+	private volatile byte[] deliveredFrame = toBytes("\"\"\r\nOK\r\n");
+	private volatile boolean closed;
+
+	/**
+	 * Starts listening in a random port of the loopback interface
+	 *
+	 * @throws IOException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public LoopbackServer() throws IOException {
+		serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		Thread acceptThread = new Thread(this::acceptLoop, "sqs-loopback-accept");
+		acceptThread.setDaemon(true);
+		acceptThread.start();
+	}
+
+	/**
+	 *
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String getHost() {
+		return serverSocket.getInetAddress().getHostAddress();
+	}
+
+	/**
+	 *
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Defines the body delivered to the consumers, exactly as it travels in the
+	 * wire, so text bodies must be quoted
+	 *
+	 * @param body <b>NOTICE:</b> Must not contain line breaks
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setDeliveredBody(String body) {
+		deliveredFrame = toBytes(body + "\r\nOK\r\n");
+	}
+
+	/**
+	 * Closes the sockets of the open connections, as if the server had crashed,
+	 * while it keeps accepting new ones
+	 *
+	 * @return The connections closed
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int dropConnections() {
+		int retVal = 0;
+		for (Socket socket : sockets) {
+			try {
+				socket.close();
+				retVal++;
+			} catch (IOException e) {
+				// Already unusable
+			}
+		}
+		return retVal;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		serverSocket.close();
+	}
+
+	private void acceptLoop() {
+		while (!closed) {
+			try {
+				Socket socket = serverSocket.accept();
+				Thread connectionThread = new Thread(() -> serve(socket), "sqs-loopback-connection");
+				connectionThread.setDaemon(true);
+				connectionThread.start();
+			} catch (IOException e) {
+				if (!closed) {
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
+	private void serve(Socket socket) {
+		sockets.add(socket);
+		try (Socket current = socket) {
+			current.setTcpNoDelay(true);
+			new Connection(current.getInputStream(), current.getOutputStream()).run();
+		} catch (SocketException e) {
+			// The client has gone away, or the connection was dropped
+		} catch (IOException e) {
+			e.printStackTrace();
+		} finally {
+			sockets.remove(socket);
+		}
+	}
+
+	private static byte[] toBytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Splits the input in lines, and answers each one <br>
+	 * Responses are buffered, and flushed when there is no more input waiting,
+	 * so pipelined clients get them in a single write
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private class Connection {
+		private final InputStream in;
+		private final OutputStream out;
+		private final byte[] readBuffer = new byte[IO_BUFFER_SIZE];
+		private byte[] line = new byte[IO_BUFFER_SIZE];
+		private int lineLength;
+		private boolean inMessage;
+
+		private Connection(InputStream in, OutputStream out) {
+			this.in = in;
+			this.out = new BufferedOutputStream(out, IO_BUFFER_SIZE);
+		}
+
+		private void run() throws IOException {
+			out.write(HELO);
+			while (true) {
+				if (in.available() == 0) {
+					out.flush();
+				}
+				int read = in.read(readBuffer);
+				if (read == -1) {
+					return;
+				}
+				for (int i = 0; i < read; i++) {
+					if (readBuffer[i] == '\n') {
+						if (!handleLine()) {
+							out.flush();
+							return;
+						}
+						lineLength = 0;
+					} else {
+						append(readBuffer[i]);
+					}
+				}
+			}
+		}
+
+		private void append(byte value) {
+			if (lineLength == line.length) {
+				line = Arrays.copyOf(line, line.length * 2);
+			}
+			line[lineLength++] = value;
+		}
+
+		private boolean handleLine() throws IOException {
+			int length = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+			if (inMessage) {
+				if (lineEquals(END_MESSAGE, length)) {
+					inMessage = false;
+					out.write(OK);
+				}
+			} else if (length == 0) {
+				return true;
+			} else if (lineStartsWith(SET, length)) {
+				out.write(OK_WITH_VAL_PREFIX);
+				out.write(line, SET.length, length - SET.length - 1);
+				out.write(OK_WITH_VAL_SUFFIX);
+			} else if (lineEquals(START_MESSAGE, length)) {
+				inMessage = true;
+				out.write(OK);
+			} else if (lineEquals(START_GET_MESSAGE, length)) {
+				out.write(deliveredFrame);
+			} else if (lineEquals(RUN_QUIT, length)) {
+				out.write(OK);
+				return false;
+			} else {
+				out.write(OK);
+			}
+			return true;
+		}
+
+		private boolean lineEquals(byte[] expected, int length) {
+			return length == expected.length && lineStartsWith(expected, length);
+		}
+
+		private boolean lineStartsWith(byte[] expected, int length) {
+			if (length < expected.length) {
+				return false;
+			}
+			for (int i = 0; i < expected.length; i++) {
+				if (line[i] != expected[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
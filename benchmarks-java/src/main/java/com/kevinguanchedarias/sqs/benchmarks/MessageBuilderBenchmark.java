@@ -0,0 +1,63 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kevinguanchedarias.sqs.JsonMessageInner;
+import com.kevinguanchedarias.sqs.JsonMessageOuter;
+import com.kevinguanchedarias.sqs.Message;
+import com.kevinguanchedarias.sqs.MessageBuilder;
+import com.kevinguanchedarias.sqs.TextMessage;
+
+/**
+ * Creation of the message objects, the consumers do it once per received
+ * message
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageBuilderBenchmark {
+
+	@Param({ "64", "1024", "16384", "262144", "1048576" })
+	private int payloadSize;
+
+	private String textBody;
+	private JsonMessageInner jsonBody;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		textBody = Payloads.text(payloadSize);
+		jsonBody = Payloads.json(payloadSize);
+	}
+
+	@Benchmark
+	public Message<String> textMessage() {
+		return MessageBuilder.newInstance(TextMessage.class).withBody(textBody).withDeliverDelay(0L).build();
+	}
+
+	@Benchmark
+	public Message<JsonMessageInner> jsonMessage() {
+		return MessageBuilder.newInstance(JsonMessageOuter.class).withBody(jsonBody).withDeliverDelay(0L).build();
+	}
+}
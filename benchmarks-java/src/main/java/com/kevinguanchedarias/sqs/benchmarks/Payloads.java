@@ -0,0 +1,80 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.benchmarks;
+
+import java.util.Collections;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevinguanchedarias.sqs.JsonMessageInner;
+import com.kevinguanchedarias.sqs.protocol.SqsProtocolEncoder;
+
+/**
+ * Creates the bodies used by the benchmarks, of a given size
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+final class Payloads {
+	static final String TYPE = "benchmark";
+	private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789 ";
+
+	private Payloads() {
+		// Utility class
+	}
+
+	/**
+	 *
+	 * @param size
+	 * @return ASCII text of exactly <i>size</i> characters, without characters
+	 *         that require escaping
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	static String text(int size) {
+		StringBuilder retVal = new StringBuilder(size);
+		for (int i = 0; i < size; i++) {
+			retVal.append(ALPHABET.charAt(i % ALPHABET.length()));
+		}
+		return retVal.toString();
+	}
+
+	/**
+	 *
+	 * @param size
+	 * @return A JSON message which serialized form has roughly <i>size</i> bytes
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	static JsonMessageInner json(int size) {
+		return new JsonMessageInner(TYPE, Collections.singletonMap("text", text(Math.max(0, size - 40))));
+	}
+
+	/**
+	 *
+	 * @param size
+	 * @return The text body as it travels in the wire
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	static String wireText(int size) {
+		return SqsProtocolEncoder.toJsonString(text(size));
+	}
+
+	/**
+	 *
+	 * @param mapper
+	 * @param size
+	 * @return The JSON body as it travels in the wire
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	static String wireJson(ObjectMapper mapper, int size) {
+		try {
+			return mapper.writeValueAsString(json(size));
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
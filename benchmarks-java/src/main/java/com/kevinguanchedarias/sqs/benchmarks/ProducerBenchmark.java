@@ -0,0 +1,90 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevinguanchedarias.sqs.JsonMessageInner;
+import com.kevinguanchedarias.sqs.JsonMessageOuter;
+import com.kevinguanchedarias.sqs.Message;
+import com.kevinguanchedarias.sqs.MessageBuilder;
+import com.kevinguanchedarias.sqs.TextMessage;
+import com.kevinguanchedarias.sqs.producer.JsonProducer;
+import com.kevinguanchedarias.sqs.producer.TextProducer;
+
+/**
+ * Full round trip of a message sent with sendMessageSync(), against the
+ * loopback server
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProducerBenchmark {
+
+	@Param({ "64", "1024", "16384", "262144", "1048576" })
+	private int payloadSize;
+
+	@Param({ "false", "true" })
+	private boolean pipelined;
+
+	private LoopbackServer server;
+	private TextProducer textProducer;
+	private JsonProducer jsonProducer;
+	private Message<String> textMessage;
+	private Message<JsonMessageInner> jsonMessage;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		server = new LoopbackServer();
+		textProducer = new TextProducer();
+		textProducer.setPipelined(pipelined);
+		textProducer.connect(server.getHost(), server.getPort(), "benchmark");
+		jsonProducer = new JsonProducer(new ObjectMapper());
+		jsonProducer.setPipelined(pipelined);
+		jsonProducer.connect(server.getHost(), server.getPort(), "benchmark");
+		textMessage = MessageBuilder.newInstance(TextMessage.class).withBody(Payloads.text(payloadSize))
+				.withDeliverDelay(0L).build();
+		jsonMessage = MessageBuilder.newInstance(JsonMessageOuter.class).withBody(Payloads.json(payloadSize))
+				.withDeliverDelay(0L).build();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		textProducer.quit();
+		jsonProducer.quit();
+		server.close();
+	}
+
+	@Benchmark
+	public void textSendMessageSync() {
+		textProducer.sendMessageSync(textMessage);
+	}
+
+	@Benchmark
+	public void jsonSendMessageSync() {
+		jsonProducer.sendMessageSync(jsonMessage);
+	}
+}
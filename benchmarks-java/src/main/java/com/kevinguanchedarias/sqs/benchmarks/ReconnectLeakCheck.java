@@ -0,0 +1,89 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.benchmarks;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.kevinguanchedarias.sqs.consumer.ReconnectPolicy;
+import com.kevinguanchedarias.sqs.consumer.TextConsumer;
+
+/**
+ * Checks that a consumer doesn't leak sockets when the server drops its
+ * connection again and again, and the onMessage loop reconnects <br>
+ * Counts the open file descriptors of the JVM with the OperatingSystemMXBean
+ * of HotSpot, which only supports it in Unix <br>
+ * Run with: <i>java -cp benchmarks-java/target/benchmarks.jar
+ * com.kevinguanchedarias.sqs.benchmarks.ReconnectLeakCheck [drops]</i>, exits
+ * with 1 when the descriptors grow with the drops
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class ReconnectLeakCheck {
+	private static final int DEFAULT_DROPS = 200;
+	private static final int WARMUP_DROPS = 20;
+
+	/**
+	 * Descriptors that may be opened meanwhile by the JVM, not by the consumer
+	 */
+	private static final long TOLERATED_GROWTH = 10;
+	private static final long RECONNECT_TIMEOUT_MILLIS = 10000;
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		int drops = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DROPS;
+		OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+		if (!(osBean instanceof com.sun.management.UnixOperatingSystemMXBean)) {
+			System.out.println("The JVM can't count its open file descriptors");
+			return;
+		}
+		com.sun.management.UnixOperatingSystemMXBean unixBean = (com.sun.management.UnixOperatingSystemMXBean) osBean;
+		AtomicLong received = new AtomicLong();
+		long warmedUpDescriptors = 0;
+		try (LoopbackServer server = new LoopbackServer()) {
+			TextConsumer consumer = new TextConsumer();
+			consumer.setReconnectPolicy(new ReconnectPolicy().withInitialDelayMillis(1).withMaxDelayMillis(10));
+			consumer.connect(server.getHost(), server.getPort(), Payloads.TYPE);
+			consumer.onMessage(message -> received.incrementAndGet());
+			for (int i = 0; i < WARMUP_DROPS + drops; i++) {
+				if (i == WARMUP_DROPS) {
+					warmedUpDescriptors = unixBean.getOpenFileDescriptorCount();
+				}
+				dropAndAwaitReconnection(server, consumer, received);
+			}
+			long finalDescriptors = unixBean.getOpenFileDescriptorCount();
+			consumer.quit();
+			System.out.println("Open descriptors after " + WARMUP_DROPS + " drops: " + warmedUpDescriptors
+					+ ", after " + (WARMUP_DROPS + drops) + " drops: " + finalDescriptors + " (reconnections "
+					+ consumer.getReconnections() + ")");
+			if (finalDescriptors - warmedUpDescriptors > TOLERATED_GROWTH) {
+				System.exit(1);
+			}
+		}
+	}
+
+	/**
+	 * Drops the connection, and waits until the consumer has reconnected and
+	 * received a message through the new one
+	 */
+	private static void dropAndAwaitReconnection(LoopbackServer server, TextConsumer consumer, AtomicLong received)
+			throws InterruptedException {
+		long reconnections = consumer.getReconnections();
+		server.dropConnections();
+		long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RECONNECT_TIMEOUT_MILLIS);
+		long receivedBefore = Long.MAX_VALUE;
+		while (received.get() <= receivedBefore) {
+			if (receivedBefore == Long.MAX_VALUE && consumer.getReconnections() > reconnections) {
+				receivedBefore = received.get();
+			}
+			if (System.nanoTime() - deadlineNanos > 0) {
+				throw new IllegalStateException("The consumer didn't reconnect in time");
+			}
+			Thread.sleep(1);
+		}
+	}
+}
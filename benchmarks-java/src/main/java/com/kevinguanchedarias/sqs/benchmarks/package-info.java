@@ -0,0 +1,8 @@
+/**
+ * Has the JMH benchmarks of the client hot paths, and the in process server
+ * they run against
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+package com.kevinguanchedarias.sqs.benchmarks;
@@ -7,11 +7,33 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.InterruptedByTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.kevinguanchedarias.sqs.enumerations.ClientPhase;
 import com.kevinguanchedarias.sqs.enumerations.ConnectionState;
+import com.kevinguanchedarias.sqs.enumerations.PhaseOutcome;
+import com.kevinguanchedarias.sqs.enumerations.ProtocolCommand;
 import com.kevinguanchedarias.sqs.exception.SqsConnectionException;
 import com.kevinguanchedarias.sqs.exception.SqsInvalidServerResponseException;
+import com.kevinguanchedarias.sqs.exception.SqsTimeoutException;
+import com.kevinguanchedarias.sqs.jfr.SqsFlightRecorder;
+import com.kevinguanchedarias.sqs.metrics.ClientMetricsListener;
+import com.kevinguanchedarias.sqs.protocol.FrameParser;
+import com.kevinguanchedarias.sqs.protocol.SqsProtocolDecoder;
+import com.kevinguanchedarias.sqs.protocol.SqsProtocolEncoder;
 
 /**
  * 
@@ -20,15 +42,144 @@ import com.kevinguanchedarias.sqs.exception.SqsInvalidServerResponseException;
  */
 public abstract class AbstractClient implements Client {
 	protected static final int BUFFER_MAX_SIZE = 1 * 1024 * 1024 * 16;
+	protected static final int BUFFER_INITIAL_SIZE = 8 * 1024;
 	protected static final String OK_RESPONSE = "OK";
 	protected static final String OK_WITH_VAL = "OK:";
 
+	/**
+	 * Capability announced after the HELO by the servers that process the
+	 * buffered input in order, line by line, so the client can write many lines
+	 * without waiting for the response of each one
+	 * 
+	 * @since 1.1.0
+	 */
+	public static final String PIPELINING_CAPABILITY = "PIPELINING";
+	private static final String HELO_RESPONSE = "HELO SERVER";
+	private static final int CONFIG_FRAME_COUNT = 4;
+	private static final int FIRST_SET_CONFIG_FRAME_INDEX = 1;
+	private static final int LAST_SET_CONFIG_FRAME_INDEX = 2;
+	private static final long NO_TIMEOUT = Long.MAX_VALUE;
+	private static final int PROBING = -1;
+
+	/**
+	 * host:port of the servers that announced the {@link #PIPELINING_CAPABILITY}
+	 * in the last greeting, the pipelined handshake only writes the CONFIG
+	 * section before the HELO to them
+	 */
+	private static final Set<String> PIPELINING_ENDPOINTS = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Returns the {@link #OK_RESPONSE} constant for the OK responses, so the
+	 * most common response doesn't allocate a String
+	 */
+	private static final FrameParser<String> RESPONSE_PARSER = (source, offset, length) -> length == 2
+			&& source[offset] == 'O' && source[offset + 1] == 'K' ? OK_RESPONSE
+					: new String(source, offset, length, StandardCharsets.UTF_8);
+
 	protected AsynchronousSocketChannel connection;
 	protected ConnectionState connectionState = ConnectionState.NOT_WANTING_CONNECTION;
+	protected SqsProtocolDecoder decoder;
+
+	/**
+	 * Encodes the variable lines sent by the thread that owns the connection
+	 * 
+	 * @since 1.1.0
+	 */
+	protected final SqsProtocolEncoder encoder;
+
+	/**
+	 * Emits the Java Flight Recorder events, does nothing when jdk.jfr is not
+	 * available
+	 * 
+	 * @since 1.1.0
+	 */
+	protected final SqsFlightRecorder flightRecorder = SqsFlightRecorder.getInstance();
+	private final SqsRuntime runtime;
+	private String host;
+	private int port;
+	private String queue;
+	private boolean directReadBuffer;
+	private boolean pipelinedHandshake;
+	private volatile boolean serverPipelining;
+	private ClientConfig clientConfig = new ClientConfig();
+
+	/**
+	 * System.nanoTime() at which the running operation expires, valid while
+	 * hasDeadline
+	 */
+	private long deadlineNanos;
+	private boolean hasDeadline;
+
+	/**
+	 * Operations using the connection, or {@link #PROBING} while the heartbeat
+	 * owns it
+	 */
+	private final AtomicInteger connectionUsers = new AtomicInteger();
+	private volatile long lastReleasedNanos = System.nanoTime();
+	private volatile CompletableFuture<String> heartbeatProbe;
+	private volatile ScheduledFuture<?> heartbeatTask;
+	private volatile ClientMetricsListener metricsListener;
+	private ClientMetricsListener phaseListener;
+	private Object flightEvent;
+	private final long[] phaseNanos = new long[ClientPhase.values().length];
+	private final ByteBuffer[] syncFrames = new ByteBuffer[ProtocolCommand.values().length];
+	private boolean timingPhase;
+	private ClientPhase currentPhase;
+	private long phaseStartNanos;
+	private long phaseStartBytesWritten;
+	private long phaseStartBytesRead;
+
+	/**
+	 * Bytes moved through the socket, the I/O of the connection is done by a
+	 * single thread at a time
+	 */
+	private long bytesWritten;
+	private long bytesRead;
+	private final CompletionHandler<Integer, CompletableFuture<String>> frameReadHandler = new CompletionHandler<Integer, CompletableFuture<String>>() {
+		@Override
+		public void completed(Integer result, CompletableFuture<String> future) {
+			if (result == -1) {
+				connectionState = ConnectionState.NOT_CONNECTED;
+				future.completeExceptionally(new SqsConnectionException("The SQS server closed the connection", null));
+			} else {
+				bytesRead += result;
+				readFrameAsync(future);
+			}
+		}
+
+		@Override
+		public void failed(Throwable exc, CompletableFuture<String> future) {
+			connectionState = ConnectionState.NOT_CONNECTED;
+			future.completeExceptionally(
+					exc instanceof InterruptedByTimeoutException ? timeoutOf("response of the server", exc) : exc);
+		}
+	};
+
+	/**
+	 * Uses the default runtime
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected AbstractClient() {
+		this(SqsRuntime.getDefault());
+	}
+
+	/**
+	 * 
+	 * @param runtime Provides the I/O threads, the socket options and the
+	 *                buffers
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected AbstractClient(SqsRuntime runtime) {
+		this.runtime = runtime;
+		encoder = new SqsProtocolEncoder(BUFFER_INITIAL_SIZE, runtime.getBufferPool());
+	}
 
 	@Override
 	public boolean isAlive() {
-		return connection.isOpen() && connectionState != ConnectionState.NOT_WANTING_CONNECTION
+		return connection != null && connection.isOpen() && connectionState != ConnectionState.NOT_WANTING_CONNECTION
 				&& connectionState != ConnectionState.NOT_CONNECTED;
 	}
 
@@ -39,15 +190,21 @@ public abstract class AbstractClient implements Client {
 	 */
 	@Override
 	public void quit() {
-		ByteBuffer buffer = ByteBuffer.wrap("\r\nRUN QUIT\r\n".getBytes());
+		stopHeartbeat();
+		acquireConnection();
 		try {
 			connectionState = ConnectionState.NOT_WANTING_CONNECTION;
-			connection.write(buffer).get();
+			writeSync(ProtocolCommand.RUN_QUIT.frame());
 			expectResponseSync(OK_RESPONSE);
 			connection.close();
 		} catch (InterruptedException | ExecutionException | IOException e) {
-			Thread.currentThread().interrupt();
+			if (InterruptedException.class.isInstance(e)) {
+				Thread.currentThread().interrupt();
+			}
+			closeQuietly();
 			throw new SqsConnectionException("Couldn't gracefully quit", e);
+		} finally {
+			releaseConnection();
 		}
 	}
 
@@ -62,19 +219,149 @@ public abstract class AbstractClient implements Client {
 	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
 	 */
 	protected void doConnect(String host, int port, String queue, ConnectionRole role) {
+		stopHeartbeat();
+		this.host = host;
+		this.port = port;
+		this.queue = queue;
+		Object event = startFlightEvent(flightRecorder.beginConnect());
+		boolean success = false;
 		try {
-			connection = AsynchronousSocketChannel.open();
-			connection.connect(new InetSocketAddress(host, port)).get();
-			expectResponseSync("HELO SERVER");
+			closeChannel();
+			connection = runtime.openChannel();
+			decoder = createDecoder();
+			beginPhase(ClientPhase.CONNECT);
+			await(connection.connect(new InetSocketAddress(host, port)), clientConfig.getConnectTimeoutMillis(),
+					"connection");
+			boolean configWritten = isConfigWrittenBeforeGreeting();
+			if (configWritten) {
+				writeSync(createConfigFrames(queue, role));
+			}
+			readGreeting(getConnectionMessageSync(connection), configWritten);
+			endPhase();
 			connectionState = ConnectionState.CONNECTED_BEFORE_CONFIG;
-			sendConfigSection(queue, role);
-			expectResponseSync(OK_RESPONSE);
+			beginPhase(ClientPhase.CONFIG);
+			if (pipelinedHandshake && serverPipelining) {
+				if (!configWritten) {
+					writeSync(createConfigFrames(queue, role));
+				}
+				for (int i = 0; i < CONFIG_FRAME_COUNT; i++) {
+					expectConfigResponseSync(i);
+				}
+			} else {
+				sendConfigSection(queue, role);
+				expectResponseSync(OK_RESPONSE);
+			}
+			endPhase();
 			connectionState = ConnectionState.CONNECTED_AFTER_CONFIG;
+			startHeartbeat();
+			success = true;
 		} catch (IOException | ExecutionException | InterruptedException e) {
+			failPhase(e);
+			closeChannel();
 			commonExceptionHandler(e);
+		} catch (RuntimeException e) {
+			failPhase(e);
+			closeChannel();
+			if (pipelinedHandshake) {
+				connectionState = ConnectionState.NOT_CONNECTED;
+			}
+			throw e;
+		} finally {
+			if (event != null) {
+				flightRecorder.commitConnect(finishFlightEvent(), host, port, queue, role,
+						getPhaseNanos(ClientPhase.CONNECT), getPhaseNanos(ClientPhase.CONFIG), success);
+			}
 		}
 	}
 
+	/**
+	 * Connects to the SQS server without blocking the caller, so many clients
+	 * can connect at the same time <br>
+	 * The client must not be used until the returned future completes, which
+	 * happens in the thread that completes the last I/O operation
+	 * 
+	 * @param host
+	 * @param port
+	 * @param queue
+	 * @param role  Role can be only PRODUCER or CONSUMER
+	 * @return Completes exceptionally with {@link SqsConnectionException} when
+	 *         the server can't be reached, or with
+	 *         {@link SqsInvalidServerResponseException} when it rejects the
+	 *         configuration
+	 * @see #doConnect(String, int, String, ConnectionRole)
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected CompletableFuture<Void> doConnectAsync(String host, int port, String queue, ConnectionRole role) {
+		stopHeartbeat();
+		this.host = host;
+		this.port = port;
+		this.queue = queue;
+		Object event = startFlightEvent(flightRecorder.beginConnect());
+		CompletableFuture<Void> socketConnected = new CompletableFuture<>();
+		ByteBuffer[] configFrames = createConfigFrames(queue, role);
+		boolean configWritten = isConfigWrittenBeforeGreeting();
+		try {
+			closeChannel();
+			connection = runtime.openChannel();
+			decoder = createDecoder();
+			beginPhase(ClientPhase.CONNECT);
+			connection.connect(new InetSocketAddress(host, port), socketConnected,
+					new CompletionHandler<Void, CompletableFuture<Void>>() {
+						@Override
+						public void completed(Void result, CompletableFuture<Void> future) {
+							future.complete(null);
+						}
+
+						@Override
+						public void failed(Throwable exc, CompletableFuture<Void> future) {
+							future.completeExceptionally(exc);
+						}
+					});
+			scheduleConnectTimeout(socketConnected);
+		} catch (IOException | RuntimeException e) {
+			socketConnected.completeExceptionally(e);
+		}
+		CompletableFuture<Void> retVal = new CompletableFuture<>();
+		socketConnected
+				.thenCompose(connected -> configWritten ? writeAsync(configFrames)
+						: CompletableFuture.<Void>completedFuture(null))
+				.thenCompose(written -> getConnectionMessageAsync()).thenCompose(helo -> {
+					readGreeting(helo, configWritten);
+					endPhase();
+					connectionState = ConnectionState.CONNECTED_BEFORE_CONFIG;
+					beginPhase(ClientPhase.CONFIG);
+					if (configWritten) {
+						return expectConfigResponsesAsync(0);
+					} else if (pipelinedHandshake && serverPipelining) {
+						return writeAsync(configFrames).thenCompose(written -> expectConfigResponsesAsync(0));
+					} else {
+						return sendConfigFramesAsync(configFrames, 0);
+					}
+				}).whenComplete((configured, exception) -> {
+					RuntimeException failure = exception == null ? null : toConnectException(exception);
+					if (failure == null) {
+						endPhase();
+						connectionState = ConnectionState.CONNECTED_AFTER_CONFIG;
+						startHeartbeat();
+					} else {
+						failPhase(failure);
+						closeChannel();
+						connectionState = ConnectionState.NOT_CONNECTED;
+					}
+					if (event != null) {
+						flightRecorder.commitConnect(finishFlightEvent(), host, port, queue, role,
+								getPhaseNanos(ClientPhase.CONNECT), getPhaseNanos(ClientPhase.CONFIG), failure == null);
+					}
+					if (failure == null) {
+						retVal.complete(null);
+					} else {
+						retVal.completeExceptionally(failure);
+					}
+				});
+		return retVal;
+	}
+
 	/**
 	 * Sends the configuration to the SQS server
 	 * 
@@ -87,31 +374,207 @@ public abstract class AbstractClient implements Client {
 	 */
 	protected void sendConfigSection(String queue, ConnectionRole role)
 			throws InterruptedException, ExecutionException {
-		writeSync("\r\nSTART_CONFIG\r\n");
+		writeSync(ProtocolCommand.START_CONFIG.frame());
 		expectResponseSync(OK_RESPONSE);
-		writeSync("\r\nSET QUEUE=" + queue + ";\r\n");
+		encoder.begin();
+		writeSync(encoder.encodeSet("QUEUE", queue));
 		expectResponseToContainSync(OK_WITH_VAL);
-		writeSync("\r\nSET ROLE=" + role.name() + ";\r\n");
+		writeSync(encoder.encodeSet("ROLE", role.name()));
 		expectResponseToContainSync(OK_WITH_VAL);
-		writeSync("\r\nEND_CONFIG\r\n");
+		writeSync(ProtocolCommand.END_CONFIG.frame());
+	}
+
+	/**
+	 * 
+	 * @return true if the server of the last connection announced the
+	 *         {@link #PIPELINING_CAPABILITY}, the pipelined modes fall back to
+	 *         waiting the response of each line otherwise, as the Node server
+	 *         discards the lines that arrive together with a START line
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isServerPipelining() {
+		return serverPipelining;
+	}
+
+	/**
+	 * When enabled, the whole CONFIG section is written at once, and the
+	 * responses are validated after <br>
+	 * The first connection to a server waits for the HELO, and writes the section
+	 * only if the server announces the {@link #PIPELINING_CAPABILITY}, the next
+	 * connections to the same host and port write it with the first write,
+	 * without waiting for the HELO, so the handshake takes a single round trip
+	 * <br>
+	 * Servers without the capability get the section line by line, as the Node
+	 * server discards the lines that arrive together with START_CONFIG
+	 * 
+	 * @param pipelinedHandshake
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setPipelinedHandshake(boolean pipelinedHandshake) {
+		this.pipelinedHandshake = pipelinedHandshake;
+	}
+
+	/**
+	 * 
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isPipelinedHandshake() {
+		return pipelinedHandshake;
+	}
+
+	/**
+	 * Defines the timeouts of the socket operations, takes effect on the next
+	 * operation
+	 * 
+	 * @param clientConfig
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setClientConfig(ClientConfig clientConfig) {
+		this.clientConfig = clientConfig == null ? new ClientConfig() : clientConfig;
+	}
+
+	/**
+	 * 
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ClientConfig getClientConfig() {
+		return clientConfig;
+	}
+
+	/**
+	 * Defines if the read buffer should be allocated outside of the heap, takes
+	 * effect on next connect
+	 * 
+	 * @param directReadBuffer
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setDirectReadBuffer(boolean directReadBuffer) {
+		this.directReadBuffer = directReadBuffer;
 	}
 
 	/**
-	 * Reads a message (a response, not an actual "message) from the server
+	 * Times each phase of the synchronous operations, takes effect on the next
+	 * operation
+	 * 
+	 * @param metricsListener null to stop measuring
+	 * @see com.kevinguanchedarias.sqs.metrics.HistogramMetricsRecorder
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setMetricsListener(ClientMetricsListener metricsListener) {
+		this.metricsListener = metricsListener;
+	}
+
+	/**
+	 * 
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ClientMetricsListener getMetricsListener() {
+		return metricsListener;
+	}
+
+	/**
+	 * 
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsRuntime getRuntime() {
+		return runtime;
+	}
+
+	/**
+	 * 
+	 * @return The host of the last connection
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * 
+	 * @return The port of the last connection
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getPort() {
+		return port;
+	}
+
+	/**
+	 * 
+	 * @return The queue of the last connection
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String getQueue() {
+		return queue;
+	}
+
+	/**
+	 * Creates the decoder used to read the responses of the connection
+	 * 
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected SqsProtocolDecoder createDecoder() {
+		return new SqsProtocolDecoder(BUFFER_INITIAL_SIZE, BUFFER_MAX_SIZE, directReadBuffer, runtime.getBufferPool());
+	}
+
+	/**
+	 * Reads a message (a response, not an actual "message) from the server <br>
+	 * Only reads from the socket when there isn't a complete response already
+	 * buffered
 	 * 
 	 * @param client
 	 * @return
 	 * @throws InterruptedException
 	 * @throws ExecutionException
+	 * @throws SqsConnectionException When the server closes the connection
 	 * @since 1.0.0
 	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
 	 */
 	protected String getConnectionMessageSync(AsynchronousSocketChannel client)
 			throws InterruptedException, ExecutionException {
-		ByteBuffer readBuffer = ByteBuffer.allocate(BUFFER_MAX_SIZE);
-		client.read(readBuffer).get();
-		String retVal = new String(readBuffer.array()).trim();
-		readBuffer.clear();
+		String retVal;
+		while ((retVal = decoder.nextFrame(RESPONSE_PARSER)) == null) {
+			readMoreSync(client, clientConfig.getReadTimeoutMillis());
+		}
+		return retVal;
+	}
+
+	/**
+	 * Reads the next response, and passes its bytes to the parser, without
+	 * creating a String <br>
+	 * The read timeout doesn't apply, as the server may hold the response until
+	 * there is a message, only the deadline of the operation does
+	 * 
+	 * @param parser
+	 * @return The result of the parser
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 * @throws SqsConnectionException When the server closes the connection
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected <R> R getConnectionFrameSync(FrameParser<R> parser) throws InterruptedException, ExecutionException {
+		R retVal;
+		while ((retVal = decoder.nextFrame(parser)) == null) {
+			readMoreSync(connection, 0);
+		}
 		return retVal;
 	}
 
@@ -152,7 +615,48 @@ public abstract class AbstractClient implements Client {
 	}
 
 	/**
-	 * Writes a string to the socket
+	 * Validates the HELO, which may be followed by the capabilities of the
+	 * server, separated by spaces
+	 * 
+	 * @param greeting
+	 * @param configWritten true if the CONFIG section was written before the
+	 *                      HELO
+	 * @throws SqsInvalidServerResponseException When it's not a HELO
+	 * @throws SqsConnectionException            When the CONFIG section was
+	 *                                           written, but the server no
+	 *                                           longer announces pipelining, as
+	 *                                           it may have discarded it
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private void readGreeting(String greeting, boolean configWritten) {
+		if (!greeting.equals(HELO_RESPONSE) && !greeting.startsWith(HELO_RESPONSE + ' ')) {
+			throw SqsInvalidServerResponseException.fromExpectation(HELO_RESPONSE, greeting);
+		}
+		boolean pipelining = false;
+		for (String capability : greeting.substring(HELO_RESPONSE.length()).trim().split(" ")) {
+			pipelining = pipelining || capability.equals(PIPELINING_CAPABILITY);
+		}
+		serverPipelining = pipelining;
+		String endpoint = host + ':' + port;
+		if (pipelining) {
+			PIPELINING_ENDPOINTS.add(endpoint);
+		} else {
+			PIPELINING_ENDPOINTS.remove(endpoint);
+			if (configWritten) {
+				connectionState = ConnectionState.NOT_CONNECTED;
+				throw new SqsConnectionException("The server " + endpoint
+						+ " no longer announces pipelining, connect again to send the configuration line by line", null);
+			}
+		}
+	}
+
+	private boolean isConfigWrittenBeforeGreeting() {
+		return pipelinedHandshake && PIPELINING_ENDPOINTS.contains(host + ':' + port);
+	}
+
+	/**
+	 * Writes a string to the socket, encoded as UTF-8
 	 * 
 	 * @param input
 	 * @throws InterruptedException
@@ -161,8 +665,375 @@ public abstract class AbstractClient implements Client {
 	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
 	 */
 	protected void writeSync(String input) throws InterruptedException, ExecutionException {
-		ByteBuffer writeBuffer = ByteBuffer.wrap(input.getBytes());
-		connection.write(writeBuffer).get();
+		ByteBuffer writeBuffer = ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8));
+		while (writeBuffer.hasRemaining()) {
+			bytesWritten += await(connection.write(writeBuffer), clientConfig.getWriteTimeoutMillis(), "write");
+		}
+	}
+
+	/**
+	 * Writes a single buffer, without the intermediate future and array of
+	 * {@link #writeSync(ByteBuffer...)}
+	 * 
+	 * @param buffer
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void writeSync(ByteBuffer buffer) throws InterruptedException, ExecutionException {
+		try {
+			while (buffer.hasRemaining()) {
+				bytesWritten += await(connection.write(buffer), clientConfig.getWriteTimeoutMillis(), "write");
+			}
+		} catch (ExecutionException e) {
+			connectionState = ConnectionState.NOT_CONNECTED;
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes the buffers to the socket, in order, using gathering writes, so
+	 * they are sent together
+	 * 
+	 * @param buffers
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void writeSync(ByteBuffer... buffers) throws InterruptedException, ExecutionException {
+		await(writeAsync(buffers), 0, "write");
+	}
+
+	/**
+	 * Writes the buffers to the socket, in order, without blocking the caller
+	 * <br>
+	 * The returned future completes in the thread that completes the I/O
+	 * operation
+	 * 
+	 * @param buffers
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected CompletableFuture<Void> writeAsync(ByteBuffer... buffers) {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		new GatheringWrite(buffers, future).writeRemaining();
+		return future;
+	}
+
+	/**
+	 * The frame of the command owned by this client, so the synchronous
+	 * operations don't allocate a view of it per write <br>
+	 * <b>NOTICE:</b> Valid until the next call with the same command, use
+	 * {@link ProtocolCommand#frame()} for the asynchronous writes
+	 * 
+	 * @param command
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected ByteBuffer syncFrame(ProtocolCommand command) {
+		ByteBuffer retVal = syncFrames[command.ordinal()];
+		if (retVal == null) {
+			retVal = command.frame();
+			syncFrames[command.ordinal()] = retVal;
+		} else {
+			retVal.rewind();
+		}
+		return retVal;
+	}
+
+	/**
+	 * Reads a response from the server without blocking the caller
+	 * 
+	 * @return
+	 * @see #getConnectionMessageSync(AsynchronousSocketChannel)
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected CompletableFuture<String> getConnectionMessageAsync() {
+		CompletableFuture<String> future = new CompletableFuture<>();
+		readFrameAsync(future);
+		return future;
+	}
+
+	/**
+	 * Completes exceptionally if the response doesn't match the expected string
+	 * 
+	 * @param expected
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected CompletableFuture<String> expectResponseAsync(String expected) {
+		return getConnectionMessageAsync().thenApply(response -> {
+			if (!response.equals(expected)) {
+				throw SqsInvalidServerResponseException.fromExpectation(expected, response);
+			}
+			return response;
+		});
+	}
+
+	/**
+	 * Completes exceptionally if the response doesn't contain the expected
+	 * string
+	 * 
+	 * @param expected
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected CompletableFuture<String> expectResponseToContainAsync(String expected) {
+		return getConnectionMessageAsync().thenApply(response -> {
+			if (!response.contains(expected)) {
+				throw SqsInvalidServerResponseException.fromExpectation(expected, response);
+			}
+			return response;
+		});
+	}
+
+	/**
+	 * Starts timing a phase, when there is a metrics listener or a flight
+	 * event <br>
+	 * The phases of a connection are sequential, starting a phase discards the
+	 * one not finished
+	 * 
+	 * @param phase
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void beginPhase(ClientPhase phase) {
+		ClientMetricsListener listener = metricsListener;
+		phaseListener = listener;
+		timingPhase = listener != null || flightEvent != null;
+		if (timingPhase) {
+			currentPhase = phase;
+			if (listener != null) {
+				listener.onPhaseStarted(phase);
+			}
+			phaseStartBytesWritten = bytesWritten;
+			phaseStartBytesRead = bytesRead;
+			phaseStartNanos = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Notifies the listener that the current phase finished successfully
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void endPhase() {
+		completePhase(PhaseOutcome.SUCCESS);
+	}
+
+	/**
+	 * Notifies the listener that the current phase failed, does nothing if
+	 * there is no phase running
+	 * 
+	 * @param cause
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void failPhase(Throwable cause) {
+		if (cause instanceof SqsTimeoutException) {
+			completePhase(PhaseOutcome.TIMEOUT);
+		} else {
+			completePhase(cause instanceof SqsInvalidServerResponseException ? PhaseOutcome.INVALID_RESPONSE
+					: PhaseOutcome.CONNECTION_FAILURE);
+		}
+	}
+
+	/**
+	 * Notifies the listener of a phase timed by the subclass, that spans many
+	 * operations
+	 * 
+	 * @param phase
+	 * @param durationNanos
+	 * @param outcome
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void reportPhase(ClientPhase phase, long durationNanos, PhaseOutcome outcome) {
+		ClientMetricsListener listener = metricsListener;
+		if (listener != null) {
+			listener.onPhaseCompleted(phase, durationNanos, 0, 0, outcome);
+		}
+	}
+
+	/**
+	 * Bounds the synchronous socket operations until {@link #clearDeadline()},
+	 * on expiry they throw {@link SqsTimeoutException}
+	 * 
+	 * @param timeout 0 or less means no deadline
+	 * @param unit
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void startDeadline(long timeout, TimeUnit unit) {
+		hasDeadline = timeout > 0;
+		if (hasDeadline) {
+			deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+		}
+	}
+
+	/**
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void clearDeadline() {
+		hasDeadline = false;
+	}
+
+	/**
+	 * Closes the connection, as the server may still answer the expired
+	 * operation, and the next one would read its response
+	 * 
+	 * @param operation What was being waited for, used in the message
+	 * @param cause
+	 * @return The exception to throw
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected SqsTimeoutException timeoutOf(String operation, Throwable cause) {
+		discardConnection();
+		return new SqsTimeoutException("Timed out waiting for the " + operation, cause);
+	}
+
+	/**
+	 * Takes the connection for an operation, waiting for the running heartbeat
+	 * probe, if any, never beyond the deadline started before <br>
+	 * Every successful call must be followed by {@link #releaseConnection()},
+	 * the operations don't exclude each other, only the heartbeat
+	 * 
+	 * @throws SqsTimeoutException When the deadline expires before the probe
+	 *                             finishes, the connection is not taken
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void acquireConnection() {
+		while (!tryAcquireConnection()) {
+			CompletableFuture<String> probe = heartbeatProbe;
+			long remainingNanos = hasDeadline ? deadlineNanos - System.nanoTime() : NO_TIMEOUT;
+			if (remainingNanos <= 0) {
+				throw new SqsTimeoutException("Timed out waiting for the heartbeat to release the connection", null);
+			} else if (probe == null) {
+				Thread.yield();
+			} else if (remainingNanos == NO_TIMEOUT) {
+				probe.handle((response, exception) -> response).join();
+			} else {
+				awaitProbe(probe, remainingNanos);
+			}
+		}
+	}
+
+	/**
+	 * Takes the connection without waiting, used by the I/O threads, which
+	 * can't wait for the heartbeat, as it may need them to complete
+	 * 
+	 * @return false if the heartbeat owns the connection, in that case
+	 *         {@link #onConnectionReleased()} is invoked when it finishes
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected boolean tryAcquireConnection() {
+		int users;
+		while ((users = connectionUsers.get()) != PROBING) {
+			if (connectionUsers.compareAndSet(users, users + 1)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void releaseConnection() {
+		lastReleasedNanos = System.nanoTime();
+		connectionUsers.decrementAndGet();
+	}
+
+	/**
+	 * 
+	 * @return true while the heartbeat owns the connection
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected boolean isProbing() {
+		return connectionUsers.get() == PROBING;
+	}
+
+	/**
+	 * Invoked by the timer thread when a heartbeat probe finishes, successfully
+	 * or not, does nothing by default
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void onConnectionReleased() {
+		// Nothing waits for the connection by default
+	}
+
+	/**
+	 * Makes the phases of the operation be timed for the flight recorder event,
+	 * even if there is no metrics listener
+	 * 
+	 * @param event Returned by a begin method of {@link #flightRecorder}, may be
+	 *              null
+	 * @return The event
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected Object startFlightEvent(Object event) {
+		flightEvent = event;
+		if (event != null) {
+			Arrays.fill(phaseNanos, 0);
+		}
+		return event;
+	}
+
+	/**
+	 * 
+	 * @return The event of the running operation, null if nothing is recording,
+	 *         or if it has already been finished
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected Object finishFlightEvent() {
+		Object retVal = flightEvent;
+		flightEvent = null;
+		return retVal;
+	}
+
+	/**
+	 * 
+	 * @param phase
+	 * @return The duration of the last run of the phase, only known while there
+	 *         is a flight event or a metrics listener
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected long getPhaseNanos(ClientPhase phase) {
+		return phaseNanos[phase.ordinal()];
+	}
+
+	/**
+	 * Closes the socket without talking to the server, used when the connection
+	 * is no longer usable
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void closeQuietly() {
+		stopHeartbeat();
+		connectionState = ConnectionState.NOT_WANTING_CONNECTION;
+		closeChannel();
 	}
 
 	/**
@@ -179,4 +1050,280 @@ public abstract class AbstractClient implements Client {
 		}
 		throw new SqsConnectionException("Couldn't connect to SQS server", e);
 	}
+
+	private void readMoreSync(AsynchronousSocketChannel client, long readTimeoutMillis)
+			throws InterruptedException, ExecutionException {
+		int read = await(client.read(decoder.readTarget()), readTimeoutMillis, "response of the server");
+		if (read == -1) {
+			connectionState = ConnectionState.NOT_CONNECTED;
+			throw new SqsConnectionException("The SQS server closed the connection", null);
+		}
+		bytesRead += read;
+	}
+
+	/**
+	 * The lines of the CONFIG section, the server responds to each of them, the
+	 * response to the last one is the result of the whole section <br>
+	 * The SET lines are views of the encoder
+	 * 
+	 * @param queue
+	 * @param role
+	 * @return {@link #CONFIG_FRAME_COUNT} buffers
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private ByteBuffer[] createConfigFrames(String queue, ConnectionRole role) {
+		encoder.begin();
+		return new ByteBuffer[] { ProtocolCommand.START_CONFIG.frame(), encoder.encodeSet("QUEUE", queue),
+				encoder.encodeSet("ROLE", role.name()), ProtocolCommand.END_CONFIG.frame() };
+	}
+
+	private boolean isSetConfigFrame(int frameIndex) {
+		return frameIndex >= FIRST_SET_CONFIG_FRAME_INDEX && frameIndex <= LAST_SET_CONFIG_FRAME_INDEX;
+	}
+
+	private void expectConfigResponseSync(int frameIndex) throws InterruptedException, ExecutionException {
+		if (isSetConfigFrame(frameIndex)) {
+			expectResponseToContainSync(OK_WITH_VAL);
+		} else {
+			expectResponseSync(OK_RESPONSE);
+		}
+	}
+
+	private CompletableFuture<String> expectConfigResponsesAsync(int frameIndex) {
+		CompletableFuture<String> response = isSetConfigFrame(frameIndex) ? expectResponseToContainAsync(OK_WITH_VAL)
+				: expectResponseAsync(OK_RESPONSE);
+		return frameIndex == CONFIG_FRAME_COUNT - 1 ? response
+				: response.thenCompose(accepted -> expectConfigResponsesAsync(frameIndex + 1));
+	}
+
+	private CompletableFuture<String> sendConfigFramesAsync(ByteBuffer[] configFrames, int frameIndex) {
+		CompletableFuture<String> response = writeAsync(configFrames[frameIndex])
+				.thenCompose(written -> isSetConfigFrame(frameIndex) ? expectResponseToContainAsync(OK_WITH_VAL)
+						: expectResponseAsync(OK_RESPONSE));
+		return frameIndex == CONFIG_FRAME_COUNT - 1 ? response
+				: response.thenCompose(accepted -> sendConfigFramesAsync(configFrames, frameIndex + 1));
+	}
+
+	/**
+	 * Waits for the I/O operation, up to the timeout, and never beyond the
+	 * deadline of the running operation
+	 * 
+	 * @param future
+	 * @param ioTimeoutMillis 0 means only the deadline applies
+	 * @param operation
+	 * @return
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 * @throws SqsTimeoutException  On expiry, or if the I/O operation timed out
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private <V> V await(Future<V> future, long ioTimeoutMillis, String operation)
+			throws InterruptedException, ExecutionException {
+		long timeoutNanos = ioTimeoutMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(ioTimeoutMillis) : NO_TIMEOUT;
+		if (hasDeadline) {
+			timeoutNanos = Math.min(timeoutNanos, Math.max(0, deadlineNanos - System.nanoTime()));
+		}
+		try {
+			return timeoutNanos == NO_TIMEOUT ? future.get() : future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			throw timeoutOf(operation, e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof SqsTimeoutException) {
+				throw (SqsTimeoutException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private void awaitProbe(CompletableFuture<String> probe, long timeoutNanos) {
+		try {
+			probe.handle((response, exception) -> response).get(timeoutNanos, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SqsTimeoutException("Interrupted while waiting for the heartbeat to release the connection", e);
+		} catch (ExecutionException | TimeoutException e) {
+			// The deadline is checked again before taking the connection
+		}
+	}
+
+	private void scheduleConnectTimeout(CompletableFuture<Void> socketConnected) {
+		long connectTimeoutMillis = clientConfig.getConnectTimeoutMillis();
+		if (connectTimeoutMillis > 0) {
+			ScheduledFuture<?> timer = runtime.getScheduler().schedule(() -> {
+				SqsTimeoutException timeout = new SqsTimeoutException("Timed out waiting for the connection", null);
+				if (socketConnected.completeExceptionally(timeout)) {
+					discardConnection();
+				}
+			}, connectTimeoutMillis, TimeUnit.MILLISECONDS);
+			socketConnected.whenComplete((connected, exception) -> timer.cancel(false));
+		}
+	}
+
+	/**
+	 * Marks the connection unusable, as its state is unknown, and closes it
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private void discardConnection() {
+		if (connectionState != ConnectionState.NOT_WANTING_CONNECTION) {
+			connectionState = ConnectionState.NOT_CONNECTED;
+		}
+		closeChannel();
+	}
+
+	/**
+	 * Closes the socket of the current connection, if any, so reconnecting
+	 * doesn't leave the previous one open
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private void closeChannel() {
+		if (connection != null) {
+			try {
+				connection.close();
+			} catch (IOException e) {
+				// The socket is unusable anyway
+			}
+		}
+	}
+
+	private void startHeartbeat() {
+		long intervalMillis = clientConfig.getHeartbeatIntervalMillis();
+		if (intervalMillis > 0) {
+			long checkPeriodMillis = Math.max(1, intervalMillis / 2);
+			heartbeatTask = runtime.getScheduler().scheduleWithFixedDelay(() -> probeIfIdle(intervalMillis),
+					checkPeriodMillis, checkPeriodMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void stopHeartbeat() {
+		ScheduledFuture<?> task = heartbeatTask;
+		if (task != null) {
+			heartbeatTask = null;
+			task.cancel(false);
+		}
+	}
+
+	/**
+	 * Runs in the timer thread, sends the probe without waiting for its answer,
+	 * the connection is released when the answer arrives, or when the probe
+	 * expires, closing the connection
+	 * 
+	 * @param intervalMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private void probeIfIdle(long intervalMillis) {
+		if (!isAlive()) {
+			stopHeartbeat();
+		} else if (System.nanoTime() - lastReleasedNanos >= TimeUnit.MILLISECONDS.toNanos(intervalMillis)
+				&& connectionUsers.compareAndSet(0, PROBING)) {
+			long timeoutMillis = clientConfig.getHeartbeatTimeoutMillis() > 0 ? clientConfig.getHeartbeatTimeoutMillis()
+					: intervalMillis;
+			CompletableFuture<String> probe = writeAsync(ProtocolCommand.RUN_PING.frame())
+					.thenCompose(written -> expectResponseAsync(OK_RESPONSE));
+			heartbeatProbe = probe;
+			ScheduledFuture<?> expiration = runtime.getScheduler().schedule(() -> {
+				if (probe.completeExceptionally(new SqsTimeoutException("Timed out waiting for the heartbeat", null))) {
+					discardConnection();
+				}
+			}, timeoutMillis, TimeUnit.MILLISECONDS);
+			probe.whenComplete((response, exception) -> {
+				expiration.cancel(false);
+				if (exception != null) {
+					stopHeartbeat();
+					discardConnection();
+				}
+				heartbeatProbe = null;
+				lastReleasedNanos = System.nanoTime();
+				connectionUsers.set(0);
+				onConnectionReleased();
+			});
+		}
+	}
+
+	private RuntimeException toConnectException(Throwable exception) {
+		Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+				? exception.getCause()
+				: exception;
+		return cause instanceof RuntimeException ? (RuntimeException) cause
+				: new SqsConnectionException("Couldn't connect to SQS server", cause);
+	}
+
+	private void completePhase(PhaseOutcome outcome) {
+		if (timingPhase) {
+			long durationNanos = System.nanoTime() - phaseStartNanos;
+			timingPhase = false;
+			phaseNanos[currentPhase.ordinal()] = durationNanos;
+			ClientMetricsListener listener = phaseListener;
+			if (listener != null) {
+				phaseListener = null;
+				listener.onPhaseCompleted(currentPhase, durationNanos, bytesWritten - phaseStartBytesWritten,
+						bytesRead - phaseStartBytesRead, outcome);
+			}
+		}
+	}
+
+	private void readFrameAsync(CompletableFuture<String> future) {
+		try {
+			String frame = decoder.nextFrame(RESPONSE_PARSER);
+			if (frame != null) {
+				future.complete(frame);
+			} else {
+				connection.read(decoder.readTarget(), clientConfig.getReadTimeoutMillis(), TimeUnit.MILLISECONDS, future,
+						frameReadHandler);
+			}
+		} catch (RuntimeException e) {
+			future.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * Writes the buffers, issuing a new write while something remains
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private class GatheringWrite implements CompletionHandler<Long, Void> {
+		private final ByteBuffer[] buffers;
+		private final CompletableFuture<Void> future;
+		private int offset;
+
+		private GatheringWrite(ByteBuffer[] buffers, CompletableFuture<Void> future) {
+			this.buffers = buffers;
+			this.future = future;
+		}
+
+		private void writeRemaining() {
+			while (offset < buffers.length && !buffers[offset].hasRemaining()) {
+				offset++;
+			}
+			if (offset == buffers.length) {
+				future.complete(null);
+			} else {
+				try {
+					connection.write(buffers, offset, buffers.length - offset, clientConfig.getWriteTimeoutMillis(),
+							TimeUnit.MILLISECONDS, null, this);
+				} catch (RuntimeException e) {
+					failed(e, null);
+				}
+			}
+		}
+
+		@Override
+		public void completed(Long result, Void attachment) {
+			bytesWritten += result;
+			writeRemaining();
+		}
+
+		@Override
+		public void failed(Throwable exc, Void attachment) {
+			connectionState = ConnectionState.NOT_CONNECTED;
+			future.completeExceptionally(exc instanceof InterruptedByTimeoutException ? timeoutOf("write", exc) : exc);
+		}
+	}
 }
@@ -7,14 +7,16 @@ import java.io.Serializable;
 import java.util.Date;
 
 /**
+ * Holds the delivery times as primitive millis, the {@link Date} and
+ * {@link Long} accessors convert them on each call
  * 
  * @since 1.1.0
  * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
  */
 public abstract class AbstractMessage<T extends Serializable> implements Message<T> {
 	private T body;
-	private Date deliverDate;
-	private Long deliverAfter;
+	private long deliverDateMillis = NO_TIME;
+	private long deliverAfterMillis = NO_TIME;
 
 	/**
 	 * 
@@ -46,23 +48,24 @@ public abstract class AbstractMessage<T extends Serializable> implements Message
 	}
 
 	/**
-	 * @return the deliverDate
+	 * @return the deliverDate, a new instance on each call
 	 * @since 1.0.0
 	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
 	 */
 	@Override
 	public Date getDeliverDate() {
-		return deliverDate;
+		return deliverDateMillis == NO_TIME ? null : new Date(deliverDateMillis);
 	}
 
 	/**
-	 * @param deliverDate the deliverDate to set
+	 * @param deliverDate the deliverDate to set, later changes to the instance
+	 *                    are not seen by the message
 	 * @since 1.0.0
 	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
 	 */
 	@Override
 	public void setDeliverDate(Date deliverDate) {
-		this.deliverDate = deliverDate;
+		deliverDateMillis = deliverDate == null ? NO_TIME : deliverDate.getTime();
 	}
 
 	/**
@@ -72,7 +75,7 @@ public abstract class AbstractMessage<T extends Serializable> implements Message
 	 */
 	@Override
 	public Long getDeliverAfter() {
-		return deliverAfter;
+		return deliverAfterMillis == NO_TIME ? null : deliverAfterMillis;
 	}
 
 	/**
@@ -82,6 +85,46 @@ public abstract class AbstractMessage<T extends Serializable> implements Message
 	 */
 	@Override
 	public void setDeliverDelay(Long deliverAfter) {
-		this.deliverAfter = deliverAfter;
+		deliverAfterMillis = deliverAfter == null ? NO_TIME : deliverAfter;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.kevinguanchedarias.sqs.Message#getDeliverDateMillis()
+	 */
+	@Override
+	public long getDeliverDateMillis() {
+		return deliverDateMillis;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.kevinguanchedarias.sqs.Message#getDeliverAfterMillis()
+	 */
+	@Override
+	public long getDeliverAfterMillis() {
+		return deliverAfterMillis;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.kevinguanchedarias.sqs.Message#setDeliverDateMillis(long)
+	 */
+	@Override
+	public void setDeliverDateMillis(long epochMillis) {
+		deliverDateMillis = epochMillis;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.kevinguanchedarias.sqs.Message#setDeliverDelayMillis(long)
+	 */
+	@Override
+	public void setDeliverDelayMillis(long delayMillis) {
+		deliverAfterMillis = delayMillis;
 	}
 }
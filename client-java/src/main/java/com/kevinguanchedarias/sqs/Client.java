@@ -3,6 +3,8 @@
  */
 package com.kevinguanchedarias.sqs;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 
  * @since 1.0.0
@@ -21,6 +23,20 @@ public interface Client {
 	 */
 	void connect(String host, int port, String queue);
 
+	/**
+	 * Connects to the SQS server without blocking the caller, so many clients
+	 * can connect in parallel
+	 * 
+	 * @param host
+	 * @param port
+	 * @param queue
+	 * @return Completes when the server has accepted the configuration, the
+	 *         client must not be used before
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	CompletableFuture<Void> connectAsync(String host, int port, String queue);
+
 	/**
 	 * Closes the connection with the SQS server
 	 * 
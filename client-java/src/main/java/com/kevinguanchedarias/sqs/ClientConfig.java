@@ -0,0 +1,170 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs;
+
+/**
+ * Timeouts of the socket operations of a client, 0 means wait forever, which
+ * is the default <br>
+ * When a timeout expires, the operation fails with
+ * {@link com.kevinguanchedarias.sqs.exception.SqsTimeoutException}, and the
+ * connection is closed, as the server may answer later, out of order
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class ClientConfig {
+	private long connectTimeoutMillis;
+	private long readTimeoutMillis;
+	private long writeTimeoutMillis;
+	private long operationTimeoutMillis;
+	private long heartbeatIntervalMillis;
+	private long heartbeatTimeoutMillis;
+
+	/**
+	 * Max time to open the socket
+	 *
+	 * @param connectTimeoutMillis
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ClientConfig withConnectTimeoutMillis(long connectTimeoutMillis) {
+		this.connectTimeoutMillis = connectTimeoutMillis;
+		return this;
+	}
+
+	/**
+	 * Max time waiting for each response of the server <br>
+	 * Doesn't apply while a consumer waits for the server to deliver a message,
+	 * as the queue may be empty, use the operation timeout for that
+	 *
+	 * @param readTimeoutMillis
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ClientConfig withReadTimeoutMillis(long readTimeoutMillis) {
+		this.readTimeoutMillis = readTimeoutMillis;
+		return this;
+	}
+
+	/**
+	 * Max time for each write to complete, a write only blocks when the server
+	 * doesn't read, and the socket buffers are full
+	 *
+	 * @param writeTimeoutMillis
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ClientConfig withWriteTimeoutMillis(long writeTimeoutMillis) {
+		this.writeTimeoutMillis = writeTimeoutMillis;
+		return this;
+	}
+
+	/**
+	 * Deadline of the whole sendMessageSync() and receiveMessageSync(), when
+	 * invoked without an explicit timeout, it doesn't apply to the onMessage
+	 * loop
+	 *
+	 * @param operationTimeoutMillis
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ClientConfig withOperationTimeoutMillis(long operationTimeoutMillis) {
+		this.operationTimeoutMillis = operationTimeoutMillis;
+		return this;
+	}
+
+	/**
+	 * Sends a RUN PING when the connection has been idle for the interval, and
+	 * closes it if the server doesn't answer in time, so
+	 * {@link com.kevinguanchedarias.sqs.Client#isAlive()} reports the half open
+	 * connections <br>
+	 * Only the idle connections are probed, a consumer waiting for the server to
+	 * deliver a message relies on SO_KEEPALIVE, or on the timeout of
+	 * receiveMessageSync(), the onMessage loop waits without timeout, as the
+	 * queue may stay empty <br>
+	 * Takes effect on the next connect, the probes run in the timer of the
+	 * {@link SqsRuntime}
+	 * 
+	 * @param heartbeatIntervalMillis 0 disables the heartbeat, which is the
+	 *                                default
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ClientConfig withHeartbeatIntervalMillis(long heartbeatIntervalMillis) {
+		this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+		return this;
+	}
+
+	/**
+	 * Max time waiting for the answer to a RUN PING
+	 * 
+	 * @param heartbeatTimeoutMillis 0 to use the heartbeat interval
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ClientConfig withHeartbeatTimeoutMillis(long heartbeatTimeoutMillis) {
+		this.heartbeatTimeoutMillis = heartbeatTimeoutMillis;
+		return this;
+	}
+
+	/**
+	 * @return the connectTimeoutMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getConnectTimeoutMillis() {
+		return connectTimeoutMillis;
+	}
+
+	/**
+	 * @return the readTimeoutMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getReadTimeoutMillis() {
+		return readTimeoutMillis;
+	}
+
+	/**
+	 * @return the writeTimeoutMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getWriteTimeoutMillis() {
+		return writeTimeoutMillis;
+	}
+
+	/**
+	 * @return the operationTimeoutMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getOperationTimeoutMillis() {
+		return operationTimeoutMillis;
+	}
+
+	/**
+	 * @return the heartbeatIntervalMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getHeartbeatIntervalMillis() {
+		return heartbeatIntervalMillis;
+	}
+
+	/**
+	 * @return the heartbeatTimeoutMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getHeartbeatTimeoutMillis() {
+		return heartbeatTimeoutMillis;
+	}
+}
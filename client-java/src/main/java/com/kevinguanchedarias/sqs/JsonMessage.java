@@ -0,0 +1,16 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs;
+
+import java.io.Serializable;
+
+/**
+ * Message which body is a user POJO, serialized as JSON
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class JsonMessage<B extends Serializable> extends AbstractMessage<B> {
+
+}
@@ -14,6 +14,13 @@ import java.util.Date;
  */
 public interface Message<T extends Serializable> {
 
+	/**
+	 * Value of the primitive delivery times when they are not defined
+	 * 
+	 * @since 1.1.0
+	 */
+	public static final long NO_TIME = Long.MIN_VALUE;
+
 	/**
 	 * 
 	 * @return
@@ -61,4 +68,48 @@ public interface Message<T extends Serializable> {
 	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
 	 */
 	public void setDeliverDelay(Long time);
+
+	/**
+	 * Allocation free version of {@link #getDeliverDate()}
+	 * 
+	 * @return The deliver date as epoch millis, or {@link #NO_TIME}
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public default long getDeliverDateMillis() {
+		Date date = getDeliverDate();
+		return date == null ? NO_TIME : date.getTime();
+	}
+
+	/**
+	 * Allocation free version of {@link #getDeliverAfter()}
+	 * 
+	 * @return The delay in millis, or {@link #NO_TIME}
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public default long getDeliverAfterMillis() {
+		Long deliverAfter = getDeliverAfter();
+		return deliverAfter == null ? NO_TIME : deliverAfter;
+	}
+
+	/**
+	 * 
+	 * @param epochMillis {@link #NO_TIME} to remove it
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public default void setDeliverDateMillis(long epochMillis) {
+		setDeliverDate(epochMillis == NO_TIME ? null : new Date(epochMillis));
+	}
+
+	/**
+	 * 
+	 * @param delayMillis {@link #NO_TIME} to remove it
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public default void setDeliverDelayMillis(long delayMillis) {
+		setDeliverDelay(delayMillis == NO_TIME ? null : delayMillis);
+	}
 }
@@ -4,8 +4,12 @@
 package com.kevinguanchedarias.sqs;
 
 import java.io.Serializable;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import com.kevinguanchedarias.sqs.exception.SqsMessageInstanciationError;
 
@@ -19,6 +23,13 @@ import com.kevinguanchedarias.sqs.exception.SqsMessageInstanciationError;
  * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
  */
 public class MessageBuilder {
+	private static final Map<Class<?>, Supplier<?>> FACTORIES = new ConcurrentHashMap<>();
+
+	static {
+		registerFactory(TextMessage.class, TextMessage::new);
+		registerFactory(JsonMessageOuter.class, JsonMessageOuter::new);
+		registerJsonMessageFactory();
+	}
 
 	/**
 	 * Returns a new instance of the buiilder
@@ -34,6 +45,44 @@ public class MessageBuilder {
 		return new MessageBuilder(clazz);
 	}
 
+	/**
+	 * Registers the factory used to create the messages of the class, instead
+	 * of invoking its constructor by reflection <br>
+	 * The factories of the messages of this library are already registered
+	 * 
+	 * @param <B>
+	 * @param <T>
+	 * @param clazz
+	 * @param factory Must return a new instance on each call
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static <B extends Serializable, T extends Message<B>> void registerFactory(Class<T> clazz,
+			Supplier<? extends T> factory) {
+		FACTORIES.put(clazz, factory);
+	}
+
+	/**
+	 * 
+	 * @param <B>
+	 * @param <T>
+	 * @param clazz
+	 * @return The registered factory of the class, or one invoking its no args
+	 *         constructor by reflection, which is registered for the next calls
+	 * @throws SqsMessageInstanciationError If the class has no accessible no
+	 *                                      args constructor
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	@SuppressWarnings("unchecked")
+	public static <B extends Serializable, T extends Message<B>> Supplier<T> getFactory(Class<T> clazz) {
+		Supplier<?> retVal = FACTORIES.get(clazz);
+		if (retVal == null) {
+			retVal = FACTORIES.computeIfAbsent(clazz, key -> createReflectiveFactory(clazz));
+		}
+		return (Supplier<T>) retVal;
+	}
+
 	@SuppressWarnings("rawtypes")
 	private Message message;
 
@@ -76,7 +125,7 @@ public class MessageBuilder {
 	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
 	 */
 	public MessageBuilder withDeliverDate(Date date) {
-		if (message.getDeliverAfter() != null) {
+		if (message.getDeliverAfterMillis() != Message.NO_TIME) {
 			throw new IllegalArgumentException("You can't specify deliverDate, when you have defined deliverDelay");
 		}
 
@@ -84,6 +133,24 @@ public class MessageBuilder {
 		return this;
 	}
 
+	/**
+	 * Adds the DELIVER_DATE, without allocating a {@link Date}
+	 * 
+	 * @param epochMillis
+	 * @return
+	 * @throws IllegalArgumentException If DELIVER_AFTER is defined, can't specify
+	 *                                  both dates
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public MessageBuilder withDeliverDateMillis(long epochMillis) {
+		if (message.getDeliverAfterMillis() != Message.NO_TIME) {
+			throw new IllegalArgumentException("You can't specify deliverDate, when you have defined deliverDelay");
+		}
+		message.setDeliverDateMillis(epochMillis);
+		return this;
+	}
+
 	/**
 	 * Adds the DELIVER_AFTER
 	 * 
@@ -95,23 +162,36 @@ public class MessageBuilder {
 	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
 	 */
 	public MessageBuilder withDeliverDelay(Long secondsDelay) {
-		if (message.getDeliverDate() != null) {
+		if (message.getDeliverDateMillis() != Message.NO_TIME) {
 			throw new IllegalArgumentException("You can't specify deliverDelay, when you have defined deliverDate");
 		}
-		message.setDeliverDelay(secondsDelay * 1000);
+		message.setDeliverDelayMillis(secondsDelay * 1000);
 		return this;
 	}
 
 	private <B extends Serializable, T extends Message<B>> MessageBuilder(Class<T> clazz) {
-		message = createMessage(clazz);
+		message = getFactory(clazz).get();
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static void registerJsonMessageFactory() {
+		registerFactory((Class) JsonMessage.class, JsonMessage::new);
 	}
 
-	private <B extends Serializable, T extends Message<B>> T createMessage(Class<T> clazz) {
+	private static <T> Supplier<T> createReflectiveFactory(Class<T> clazz) {
+		Constructor<T> constructor;
 		try {
-			return clazz.getDeclaredConstructor().newInstance();
-		} catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
-				| NoSuchMethodException | SecurityException e) {
+			constructor = clazz.getDeclaredConstructor();
+		} catch (NoSuchMethodException | SecurityException e) {
 			throw new SqsMessageInstanciationError("Could NOT create an instance of " + clazz.getName(), e);
 		}
+		return () -> {
+			try {
+				return constructor.newInstance();
+			} catch (InstantiationException | IllegalAccessException | IllegalArgumentException
+					| InvocationTargetException e) {
+				throw new SqsMessageInstanciationError("Could NOT create an instance of " + clazz.getName(), e);
+			}
+		};
 	}
 }
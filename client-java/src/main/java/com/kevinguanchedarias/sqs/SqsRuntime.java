@@ -0,0 +1,270 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.StandardSocketOptions;
+import java.nio.channels.AsynchronousChannelGroup;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevinguanchedarias.sqs.consumer.TextConsumer;
+import com.kevinguanchedarias.sqs.consumer.TypedJsonConsumer;
+import com.kevinguanchedarias.sqs.exception.SqsBadStateException;
+import com.kevinguanchedarias.sqs.exception.SqsRuntimeException;
+import com.kevinguanchedarias.sqs.producer.TextProducer;
+import com.kevinguanchedarias.sqs.producer.TypedJsonProducer;
+import com.kevinguanchedarias.sqs.protocol.BufferPool;
+import com.kevinguanchedarias.sqs.protocol.SqsProtocolEncoder;
+
+/**
+ * Shares the I/O threads and the pool of big buffers between many clients,
+ * and applies the socket options to their connections <br>
+ * Create one per application, and create the clients with it, example: <br>
+ * <code>
+ * SqsRuntime runtime = new SqsRuntime(new SqsRuntimeConfig().withIoThreads(2));<br>
+ * TextProducer producer = runtime.createTextProducer();<br>
+ * ProducerPool&lt;String&gt; pool = new ProducerPool&lt;&gt;(runtime::createTextProducer, poolConfig);
+ * </code> <br>
+ * The clients created with their constructors use {@link #getDefault()}
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class SqsRuntime implements AutoCloseable {
+	private static final AtomicInteger RUNTIME_COUNT = new AtomicInteger();
+
+	private final SqsRuntimeConfig config;
+	private final AsynchronousChannelGroup channelGroup;
+	private final BufferPool bufferPool;
+	private final ThreadLocal<SqsProtocolEncoder> threadEncoder;
+	private final int runtimeNumber = RUNTIME_COUNT.incrementAndGet();
+	private ScheduledThreadPoolExecutor scheduler;
+
+	/**
+	 *
+	 * @param config
+	 * @throws SqsRuntimeException When the I/O threads can't be started
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsRuntime(SqsRuntimeConfig config) {
+		this.config = config;
+		bufferPool = new BufferPool(config.getBufferPoolMaxBytes());
+		threadEncoder = ThreadLocal
+				.withInitial(() -> new SqsProtocolEncoder(AbstractClient.BUFFER_INITIAL_SIZE, bufferPool));
+		if (config.getIoThreads() == 0) {
+			channelGroup = null;
+		} else {
+			try {
+				channelGroup = AsynchronousChannelGroup.withFixedThreadPool(config.getIoThreads(),
+						new RuntimeThreadFactory("sqs-io-" + runtimeNumber));
+			} catch (IOException e) {
+				throw new SqsRuntimeException("Couldn't start the I/O threads", e);
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @return The runtime used by the clients created without one, it uses the
+	 *         default channel group of the JVM, and the default socket options
+	 *         of {@link SqsRuntimeConfig}
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static SqsRuntime getDefault() {
+		return DefaultRuntimeHolder.INSTANCE;
+	}
+
+	/**
+	 * Opens a not connected socket in the channel group of the runtime, with
+	 * the configured options
+	 *
+	 * @return
+	 * @throws IOException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public AsynchronousSocketChannel openChannel() throws IOException {
+		AsynchronousSocketChannel retVal = AsynchronousSocketChannel.open(channelGroup);
+		try {
+			retVal.setOption(StandardSocketOptions.TCP_NODELAY, config.isTcpNoDelay());
+			retVal.setOption(StandardSocketOptions.SO_KEEPALIVE, config.isKeepAlive());
+			if (config.getSendBufferSize() > 0) {
+				retVal.setOption(StandardSocketOptions.SO_SNDBUF, config.getSendBufferSize());
+			}
+			if (config.getReceiveBufferSize() > 0) {
+				retVal.setOption(StandardSocketOptions.SO_RCVBUF, config.getReceiveBufferSize());
+			}
+		} catch (IOException | RuntimeException e) {
+			retVal.close();
+			throw e;
+		}
+		return retVal;
+	}
+
+	/**
+	 * The timer shared by the clients, runs the heartbeats and expires the
+	 * async connects <br>
+	 * Created on first use, its single daemon thread must only run short tasks
+	 *
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public synchronized ScheduledExecutorService getScheduler() {
+		if (scheduler == null) {
+			scheduler = new ScheduledThreadPoolExecutor(1, new RuntimeThreadFactory("sqs-timer-" + runtimeNumber));
+			scheduler.setRemoveOnCancelPolicy(true);
+		}
+		return scheduler;
+	}
+
+	/**
+	 *
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TextProducer createTextProducer() {
+		return new TextProducer(this);
+	}
+
+	/**
+	 *
+	 * @param mapper
+	 * @param type   The class of the bodies
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public <T extends Serializable> TypedJsonProducer<T> createTypedJsonProducer(ObjectMapper mapper, Class<T> type) {
+		return new TypedJsonProducer<>(this, mapper, type);
+	}
+
+	/**
+	 *
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TextConsumer createTextConsumer() {
+		return new TextConsumer(this);
+	}
+
+	/**
+	 *
+	 * @param mapper
+	 * @param type   The class of the bodies
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public <T extends Serializable> TypedJsonConsumer<T> createTypedJsonConsumer(ObjectMapper mapper, Class<T> type) {
+		return new TypedJsonConsumer<>(this, mapper, type);
+	}
+
+	/**
+	 *
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsRuntimeConfig getConfig() {
+		return config;
+	}
+
+	/**
+	 *
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public BufferPool getBufferPool() {
+		return bufferPool;
+	}
+
+	/**
+	 * The encoder of the calling thread, used by the clients to encode the
+	 * messages of the asynchronous operations in the caller thread, its big
+	 * buffers come from {@link #getBufferPool()} <br>
+	 * <b>NOTICE:</b> The encoded views are valid until the thread uses it again
+	 *
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsProtocolEncoder getThreadEncoder() {
+		return threadEncoder.get();
+	}
+
+	/**
+	 * Stops the I/O threads and the timer, closing the connections of the
+	 * clients that have not quit
+	 *
+	 * @throws SqsBadStateException When invoked on the default runtime
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		if (this == DefaultRuntimeHolder.INSTANCE) {
+			throw new SqsBadStateException("The default runtime can't be closed");
+		}
+		synchronized (this) {
+			if (scheduler != null) {
+				scheduler.shutdownNow();
+			}
+		}
+		if (channelGroup != null) {
+			try {
+				channelGroup.shutdownNow();
+			} catch (IOException e) {
+				throw new SqsRuntimeException("Couldn't stop the I/O threads", e);
+			}
+		}
+	}
+
+	/**
+	 * Created on first use, so the applications that don't use the default
+	 * runtime don't pay for it
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private static class DefaultRuntimeHolder {
+		private static final SqsRuntime INSTANCE = new SqsRuntime(new SqsRuntimeConfig().withIoThreads(0));
+
+		private DefaultRuntimeHolder() {
+		}
+	}
+
+	/**
+	 * Daemon threads, so a runtime that is never closed doesn't keep the JVM
+	 * alive
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private static class RuntimeThreadFactory implements ThreadFactory {
+		private final String namePrefix;
+		private final AtomicInteger threadCount = new AtomicInteger();
+
+		private RuntimeThreadFactory(String namePrefix) {
+			this.namePrefix = namePrefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread retVal = new Thread(runnable, namePrefix + "-" + threadCount.incrementAndGet());
+			retVal.setDaemon(true);
+			return retVal;
+		}
+	}
+}
@@ -0,0 +1,160 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs;
+
+/**
+ * The I/O threads, socket options and buffer pool of a {@link SqsRuntime}
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class SqsRuntimeConfig {
+	public static final long DEFAULT_BUFFER_POOL_MAX_BYTES = 64L * 1024 * 1024;
+
+	private int ioThreads = Runtime.getRuntime().availableProcessors();
+	private boolean tcpNoDelay = true;
+	private boolean keepAlive;
+	private int sendBufferSize;
+	private int receiveBufferSize;
+	private long bufferPoolMaxBytes = DEFAULT_BUFFER_POOL_MAX_BYTES;
+
+	/**
+	 * Threads that complete the I/O of all the clients of the runtime, defaults
+	 * to the number of processors
+	 *
+	 * @param ioThreads 0 to use the default channel group of the JVM
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsRuntimeConfig withIoThreads(int ioThreads) {
+		if (ioThreads < 0) {
+			throw new IllegalArgumentException("ioThreads can't be negative");
+		}
+		this.ioThreads = ioThreads;
+		return this;
+	}
+
+	/**
+	 * Disables the Nagle algorithm, enabled by default, as the protocol sends
+	 * small lines, and the async and prefetch modes write again before the
+	 * server ACKs the previous line
+	 *
+	 * @param tcpNoDelay
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsRuntimeConfig withTcpNoDelay(boolean tcpNoDelay) {
+		this.tcpNoDelay = tcpNoDelay;
+		return this;
+	}
+
+	/**
+	 * Enables SO_KEEPALIVE, so the OS detects the dead idle connections
+	 *
+	 * @param keepAlive
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsRuntimeConfig withKeepAlive(boolean keepAlive) {
+		this.keepAlive = keepAlive;
+		return this;
+	}
+
+	/**
+	 * SO_SNDBUF of each socket
+	 *
+	 * @param sendBufferSize 0 to keep the OS default
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsRuntimeConfig withSendBufferSize(int sendBufferSize) {
+		this.sendBufferSize = sendBufferSize;
+		return this;
+	}
+
+	/**
+	 * SO_RCVBUF of each socket, set before connecting, so it's used to choose
+	 * the TCP window scale
+	 *
+	 * @param receiveBufferSize 0 to keep the OS default
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsRuntimeConfig withReceiveBufferSize(int receiveBufferSize) {
+		this.receiveBufferSize = receiveBufferSize;
+		return this;
+	}
+
+	/**
+	 * Max bytes kept by the shared pool of the buffers used by big messages
+	 *
+	 * @param bufferPoolMaxBytes 0 disables the pool
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsRuntimeConfig withBufferPoolMaxBytes(long bufferPoolMaxBytes) {
+		this.bufferPoolMaxBytes = bufferPoolMaxBytes;
+		return this;
+	}
+
+	/**
+	 * @return the ioThreads
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getIoThreads() {
+		return ioThreads;
+	}
+
+	/**
+	 * @return the tcpNoDelay
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isTcpNoDelay() {
+		return tcpNoDelay;
+	}
+
+	/**
+	 * @return the keepAlive
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isKeepAlive() {
+		return keepAlive;
+	}
+
+	/**
+	 * @return the sendBufferSize
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getSendBufferSize() {
+		return sendBufferSize;
+	}
+
+	/**
+	 * @return the receiveBufferSize
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getReceiveBufferSize() {
+		return receiveBufferSize;
+	}
+
+	/**
+	 * @return the bufferPoolMaxBytes
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getBufferPoolMaxBytes() {
+		return bufferPoolMaxBytes;
+	}
+}
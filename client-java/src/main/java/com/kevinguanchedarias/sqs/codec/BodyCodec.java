@@ -0,0 +1,51 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Compresses the bodies of the messages, the producer wraps the compressed
+ * bytes in a {@link BodyEnvelope}, so the server still receives valid JSON,
+ * and the consumer finds the codec by its name to decode them <br>
+ * Implementations must be thread safe, {@link DeflateBodyCodec} and
+ * {@link GzipBodyCodec} are provided
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public interface BodyCodec {
+
+	/**
+	 *
+	 * @return The name stored in the envelope, must not contain quotes nor
+	 *         backslashes
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String getName();
+
+	/**
+	 *
+	 * @param target Where the compressed bytes are written
+	 * @return A stream that compresses what is written to it, closing it must
+	 *         finish the compressed data
+	 * @throws IOException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public OutputStream encodingStream(OutputStream target) throws IOException;
+
+	/**
+	 *
+	 * @param source The compressed bytes
+	 * @return A stream of the original bytes
+	 * @throws IOException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public InputStream decodingStream(InputStream source) throws IOException;
+}
@@ -0,0 +1,199 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+import com.kevinguanchedarias.sqs.exception.SqsBodyCodecException;
+import com.kevinguanchedarias.sqs.protocol.SqsProtocolEncoder;
+
+/**
+ * The JSON object that carries a compressed body through the server, the
+ * server only requires the body to be valid JSON: <br>
+ * <code>{"$sqsCodec":"deflate","data":"base64 of the compressed body"}</code>
+ * <br>
+ * It's always written without spaces, so the consumers detect it by its first
+ * bytes, a body of a message must not start with the same bytes
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class BodyEnvelope {
+	private static final byte[] PREFIX = "{\"$sqsCodec\":\"".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] DATA_KEY = "\",\"data\":\"".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] SUFFIX = "\"}".getBytes(StandardCharsets.UTF_8);
+	private static final int READ_CHUNK_SIZE = 8192;
+
+	private BodyEnvelope() {
+		// Static methods only
+	}
+
+	/**
+	 * Compresses the body of the frame into an envelope
+	 *
+	 * @param codec
+	 * @param bodyFrame A view returned by the encoder, with the body followed by
+	 *                  the END_MESSAGE line
+	 * @param target    The encoder of the frame
+	 * @return The envelope followed by the END_MESSAGE line, or the frame itself
+	 *         when the envelope is not smaller
+	 * @throws SqsBodyCodecException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static ByteBuffer wrap(BodyCodec codec, ByteBuffer bodyFrame, SqsProtocolEncoder target) {
+		ByteBuffer body = bodyFrame.duplicate();
+		body.limit(body.limit() - SqsProtocolEncoder.END_MESSAGE_SUFFIX_LENGTH);
+		ByteBuffer retVal;
+		try {
+			// The encoder keeps the bytes of the frame when it grows, so the body can
+			// be read while the envelope is appended
+			retVal = target.encodeMessageBody(out -> writeEnvelope(codec, body, out));
+		} catch (IOException e) {
+			throw new SqsBodyCodecException("Couldn't compress the body with " + codec.getName(), e);
+		}
+		return retVal.remaining() < bodyFrame.remaining() ? retVal : bodyFrame;
+	}
+
+	/**
+	 *
+	 * @param source
+	 * @param offset
+	 * @param length
+	 * @return The name of the codec of the envelope, null if the body is not an
+	 *         envelope
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static String getCodecName(byte[] source, int offset, int length) {
+		if (!matches(source, offset, offset + length, PREFIX)) {
+			return null;
+		}
+		int nameStart = offset + PREFIX.length;
+		for (int i = nameStart; i < offset + length; i++) {
+			if (source[i] == '"') {
+				return new String(source, nameStart, i - nameStart, StandardCharsets.UTF_8);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Decodes the body of an envelope
+	 *
+	 * @param codec    The codec named by {@link #getCodecName(byte[], int, int)}
+	 * @param source
+	 * @param offset
+	 * @param length
+	 * @param maxBytes Max size of the decoded body
+	 * @return The decoded body, its array may be bigger
+	 * @throws SqsBodyCodecException When the envelope is not valid, or the body
+	 *                               is bigger than maxBytes
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static ByteBuffer unwrap(BodyCodec codec, byte[] source, int offset, int length, int maxBytes) {
+		int end = offset + length;
+		int dataStart = offset + PREFIX.length + codec.getName().getBytes(StandardCharsets.UTF_8).length;
+		if (!matches(source, dataStart, end - SUFFIX.length, DATA_KEY)
+				|| !matches(source, end - SUFFIX.length, end, SUFFIX)) {
+			throw new SqsBodyCodecException("The body is not a valid " + codec.getName() + " envelope", null);
+		}
+		dataStart += DATA_KEY.length;
+		int dataLength = end - SUFFIX.length - dataStart;
+		try (InputStream decoded = codec.decodingStream(
+				Base64.getDecoder().wrap(new ByteArrayInputStream(source, dataStart, dataLength)))) {
+			byte[] buffer = new byte[(int) Math.min(maxBytes, Math.max(READ_CHUNK_SIZE, dataLength * 4L))];
+			int size = 0;
+			while (true) {
+				if (size == buffer.length) {
+					if (size >= maxBytes) {
+						if (decoded.read() != -1) {
+							throw new SqsBodyCodecException(
+									"The decoded body is bigger than " + maxBytes + " bytes", null);
+						}
+						break;
+					}
+					buffer = Arrays.copyOf(buffer, (int) Math.min(maxBytes, buffer.length * 2L));
+				}
+				int read = decoded.read(buffer, size, buffer.length - size);
+				if (read == -1) {
+					break;
+				}
+				size += read;
+			}
+			return ByteBuffer.wrap(buffer, 0, size);
+		} catch (IOException | IllegalArgumentException e) {
+			throw new SqsBodyCodecException("Couldn't decode the body with " + codec.getName(), e);
+		}
+	}
+
+	private static void writeEnvelope(BodyCodec codec, ByteBuffer body, OutputStream out) throws IOException {
+		out.write(PREFIX);
+		out.write(codec.getName().getBytes(StandardCharsets.UTF_8));
+		out.write(DATA_KEY);
+		try (OutputStream compressed = codec.encodingStream(Base64.getEncoder().wrap(new UnclosableStream(out)))) {
+			if (body.hasArray()) {
+				compressed.write(body.array(), body.arrayOffset() + body.position(), body.remaining());
+			} else {
+				byte[] chunk = new byte[Math.min(body.remaining(), READ_CHUNK_SIZE)];
+				while (body.hasRemaining()) {
+					int chunkSize = Math.min(body.remaining(), chunk.length);
+					body.get(chunk, 0, chunkSize);
+					compressed.write(chunk, 0, chunkSize);
+				}
+			}
+		}
+		out.write(SUFFIX);
+	}
+
+	private static boolean matches(byte[] source, int start, int end, byte[] expected) {
+		if (start < 0 || end - start < expected.length) {
+			return false;
+		}
+		for (int i = 0; i < expected.length; i++) {
+			if (source[start + i] != expected[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Lets the compressed streams finish their data without closing the stream
+	 * of the encoder
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private static class UnclosableStream extends OutputStream {
+		private final OutputStream target;
+
+		private UnclosableStream(OutputStream target) {
+			this.target = target;
+		}
+
+		@Override
+		public void write(int value) throws IOException {
+			target.write(value);
+		}
+
+		@Override
+		public void write(byte[] source, int offset, int length) throws IOException {
+			target.write(source, offset, length);
+		}
+
+		@Override
+		public void close() {
+			// The encoder's stream stays open
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compresses with the zlib format of {@link Deflater}
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class DeflateBodyCodec implements BodyCodec {
+	public static final String NAME = "deflate";
+	static final int STREAM_BUFFER_SIZE = 8192;
+
+	private final int level;
+
+	/**
+	 * Uses the default level of {@link Deflater}
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public DeflateBodyCodec() {
+		this(Deflater.DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 *
+	 * @param level From {@link Deflater#BEST_SPEED} to
+	 *              {@link Deflater#BEST_COMPRESSION}
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public DeflateBodyCodec(int level) {
+		this.level = level;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.kevinguanchedarias.sqs.codec.BodyCodec#getName()
+	 */
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	/**
+	 * The deflater is released when the stream is closed
+	 *
+	 * @see com.kevinguanchedarias.sqs.codec.BodyCodec#encodingStream(java.io.OutputStream)
+	 */
+	@Override
+	public OutputStream encodingStream(OutputStream target) {
+		Deflater deflater = new Deflater(level);
+		return new DeflaterOutputStream(target, deflater, STREAM_BUFFER_SIZE) {
+			@Override
+			public void close() throws IOException {
+				try {
+					super.close();
+				} finally {
+					deflater.end();
+				}
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * com.kevinguanchedarias.sqs.codec.BodyCodec#decodingStream(java.io.InputStream)
+	 */
+	@Override
+	public InputStream decodingStream(InputStream source) {
+		return new InflaterInputStream(source);
+	}
+}
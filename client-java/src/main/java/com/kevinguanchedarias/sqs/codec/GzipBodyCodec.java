@@ -0,0 +1,81 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses with the GZIP format, slightly bigger than
+ * {@link DeflateBodyCodec}, but readable by any gzip tool
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class GzipBodyCodec implements BodyCodec {
+	public static final String NAME = "gzip";
+
+	private final int level;
+
+	/**
+	 * Uses the default level of {@link Deflater}
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public GzipBodyCodec() {
+		this(Deflater.DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 *
+	 * @param level From {@link Deflater#BEST_SPEED} to
+	 *              {@link Deflater#BEST_COMPRESSION}
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public GzipBodyCodec(int level) {
+		this.level = level;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.kevinguanchedarias.sqs.codec.BodyCodec#getName()
+	 */
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * com.kevinguanchedarias.sqs.codec.BodyCodec#encodingStream(java.io.OutputStream)
+	 */
+	@Override
+	public OutputStream encodingStream(OutputStream target) throws IOException {
+		return new GZIPOutputStream(target, DeflateBodyCodec.STREAM_BUFFER_SIZE) {
+			{
+				def.setLevel(level);
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * com.kevinguanchedarias.sqs.codec.BodyCodec#decodingStream(java.io.InputStream)
+	 */
+	@Override
+	public InputStream decodingStream(InputStream source) throws IOException {
+		return new GZIPInputStream(source, DeflateBodyCodec.STREAM_BUFFER_SIZE);
+	}
+}
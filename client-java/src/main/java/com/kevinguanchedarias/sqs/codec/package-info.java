@@ -0,0 +1,8 @@
+/**
+ * Has the codecs that compress the bodies of the messages, and the JSON
+ * envelope that carries the compressed bytes through the server
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+package com.kevinguanchedarias.sqs.codec;
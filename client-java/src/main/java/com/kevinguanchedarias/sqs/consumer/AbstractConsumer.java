@@ -3,23 +3,114 @@
  */
 package com.kevinguanchedarias.sqs.consumer;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
 
 import com.kevinguanchedarias.sqs.AbstractClient;
 import com.kevinguanchedarias.sqs.ConnectionRole;
 import com.kevinguanchedarias.sqs.Message;
 import com.kevinguanchedarias.sqs.MessageBuilder;
+import com.kevinguanchedarias.sqs.SqsRuntime;
+import com.kevinguanchedarias.sqs.codec.BodyCodec;
+import com.kevinguanchedarias.sqs.codec.BodyEnvelope;
+import com.kevinguanchedarias.sqs.codec.DeflateBodyCodec;
+import com.kevinguanchedarias.sqs.codec.GzipBodyCodec;
+import com.kevinguanchedarias.sqs.enumerations.ClientPhase;
 import com.kevinguanchedarias.sqs.enumerations.ConnectionState;
+import com.kevinguanchedarias.sqs.enumerations.ConsumerState;
+import com.kevinguanchedarias.sqs.enumerations.PhaseOutcome;
+import com.kevinguanchedarias.sqs.enumerations.ProtocolCommand;
 import com.kevinguanchedarias.sqs.exception.SqsBadStateException;
+import com.kevinguanchedarias.sqs.exception.SqsBodyCodecException;
+import com.kevinguanchedarias.sqs.exception.SqsConnectionException;
+import com.kevinguanchedarias.sqs.exception.SqsRuntimeException;
+import com.kevinguanchedarias.sqs.exception.SqsTimeoutException;
+import com.kevinguanchedarias.sqs.protocol.FrameParser;
+import com.kevinguanchedarias.sqs.protocol.MessageIdEnvelope;
+import com.kevinguanchedarias.sqs.protocol.StreamChunk;
 
 /**
  * 
  * @since 1.0.0
  * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
  */
-public abstract class AbstractConsumer<T extends Serializable> extends AbstractClient implements Consumer<T> {
+public abstract class AbstractConsumer<T extends Serializable> extends AbstractClient
+		implements Consumer<T>, Publisher<Message<T>> {
+	private static final int GET_MESSAGE_REQUEST_LENGTH = ProtocolCommand.START_GET_MESSAGE.length()
+			+ ProtocolCommand.END_GET_MESSAGE.length();
+	private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+	private static final int MESSAGE_POOL_CAPACITY = 64;
+	private static final int DEFAULT_MAX_DECODED_BODY_BYTES = 64 * 1024 * 1024;
+	private static final int DEFAULT_STREAM_SPOOL_THRESHOLD_BYTES = 1024 * 1024;
+	private static final long DEFAULT_STREAM_IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000L;
+
 	protected Thread thread;
+	private int prefetchWindow;
+	private int prefetchBufferSize;
+	private volatile Prefetcher prefetcher;
+	private volatile AbstractDispatcher<T> dispatcher;
+	private boolean serverAckEnabled = true;
+	private int receivedBodySize;
+	private final FrameParser<FetchedMessage<T>> bodyParser = this::parseBody;
+	private ReconnectPolicy reconnectPolicy = new ReconnectPolicy();
+	private volatile ConsumerStateListener stateListener;
+	private volatile ConsumerState consumerState = ConsumerState.STOPPED;
+	private volatile boolean quitting;
+	private volatile long reconnections;
+	private volatile long failedReconnectAttempts;
+	private Supplier<? extends Message<T>> messageFactory;
+	private MessagePool<T> messagePool;
+	private final Map<String, BodyCodec> bodyCodecs = new ConcurrentHashMap<>();
+	private int maxDecodedBodyBytes = DEFAULT_MAX_DECODED_BODY_BYTES;
+	private final FrameParser<StreamChunk> streamParser = this::parseStreamChunk;
+	// Guarded by itself, as quit discards the streams from any thread
+	private final Map<String, StreamSpool> openStreams = new HashMap<>();
+	private int streamSpoolThresholdBytes = DEFAULT_STREAM_SPOOL_THRESHOLD_BYTES;
+	private Path streamSpoolDirectory;
+	private volatile long streamIdleTimeoutMillis = DEFAULT_STREAM_IDLE_TIMEOUT_MILLIS;
+	private volatile DedupeFilter dedupeFilter;
+	private long fetchedMessageId;
+	private boolean fetchedMessageIdentified;
+
+	/**
+	 * Uses the default runtime
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected AbstractConsumer() {
+		super();
+		addDefaultBodyCodecs();
+	}
+
+	/**
+	 * 
+	 * @param runtime
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected AbstractConsumer(SqsRuntime runtime) {
+		super(runtime);
+		addDefaultBodyCodecs();
+	}
 
 	/**
 	 * 
@@ -30,6 +121,22 @@ public abstract class AbstractConsumer<T extends Serializable> extends AbstractC
 	 */
 	protected abstract T transformResult(String body);
 
+	/**
+	 * Transforms the body while it is in the read buffer, by default decodes it
+	 * as UTF-8 and invokes {@link #transformResult(String)}, override it to
+	 * avoid the intermediate String
+	 * 
+	 * @param source <b>NOTICE:</b> reused after returning, must not be kept
+	 * @param offset
+	 * @param length
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected T transformResult(byte[] source, int offset, int length) {
+		return transformResult(new String(source, offset, length, StandardCharsets.UTF_8));
+	}
+
 	/**
 	 * 
 	 * @return
@@ -40,9 +147,258 @@ public abstract class AbstractConsumer<T extends Serializable> extends AbstractC
 
 	@Override
 	public void connect(String host, int port, String queue) {
+		quitting = false;
+		serverAckEnabled = true;
 		doConnect(host, port, queue, ConnectionRole.CONSUMER);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.kevinguanchedarias.sqs.Client#connectAsync(java.lang.String, int,
+	 * java.lang.String)
+	 */
+	@Override
+	public CompletableFuture<Void> connectAsync(String host, int port, String queue) {
+		quitting = false;
+		serverAckEnabled = true;
+		return doConnectAsync(host, port, queue, ConnectionRole.CONSUMER);
+	}
+
+	/**
+	 * Keeps requesting messages ahead, up to <i>window</i> requests waiting for
+	 * the server, and stores the received ones in a local buffer, from where
+	 * {@link #receiveMessageSync()} and {@link #onMessage(OnMessageLambda)} take
+	 * them <br>
+	 * The window is halved each time the buffer is half full, as the handler is
+	 * falling behind, and grows again while the handler keeps up <br>
+	 * <b>NOTICE:</b> The messages are acknowledged when they enter the buffer,
+	 * the buffered messages are lost if the consumer quits or dies <br>
+	 * <b>NOTICE:</b> Only takes effect when the server announces the
+	 * {@link #PIPELINING_CAPABILITY}, otherwise each message is requested when
+	 * it's received, as without prefetch <br>
+	 * <b>NOTICE:</b> Messages must be received from a single thread <br>
+	 * Must be invoked before receiving the first message
+	 * 
+	 * @param window     Max GET_MESSAGE requests waiting for the server, 0
+	 *                   disables prefetch
+	 * @param bufferSize Max messages stored locally, rounded up to the next power
+	 *                   of two
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setPrefetch(int window, int bufferSize) {
+		if (window < 0 || (window > 0 && bufferSize < window)) {
+			throw new IllegalArgumentException("bufferSize can't be smaller than the prefetch window");
+		}
+		if (prefetcher != null) {
+			throw new SqsBadStateException("Can't change the prefetch after receiving messages");
+		}
+		prefetchWindow = window;
+		prefetchBufferSize = bufferSize;
+	}
+
+	/**
+	 * Reuses the messages handed to the onMessage handlers, each one is cleared
+	 * and returned to a pool when its handler returns, so the handlers
+	 * <b>must not</b> keep the message, nor use it from another thread, after
+	 * returning <br>
+	 * The messages returned by {@link #receiveMessageSync()} and the ones
+	 * delivered to a Reactive Streams subscriber are never reused <br>
+	 * Must be invoked before {@link #onMessage(OnMessageLambda)}
+	 * 
+	 * @param recycle
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setMessageRecycling(boolean recycle) {
+		messagePool = recycle ? new MessagePool<>(getMessageFactory(), MESSAGE_POOL_CAPACITY) : null;
+	}
+
+	/**
+	 * Registers a codec to decode the bodies compressed with it by the
+	 * producers, {@link DeflateBodyCodec} and {@link GzipBodyCodec} are always
+	 * registered
+	 * 
+	 * @param codec Replaces the codec with the same name
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void addBodyCodec(BodyCodec codec) {
+		bodyCodecs.put(codec.getName(), codec);
+	}
+
+	/**
+	 * Max size of a compressed body once decoded, protects from the bodies
+	 * that decompress to huge sizes, by default 64MB
+	 * 
+	 * @param maxDecodedBodyBytes
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setMaxDecodedBodyBytes(int maxDecodedBodyBytes) {
+		this.maxDecodedBodyBytes = maxDecodedBodyBytes;
+	}
+
+	/**
+	 * Max bytes of a stream received with {@link #receiveStreamSync()} kept in
+	 * memory, the bigger streams are spooled to a temporary file, by default
+	 * 1MB
+	 * 
+	 * @param thresholdBytes
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setStreamSpoolThreshold(int thresholdBytes) {
+		streamSpoolThresholdBytes = thresholdBytes;
+	}
+
+	/**
+	 * 
+	 * @param directory Where the big streams are spooled, null for the default
+	 *                  temporary directory
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setStreamSpoolDirectory(Path directory) {
+		streamSpoolDirectory = directory;
+	}
+
+	/**
+	 * Max time a stream waits for its next chunk, the incomplete streams idle
+	 * for longer are dropped, deleting their temporary file, as their producer
+	 * is likely gone, by default 5 minutes <br>
+	 * Checked each time {@link #receiveStreamSync()} receives a chunk
+	 * 
+	 * @param idleTimeoutMillis 0 to keep the incomplete streams until quit
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setStreamIdleTimeout(long idleTimeoutMillis) {
+		if (idleTimeoutMillis < 0) {
+			throw new IllegalArgumentException("idleTimeoutMillis can't be negative");
+		}
+		streamIdleTimeoutMillis = idleTimeoutMillis;
+	}
+
+	/**
+	 * Drops the messages whose id has already been received, before they reach
+	 * the handlers, the server delivers a message again when it was not
+	 * acknowledged, after a RESET_ACK or a reconnection <br>
+	 * The ids are assigned by the producers with
+	 * {@link com.kevinguanchedarias.sqs.producer.AbstractProducer#setMessageIds(boolean)},
+	 * the messages without id are never dropped <br>
+	 * An id is remembered once its message is acknowledged, so a message that a
+	 * handler rejected is handled again <br>
+	 * Must be invoked before receiving messages
+	 * 
+	 * @param options null disables the filter
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setDedupe(DedupeOptions options) {
+		dedupeFilter = options == null ? null : new DedupeFilter(options);
+	}
+
+	/**
+	 * 
+	 * @return null if the idempotency filter is disabled
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public DedupeMetrics getDedupeMetrics() {
+		DedupeFilter filter = dedupeFilter;
+		return filter == null ? null : filter.getMetrics();
+	}
+
+	/**
+	 * How the loop of {@link #onMessage(OnMessageLambda)}, and the dispatchers
+	 * of the executor backed onMessage, the key lanes and the Reactive Streams
+	 * subscription, reconnect when the connection is lost, by default with
+	 * exponential backoff from 100ms up to 30s, forever <br>
+	 * After reconnecting the loop resumes, the message that was being delivered
+	 * is delivered again, as it was not acknowledged
+	 * 
+	 * @param reconnectPolicy null to stop the loop when the connection is lost
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setReconnectPolicy(ReconnectPolicy reconnectPolicy) {
+		this.reconnectPolicy = reconnectPolicy;
+	}
+
+	/**
+	 * 
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ReconnectPolicy getReconnectPolicy() {
+		return reconnectPolicy;
+	}
+
+	/**
+	 * 
+	 * @param stateListener null to stop notifying
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setStateListener(ConsumerStateListener stateListener) {
+		this.stateListener = stateListener;
+	}
+
+	/**
+	 * 
+	 * @return The state of the onMessage loop
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ConsumerState getConsumerState() {
+		return consumerState;
+	}
+
+	/**
+	 * 
+	 * @return The times the onMessage loop has reconnected
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getReconnections() {
+		return reconnections;
+	}
+
+	/**
+	 * 
+	 * @return The failed reconnection attempts of the onMessage loop
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getFailedReconnectAttempts() {
+		return failedReconnectAttempts;
+	}
+
+	/**
+	 * 
+	 * @return The current prefetch window, 0 if prefetch has not started
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getCurrentPrefetchWindow() {
+		Prefetcher current = prefetcher;
+		return current == null ? 0 : current.window;
+	}
+
+	/**
+	 * 
+	 * @return The number of prefetched messages waiting to be received
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getPrefetchedMessages() {
+		Prefetcher current = prefetcher;
+		return current == null ? 0 : current.buffer.size();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -50,18 +406,129 @@ public abstract class AbstractConsumer<T extends Serializable> extends AbstractC
 	 */
 	@Override
 	public Message<T> receiveMessageSync() {
+		return receiveMessageSync(getClientConfig().getOperationTimeoutMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * The connection is closed on timeout, as the server may deliver the
+	 * message later <br>
+	 * With prefetch, the timeout only bounds the wait for a prefetched message,
+	 * and the connection is kept
+	 * 
+	 * @see com.kevinguanchedarias.sqs.consumer.Consumer#receiveMessageSync(long,
+	 *      java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public Message<T> receiveMessageSync(long timeout, TimeUnit unit) {
+		if (isPrefetching()) {
+			return createMessage(startPrefetcherIfRequired().take(timeout > 0 ? unit.toNanos(timeout) : 0));
+		}
+		boolean acquired = false;
+		startDeadline(timeout, unit);
 		try {
-			writeSync("\r\nSTART_GET_MESSAGE\r\n");
-			String result = getConnectionMessageSync(connection);
-			writeSync("\r\nEND_GET_MESSAGE\r\n");
-			expectResponseToContainSync(OK_RESPONSE);
-			return MessageBuilder.newInstance(getMessageClass()).withBody(transformResult(result)).build();
+			acquireConnection();
+			acquired = true;
+			FetchedMessage<T> result;
+			do {
+				result = fetchMessageSync();
+				acknowledgeSync(true);
+			} while (result.isDuplicate());
+			return createMessage(result);
 		} catch (InterruptedException | ExecutionException e) {
 			commonExceptionHandler(e);
+		} finally {
+			clearDeadline();
+			if (acquired) {
+				releaseConnection();
+			}
 		}
 		return null;
 	}
 
+	/**
+	 * Receives the chunks of a body sent with
+	 * {@link com.kevinguanchedarias.sqs.producer.AbstractProducer#sendMessageSync(InputStream)},
+	 * until it's complete, acknowledging each one <br>
+	 * The chunks of other streams that arrive meanwhile are spooled, and
+	 * returned by the next invocations, a message that was not streamed is
+	 * returned as the bytes of its JSON body <br>
+	 * A stream missing a chunk, as its producer failed before sending it, is
+	 * dropped, as are the streams idle for longer than the
+	 * {@link #setStreamIdleTimeout(long) stream idle timeout} <br>
+	 * <b>NOTICE:</b> All the chunks of a stream must be received by the same
+	 * consumer, and the returned stream must be closed, to delete its
+	 * temporary file
+	 * 
+	 * @return
+	 * @throws SqsBadStateException When the prefetch is enabled
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public InputStream receiveStreamSync() {
+		if (isPrefetching()) {
+			throw new SqsBadStateException("Streams can't be received with prefetch");
+		}
+		InputStream retVal = null;
+		while (retVal == null) {
+			StreamChunk chunk = null;
+			boolean acquired = false;
+			startDeadline(getClientConfig().getOperationTimeoutMillis(), TimeUnit.MILLISECONDS);
+			try {
+				acquireConnection();
+				acquired = true;
+				chunk = fetchFrameSync(streamParser);
+				acknowledgeSync(true);
+			} catch (InterruptedException | ExecutionException e) {
+				commonExceptionHandler(e);
+			} finally {
+				clearDeadline();
+				if (acquired) {
+					releaseConnection();
+				}
+			}
+			try {
+				retVal = addStreamChunk(chunk);
+			} catch (IOException e) {
+				throw new SqsRuntimeException("Couldn't spool the stream", e);
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Stops the prefetch, closing the socket if there are requests waiting for
+	 * the server, as it can't answer to the quit command until it delivers them
+	 * <br>
+	 * Stops the onMessage loop, closing the socket when invoked from another
+	 * thread, as the loop may be waiting for the server, or reconnecting
+	 * 
+	 * @see com.kevinguanchedarias.sqs.AbstractClient#quit()
+	 */
+	@Override
+	public void quit() {
+		quitting = true;
+		Thread loopThread = thread;
+		boolean graceful = true;
+		if (loopThread != null && loopThread != Thread.currentThread()) {
+			closeQuietly();
+			graceful = false;
+			LockSupport.unpark(loopThread);
+		}
+		Prefetcher current = prefetcher;
+		AbstractDispatcher<T> currentDispatcher = dispatcher;
+		graceful = (current == null || current.stop()) && graceful;
+		if (currentDispatcher != null) {
+			graceful = currentDispatcher.stop() && graceful;
+		}
+		synchronized (openStreams) {
+			openStreams.values().forEach(StreamSpool::discard);
+			openStreams.clear();
+		}
+		if (graceful) {
+			super.quit();
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -79,24 +546,139 @@ public abstract class AbstractConsumer<T extends Serializable> extends AbstractC
 	}
 
 	/**
-	 * The code that runs inside the thread listening messages
+	 * Fetches the messages in a dedicated thread, and runs the handler in the
+	 * executor specified in the options, up to <i>maxConcurrency</i> handlers at
+	 * the same time <br>
+	 * When the hand-off queue is full, no more messages are requested to the
+	 * server until a handler takes one <br>
+	 * <b>NOTICE:</b> The server doesn't deliver a new message until the previous
+	 * one is acknowledged, so with
+	 * {@link com.kevinguanchedarias.sqs.enumerations.DispatchAckMode#AFTER_HANDLER}
+	 * the handlers run one at a time, use
+	 * {@link com.kevinguanchedarias.sqs.enumerations.DispatchAckMode#ON_HAND_OFF}
+	 * to run them in parallel
+	 * 
+	 * @see com.kevinguanchedarias.sqs.consumer.Consumer#onMessage(OnMessageLambda,
+	 *      ConsumerDispatchOptions)
+	 */
+	@Override
+	public void onMessage(OnMessageLambda<T> messageLambda, ConsumerDispatchOptions options) {
+		startDispatcher(() -> new ConsumerDispatcher<>(this, messageLambda, options));
+	}
+
+	/**
+	 * Delivers the messages to a Reactive Streams subscriber, a message is only
+	 * requested to the server when the subscriber has pending demand, so the
+	 * backpressure reaches the SQS server <br>
+	 * Only one subscriber is allowed at a time, and not while an onMessage
+	 * listener is running, the subscriber receives onComplete when the consumer
+	 * quits <br>
+	 * If the subscription is cancelled while the server is delivering a message,
+	 * the message is not acknowledged, so the server delivers it again after a
+	 * RESET_ACK or a reconnection <br>
+	 * On Java 9+ use <i>org.reactivestreams.FlowAdapters.toFlowPublisher()</i>
+	 * to get a <i>java.util.concurrent.Flow.Publisher</i>
+	 * 
+	 * @see org.reactivestreams.Publisher#subscribe(org.reactivestreams.Subscriber)
+	 */
+	@Override
+	public void subscribe(Subscriber<? super Message<T>> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("Rule 1.9: the subscriber can't be null");
+		}
+		SubscriptionDispatcher<T> subscription = new SubscriptionDispatcher<>(this, subscriber);
+		subscriber.onSubscribe(subscription);
+		boolean started;
+		try {
+			started = startDispatcher(() -> subscription);
+		} catch (RuntimeException e) {
+			subscription.cancel();
+			subscriber.onError(e);
+			return;
+		}
+		if (!started) {
+			subscription.cancel();
+			subscriber.onError(new SqsBadStateException("The consumer already has a subscriber or onMessage listener"));
+		}
+	}
+
+	/**
+	 * 
+	 * @return The messages waiting for a handler in the executor backed
+	 *         onMessage, 0 if not used
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getDispatchQueueSize() {
+		AbstractDispatcher<T> current = dispatcher;
+		return current instanceof ConsumerDispatcher ? ((ConsumerDispatcher<T>) current).getQueuedMessages() : 0;
+	}
+
+	/**
+	 * 
+	 * @return The workers running handlers in the executor backed onMessage, 0
+	 *         if not used
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getActiveDispatchWorkers() {
+		AbstractDispatcher<T> current = dispatcher;
+		return current instanceof ConsumerDispatcher ? ((ConsumerDispatcher<T>) current).getActiveWorkers() : 0;
+	}
+
+	/**
+	 * The code that runs inside the thread listening messages <br>
+	 * When the connection is lost, or receiving a message fails for any other
+	 * reason, closes the connection, as its state is unknown, and reconnects as
+	 * specified by the {@link #setReconnectPolicy(ReconnectPolicy) reconnect
+	 * policy}
 	 * 
 	 * @param messageLambda
 	 * @since 1.0.0
 	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
 	 */
 	protected void onMessageThreadBody(OnMessageLambda<T> messageLambda) {
-		while (true) {
-			if (!connection.isOpen()) {
-				System.out.println("Abandoning execution, of onMessage thread");
-				thread = null;
-				break;
-			}
-			checkReadyToSubscribeToMessages();
-			Message<T> message = receiveMessageSync();
-			if (message != null) {
-				messageLambda.handler(message);
+		Throwable stopCause = null;
+		changeConsumerState(ConsumerState.CONSUMING, null);
+		try {
+			while (true) {
+				if (!connection.isOpen()) {
+					stopCause = reconnectWithBackoff(null);
+					if (!isAlive()) {
+						break;
+					}
+				}
+				checkReadyToSubscribeToMessages();
+				Message<T> message;
+				try {
+					// Waits without deadline, an empty queue is not a lost connection
+					message = receiveMessageSync(0, TimeUnit.MILLISECONDS);
+				} catch (RuntimeException e) {
+					if (quitting) {
+						break;
+					} else if (e instanceof SqsConnectionException && isAlive()) {
+						// A prefetch timeout, the connection is still usable
+						continue;
+					} else if (reconnectPolicy == null) {
+						stopCause = e;
+						throw e;
+					}
+					stopCause = recoverConnection(e);
+					if (!isAlive()) {
+						break;
+					}
+					continue;
+				}
+				if (message != null) {
+					invokeHandler(messageLambda, message);
+				}
 			}
+		} catch (RuntimeException | Error e) {
+			stopCause = e;
+			throw e;
+		} finally {
+			thread = null;
+			changeConsumerState(ConsumerState.STOPPED, stopCause);
 		}
 	}
 
@@ -115,4 +697,635 @@ public abstract class AbstractConsumer<T extends Serializable> extends AbstractC
 					"Can't invoke onMessage when the connection state is " + connectionState.name());
 		}
 	}
+
+	/**
+	 * Opens the GET_MESSAGE section, and waits for the server to deliver a
+	 * message, the message is not acknowledged until
+	 * {@link #acknowledgeSync(boolean)} is invoked <br>
+	 * The body is transformed directly from the read buffer
+	 * 
+	 * @return The body of the message
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	FetchedMessage<T> fetchMessageSync() throws InterruptedException, ExecutionException {
+		return fetchFrameSync(bodyParser);
+	}
+
+	private <R> R fetchFrameSync(FrameParser<R> parser) throws InterruptedException, ExecutionException {
+		startFlightEvent(flightRecorder.beginReceive());
+		beginPhase(ClientPhase.RECEIVE_WAIT);
+		try {
+			writeSync(syncFrame(ProtocolCommand.START_GET_MESSAGE));
+			R result = getConnectionFrameSync(parser);
+			expectResponseSync(OK_RESPONSE);
+			endPhase();
+			return result;
+		} catch (InterruptedException | ExecutionException | RuntimeException e) {
+			failPhase(e);
+			commitReceiveEvent(false, false);
+			throw e;
+		}
+	}
+
+	/**
+	 * Closes the GET_MESSAGE section <br>
+	 * The server remembers the ACK param between messages, so it's only sent
+	 * when it changes
+	 * 
+	 * @param ack If false, the server keeps the message, and delivers it again
+	 *            after a RESET_ACK or a reconnection
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void acknowledgeSync(boolean ack) throws InterruptedException, ExecutionException {
+		beginPhase(ClientPhase.RECEIVE_ACK);
+		try {
+			if (ack != serverAckEnabled) {
+				encoder.begin();
+				writeSync(encoder.encodeSet("ACK", ack ? "TRUE" : "FALSE"));
+				expectResponseToContainSync(OK_WITH_VAL);
+				serverAckEnabled = ack;
+			}
+			writeSync(syncFrame(ProtocolCommand.END_GET_MESSAGE));
+			expectResponseSync(OK_RESPONSE);
+			endPhase();
+			if (ack) {
+				recordFetchedMessageId();
+			}
+			fetchedMessageIdentified = false;
+			commitReceiveEvent(ack, true);
+		} catch (InterruptedException | ExecutionException | RuntimeException e) {
+			failPhase(e);
+			commitReceiveEvent(ack, false);
+			throw e;
+		}
+	}
+
+	/**
+	 * Runs the handler, inside a flight recorder event when it is enabled
+	 * 
+	 * @param messageLambda
+	 * @param message
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void invokeHandler(OnMessageLambda<T> messageLambda, Message<T> message) {
+		try {
+			invokeHandler(messageLambda, message, messageLambda.getClass());
+		} finally {
+			MessagePool<T> pool = messagePool;
+			if (pool != null) {
+				pool.release(message);
+			}
+		}
+	}
+
+	/**
+	 * 
+	 * @param messageLambda
+	 * @param message
+	 * @param handlerClass Reported in the flight recorder event, when the lambda
+	 *                     only adapts the real handler
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void invokeHandler(OnMessageLambda<T> messageLambda, Message<T> message, Class<?> handlerClass) {
+		Object event = flightRecorder.beginHandlerInvocation();
+		if (event == null) {
+			messageLambda.handler(message);
+		} else {
+			boolean success = false;
+			try {
+				messageLambda.handler(message);
+				success = true;
+			} finally {
+				flightRecorder.commitHandlerInvocation(event, getQueue(), handlerClass.getName(), success);
+			}
+		}
+	}
+
+	Message<T> createMessage(FetchedMessage<T> fetched) {
+		T body = fetched.getBody();
+		MessagePool<T> pool = messagePool;
+		Message<T> retVal = pool == null ? getMessageFactory().get() : pool.take();
+		retVal.setBody(body);
+		return retVal;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Supplier<? extends Message<T>> getMessageFactory() {
+		if (messageFactory == null) {
+			messageFactory = MessageBuilder.getFactory((Class) getMessageClass());
+		}
+		return messageFactory;
+	}
+
+	private void commitReceiveEvent(boolean acknowledged, boolean success) {
+		Object event = finishFlightEvent();
+		if (event != null) {
+			flightRecorder.commitReceive(event, getQueue(), receivedBodySize,
+					getPhaseNanos(ClientPhase.RECEIVE_WAIT), getPhaseNanos(ClientPhase.RECEIVE_ACK), acknowledged,
+					success);
+		}
+	}
+
+	private FetchedMessage<T> parseBody(byte[] source, int offset, int length) {
+		receivedBodySize = length;
+		fetchedMessageIdentified = false;
+		try {
+			String codecName = BodyEnvelope.getCodecName(source, offset, length);
+			if (codecName != null) {
+				BodyCodec codec = bodyCodecs.get(codecName);
+				if (codec == null) {
+					throw new SqsBodyCodecException("There isn't a body codec named " + codecName, null);
+				}
+				ByteBuffer decoded = BodyEnvelope.unwrap(codec, source, offset, length, maxDecodedBodyBytes);
+				return parseDecodedBody(decoded.array(), 0, decoded.limit());
+			}
+			return parseDecodedBody(source, offset, length);
+		} catch (RuntimeException e) {
+			return new FetchedMessage<>(null, e);
+		}
+	}
+
+	/**
+	 * Removes the id of the message, if any, and checks it with the idempotency
+	 * filter, the id is remembered when the message is acknowledged
+	 * 
+	 * @param source
+	 * @param offset
+	 * @param length
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private FetchedMessage<T> parseDecodedBody(byte[] source, int offset, int length) {
+		if (!MessageIdEnvelope.isEnvelope(source, offset, length)) {
+			return new FetchedMessage<>(transformResult(source, offset, length), null);
+		}
+		long id = MessageIdEnvelope.getId(source, offset);
+		DedupeFilter filter = dedupeFilter;
+		if (filter != null && filter.isDuplicate(id)) {
+			return FetchedMessage.duplicate();
+		}
+		fetchedMessageId = id;
+		fetchedMessageIdentified = true;
+		return new FetchedMessage<>(transformResult(source, MessageIdEnvelope.getBodyOffset(offset),
+				MessageIdEnvelope.getBodyLength(length)), null);
+	}
+
+	private void recordFetchedMessageId() {
+		DedupeFilter filter = dedupeFilter;
+		if (filter != null && fetchedMessageIdentified) {
+			filter.record(fetchedMessageId);
+		}
+		fetchedMessageIdentified = false;
+	}
+
+	/**
+	 * A body that is not a valid chunk is returned as is
+	 */
+	private StreamChunk parseStreamChunk(byte[] source, int offset, int length) {
+		receivedBodySize = length;
+		fetchedMessageIdentified = false;
+		StreamChunk retVal;
+		try {
+			retVal = StreamChunk.parse(source, offset, length);
+		} catch (RuntimeException e) {
+			retVal = null;
+		}
+		return retVal == null
+				? new StreamChunk(null, 0, true, ByteBuffer.wrap(Arrays.copyOfRange(source, offset, offset + length)))
+				: retVal;
+	}
+
+	/**
+	 * 
+	 * @param chunk
+	 * @return The stream completed by the chunk, if any
+	 * @throws IOException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private InputStream addStreamChunk(StreamChunk chunk) throws IOException {
+		String groupId = chunk.getGroupId();
+		if (groupId == null) {
+			ByteBuffer data = chunk.getData();
+			return new ByteArrayInputStream(data.array(), data.position(), data.remaining());
+		}
+		synchronized (openStreams) {
+			evictIdleStreams();
+			return addStreamChunk(groupId, chunk);
+		}
+	}
+
+	private InputStream addStreamChunk(String groupId, StreamChunk chunk) throws IOException {
+		StreamSpool spool = openStreams.get(groupId);
+		if (chunk.getSequence() == 0) {
+			if (spool != null) {
+				spool.discard();
+			}
+			spool = new StreamSpool(streamSpoolThresholdBytes, streamSpoolDirectory);
+			openStreams.put(groupId, spool);
+		} else if (spool == null || spool.getNextSequence() != chunk.getSequence()) {
+			// A chunk is missing, the stream can't be rebuilt
+			if (spool != null) {
+				openStreams.remove(groupId).discard();
+			}
+			return null;
+		}
+		try {
+			spool.append(chunk.getData());
+		} catch (IOException e) {
+			openStreams.remove(groupId).discard();
+			throw e;
+		}
+		if (chunk.isLast()) {
+			openStreams.remove(groupId);
+			return spool.toInputStream();
+		}
+		return null;
+	}
+
+	/**
+	 * Drops the streams that didn't receive a chunk within the
+	 * {@link #setStreamIdleTimeout(long) idle timeout}
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private void evictIdleStreams() {
+		long idleTimeoutMillis = streamIdleTimeoutMillis;
+		if (idleTimeoutMillis == 0 || openStreams.isEmpty()) {
+			return;
+		}
+		long now = System.nanoTime();
+		long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+		Iterator<StreamSpool> it = openStreams.values().iterator();
+		while (it.hasNext()) {
+			StreamSpool spool = it.next();
+			if (now - spool.getLastAppendNanos() > idleTimeoutNanos) {
+				spool.discard();
+				it.remove();
+			}
+		}
+	}
+
+	private void addDefaultBodyCodecs() {
+		addBodyCodec(new DeflateBodyCodec());
+		addBodyCodec(new GzipBodyCodec());
+	}
+
+	void abortConnection() {
+		closeQuietly();
+	}
+
+	/**
+	 * Invoked by the onMessage loop and the dispatchers when receiving a
+	 * message fails, closes the connection when it's not already lost, as its
+	 * state is unknown, and reconnects with the
+	 * {@link #setReconnectPolicy(ReconnectPolicy) reconnect policy}
+	 * 
+	 * @param cause
+	 * @return The failure that stops the consumer, null if it has reconnected
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	Throwable recoverConnection(Throwable cause) {
+		if (quitting || reconnectPolicy == null) {
+			return cause;
+		}
+		if (!(cause instanceof SqsConnectionException) || isAlive()) {
+			// The server may still be answering, the connection can't be trusted
+			abortConnection();
+		}
+		return reconnectWithBackoff(cause);
+	}
+
+	/**
+	 * Reconnects to the last server and queue, waiting the backoff of the
+	 * policy before each attempt, until it succeeds, the policy gives up, or
+	 * the consumer quits <br>
+	 * The time until reconnecting is reported as a
+	 * {@link ClientPhase#RECONNECT} phase, and each failed attempt as a failed
+	 * one
+	 * 
+	 * @param cause The failure that lost the connection
+	 * @return The last failure if it couldn't reconnect, null otherwise
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private Throwable reconnectWithBackoff(Throwable cause) {
+		ReconnectPolicy policy = reconnectPolicy;
+		if (quitting || policy == null) {
+			return cause;
+		}
+		changeConsumerState(ConsumerState.RECONNECTING, cause);
+		discardPrefetcher();
+		long lostNanos = System.nanoTime();
+		Throwable lastFailure = cause;
+		for (int attempt = 1; policy.getMaxAttempts() == 0 || attempt <= policy.getMaxAttempts(); attempt++) {
+			if (!backOff(policy.computeDelayMillis(attempt))) {
+				return lastFailure;
+			}
+			long attemptStartNanos = System.nanoTime();
+			try {
+				connect(getHost(), getPort(), getQueue());
+			} catch (RuntimeException e) {
+				failedReconnectAttempts++;
+				reportPhase(ClientPhase.RECONNECT, System.nanoTime() - attemptStartNanos,
+						PhaseOutcome.CONNECTION_FAILURE);
+				lastFailure = e;
+				continue;
+			}
+			if (quitting) {
+				closeQuietly();
+				return null;
+			}
+			reconnections++;
+			reportPhase(ClientPhase.RECONNECT, System.nanoTime() - lostNanos, PhaseOutcome.SUCCESS);
+			changeConsumerState(ConsumerState.CONSUMING, null);
+			return null;
+		}
+		return lastFailure;
+	}
+
+	/**
+	 * 
+	 * @param delayMillis
+	 * @return false if the consumer quit, or the thread was interrupted, while
+	 *         waiting
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private boolean backOff(long delayMillis) {
+		long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+		long remainingNanos;
+		while (!quitting && (remainingNanos = deadlineNanos - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(this, remainingNanos);
+			if (Thread.currentThread().isInterrupted()) {
+				return false;
+			}
+		}
+		return !quitting;
+	}
+
+	/**
+	 * Drops the prefetcher of the lost connection, its thread has already
+	 * finished, a new one starts with the next message
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private void discardPrefetcher() {
+		Prefetcher current = prefetcher;
+		if (current != null) {
+			current.running = false;
+			prefetcher = null;
+		}
+	}
+
+	private void changeConsumerState(ConsumerState state, Throwable cause) {
+		consumerState = state;
+		ConsumerStateListener listener = stateListener;
+		if (listener != null) {
+			listener.onStateChanged(state, cause);
+		}
+	}
+
+	/**
+	 * Starts the dispatcher, if there is no onMessage listener yet
+	 * 
+	 * @param dispatcherSupplier
+	 * @return true if the dispatcher has been started
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	boolean startDispatcher(Supplier<AbstractDispatcher<T>> dispatcherSupplier) {
+		if (isPrefetching()) {
+			throw new SqsBadStateException("Can't dispatch messages to an executor when prefetch is enabled");
+		}
+		synchronized (this) {
+			if (thread == null && dispatcher == null) {
+				checkReadyToSubscribeToMessages();
+				AbstractDispatcher<T> newDispatcher = dispatcherSupplier.get();
+				dispatcher = newDispatcher;
+				acquireConnection();
+				try {
+					newDispatcher.start();
+				} catch (RuntimeException e) {
+					dispatcher = null;
+					releaseConnection();
+					throw e;
+				}
+				changeConsumerState(ConsumerState.CONSUMING, null);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	AbstractDispatcher<T> getDispatcher() {
+		return dispatcher;
+	}
+
+	/**
+	 * 
+	 * @param finished
+	 * @param stopCause The failure that stopped the dispatcher, null if it was
+	 *                  stopped
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void onDispatcherFinished(AbstractDispatcher<T> finished, Throwable stopCause) {
+		synchronized (this) {
+			if (dispatcher == finished) {
+				dispatcher = null;
+			}
+		}
+		releaseConnection();
+		changeConsumerState(ConsumerState.STOPPED, stopCause);
+	}
+
+	private boolean isPrefetching() {
+		return prefetchWindow > 0 && isServerPipelining();
+	}
+
+	private Prefetcher startPrefetcherIfRequired() {
+		Prefetcher current = prefetcher;
+		if (current == null) {
+			synchronized (this) {
+				current = prefetcher;
+				if (current == null) {
+					checkReadyToSubscribeToMessages();
+					current = new Prefetcher(prefetchWindow, prefetchBufferSize);
+					prefetcher = current;
+					current.fetcherThread.start();
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Fetches messages in its own thread, and delivers them to a single consumer
+	 * thread
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private class Prefetcher {
+		private final SpscRingBuffer<FetchedMessage<T>> buffer;
+		private final int maxWindow;
+		private final Thread fetcherThread;
+		private volatile int window;
+		private volatile int inFlight;
+		private volatile boolean running = true;
+		private volatile boolean fetcherParked;
+		private volatile Thread consumerThread;
+		private volatile Exception fetchError;
+
+		private Prefetcher(int maxWindow, int bufferSize) {
+			this.maxWindow = maxWindow;
+			window = maxWindow;
+			buffer = new SpscRingBuffer<>(bufferSize);
+			fetcherThread = new Thread(this::fetchLoop, "sqs-consumer-prefetch");
+			fetcherThread.setDaemon(true);
+		}
+
+		private void fetchLoop() {
+			acquireConnection();
+			try {
+				while (running) {
+					int requests = Math.min(window - inFlight, buffer.capacity() - buffer.size() - inFlight);
+					if (requests > 0) {
+						ByteBuffer request = ByteBuffer.allocate(GET_MESSAGE_REQUEST_LENGTH * requests);
+						for (int i = 0; i < requests; i++) {
+							request.put(ProtocolCommand.START_GET_MESSAGE.frame())
+									.put(ProtocolCommand.END_GET_MESSAGE.frame());
+						}
+						request.flip();
+						writeSync(request);
+						inFlight += requests;
+					}
+					if (inFlight == 0) {
+						waitForSpace();
+					} else {
+						FetchedMessage<T> body = getConnectionFrameSync(bodyParser);
+						expectResponseSync(OK_RESPONSE);
+						expectResponseSync(OK_RESPONSE);
+						inFlight--;
+						adaptWindow(buffer.size());
+						if (!body.isDuplicate()) {
+							// The server removed it when the section was closed
+							recordFetchedMessageId();
+							buffer.offer(body);
+							wakeUp(consumerThread);
+						}
+					}
+				}
+			} catch (InterruptedException | ExecutionException | RuntimeException e) {
+				if (running) {
+					connectionState = ConnectionState.NOT_CONNECTED;
+					fetchError = e;
+					wakeUp(consumerThread);
+				}
+			} finally {
+				releaseConnection();
+			}
+		}
+
+		private void adaptWindow(int pendingToConsume) {
+			if (pendingToConsume >= buffer.capacity() / 2) {
+				window = Math.max(1, window / 2);
+			} else if (pendingToConsume == 0 && window < maxWindow) {
+				window++;
+			}
+		}
+
+		private void waitForSpace() {
+			fetcherParked = true;
+			if (running && buffer.size() == buffer.capacity()) {
+				LockSupport.parkNanos(this, PARK_NANOS);
+			}
+			fetcherParked = false;
+		}
+
+		/**
+		 * 
+		 * @param timeoutNanos 0 means wait forever
+		 * @return
+		 * @since 1.1.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		private FetchedMessage<T> take(long timeoutNanos) {
+			long deadlineNanos = System.nanoTime() + timeoutNanos;
+			FetchedMessage<T> body;
+			while ((body = buffer.poll()) == null) {
+				long parkNanos = PARK_NANOS;
+				if (timeoutNanos > 0) {
+					long remainingNanos = deadlineNanos - System.nanoTime();
+					if (remainingNanos <= 0) {
+						throw new SqsTimeoutException("Timed out waiting for a prefetched message", null);
+					}
+					parkNanos = Math.min(parkNanos, remainingNanos);
+				}
+				if (fetchError != null) {
+					throw new SqsConnectionException("Couldn't fetch messages from SQS server", fetchError);
+				}
+				if (!running) {
+					throw new SqsBadStateException("The consumer has quit");
+				}
+				if (Thread.interrupted()) {
+					Thread.currentThread().interrupt();
+					throw new SqsConnectionException("Interrupted while waiting for a message",
+							new InterruptedException());
+				}
+				consumerThread = Thread.currentThread();
+				if (buffer.size() == 0) {
+					LockSupport.parkNanos(this, parkNanos);
+				}
+				consumerThread = null;
+			}
+			if (fetcherParked) {
+				wakeUp(fetcherThread);
+			}
+			return body;
+		}
+
+		/**
+		 * Stops fetching, closes the socket if there are requests waiting for the
+		 * server
+		 * 
+		 * @return true if there were no requests waiting for the server
+		 * @since 1.1.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		private boolean stop() {
+			running = false;
+			boolean idle = inFlight == 0 && fetcherParked;
+			if (!idle) {
+				closeQuietly();
+			}
+			wakeUp(fetcherThread);
+			wakeUp(consumerThread);
+			try {
+				fetcherThread.join(TimeUnit.NANOSECONDS.toMillis(PARK_NANOS) * 2);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return idle && inFlight == 0;
+		}
+
+		private void wakeUp(Thread target) {
+			if (target != null) {
+				LockSupport.unpark(target);
+			}
+		}
+	}
 }
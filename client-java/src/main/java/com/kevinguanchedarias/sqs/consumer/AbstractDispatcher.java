@@ -0,0 +1,209 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+import java.io.Serializable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import com.kevinguanchedarias.sqs.exception.SqsConnectionException;
+
+/**
+ * Fetches messages in its own thread, and lets the subclasses decide where
+ * the handlers run, and when the messages are acknowledged <br>
+ * When the connection is lost, reconnects as specified by the reconnect
+ * policy of the consumer, the message being dispatched is delivered again if
+ * it was not acknowledged
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+abstract class AbstractDispatcher<T extends Serializable> {
+	protected final AbstractConsumer<T> consumer;
+	protected final OnMessageLambda<T> messageLambda;
+	protected final Consumer<Throwable> errorHandler;
+	private final long shutdownTimeoutMillis;
+	private final Thread fetcherThread;
+	protected volatile boolean running = true;
+	private volatile boolean waitingServer;
+
+	protected AbstractDispatcher(AbstractConsumer<T> consumer, OnMessageLambda<T> messageLambda,
+			Consumer<Throwable> errorHandler, long shutdownTimeoutMillis) {
+		this.consumer = consumer;
+		this.messageLambda = messageLambda;
+		this.errorHandler = errorHandler;
+		this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+		fetcherThread = new Thread(this::fetchLoop, "sqs-consumer-fetch");
+	}
+
+	/**
+	 * Waits until there is space for a new message
+	 *
+	 * @return false if the wait timed out, and the loop should check again if
+	 *         it's still running
+	 * @throws InterruptedException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected abstract boolean awaitCapacity() throws InterruptedException;
+
+	/**
+	 * Hands the message to the handlers, must acknowledge it, or not, by invoking
+	 * {@link AbstractConsumer#acknowledgeSync(boolean)}
+	 *
+	 * @param body
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected abstract void dispatch(FetchedMessage<T> body) throws InterruptedException, ExecutionException;
+
+	/**
+	 * Invoked after the fetch thread has been stopped, to release the handler
+	 * threads, may be invoked more than once
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected abstract void onStopped();
+
+	/**
+	 * Invoked in the fetch thread, when fetching a message fails and the
+	 * consumer can't reconnect, by default passes the error to the error
+	 * handler
+	 *
+	 * @param error
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void onFetchError(Throwable error) {
+		errorHandler.accept(error);
+	}
+
+	/**
+	 * Invoked in the fetch thread, when the fetch loop ends, by default releases
+	 * the handler threads
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void onFetchLoopFinished() {
+		onStopped();
+	}
+
+	/**
+	 * Invoked in the fetch thread instead of
+	 * {@link #dispatch(FetchedMessage)}, when the message has been acknowledged
+	 * and dropped by the idempotency filter, or when the fetch failed, to give
+	 * back the space taken by {@link #awaitCapacity()}, by default does nothing
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void onNotDispatched() {
+		// Most dispatchers don't take space before dispatching
+	}
+
+	void start() {
+		fetcherThread.start();
+	}
+
+	/**
+	 * Stops fetching messages, waits for the message being dispatched to be
+	 * acknowledged, and closes the socket if the server is delivering a message,
+	 * as it can't answer to the quit command
+	 *
+	 * @return true if the connection can still be gracefully closed
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	boolean stop() {
+		running = false;
+		// Wakes it up if it's waiting the backoff of the reconnect policy
+		LockSupport.unpark(fetcherThread);
+		boolean graceful = true;
+		if (waitingServer) {
+			consumer.abortConnection();
+			graceful = false;
+		}
+		if (Thread.currentThread() != fetcherThread) {
+			try {
+				fetcherThread.join(shutdownTimeoutMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (fetcherThread.isAlive()) {
+			consumer.abortConnection();
+			graceful = false;
+		}
+		onStopped();
+		return graceful;
+	}
+
+	private void fetchLoop() {
+		Throwable stopCause = null;
+		try {
+			while (running) {
+				Exception failure = fetchUntilFailure();
+				if (!running) {
+					break;
+				}
+				stopCause = consumer.recoverConnection(failure);
+				if (stopCause != null) {
+					onFetchError(stopCause);
+					break;
+				}
+			}
+		} finally {
+			running = false;
+			waitingServer = false;
+			onFetchLoopFinished();
+			consumer.onDispatcherFinished(this, stopCause);
+		}
+	}
+
+	/**
+	 * 
+	 * @return The failure that stopped the fetch, or a connection exception if
+	 *         the connection has been lost without one, null if stopped
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private Exception fetchUntilFailure() {
+		boolean capacityTaken = false;
+		try {
+			while (running && consumer.isAlive()) {
+				if (awaitCapacity()) {
+					capacityTaken = true;
+					waitingServer = true;
+					FetchedMessage<T> body = consumer.fetchMessageSync();
+					waitingServer = false;
+					if (body.isDuplicate()) {
+						consumer.acknowledgeSync(true);
+						capacityTaken = false;
+						onNotDispatched();
+					} else {
+						capacityTaken = false;
+						dispatch(body);
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			// Keeps the flag, so the reconnect policy doesn't wait
+			Thread.currentThread().interrupt();
+			return e;
+		} catch (ExecutionException | RuntimeException e) {
+			return e;
+		} finally {
+			waitingServer = false;
+			if (capacityTaken) {
+				onNotDispatched();
+			}
+		}
+		return running ? new SqsConnectionException("The connection to the SQS server has been lost", null) : null;
+	}
+}
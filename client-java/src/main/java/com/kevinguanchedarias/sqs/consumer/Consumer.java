@@ -4,6 +4,7 @@
 package com.kevinguanchedarias.sqs.consumer;
 
 import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
 
 import com.kevinguanchedarias.sqs.Client;
 import com.kevinguanchedarias.sqs.Message;
@@ -24,6 +25,19 @@ public interface Consumer<B extends Serializable> extends Client {
 	 */
 	public Message<B> receiveMessageSync();
 
+	/**
+	 * Receives a message, failing with
+	 * {@link com.kevinguanchedarias.sqs.exception.SqsTimeoutException} if none
+	 * arrives in time
+	 * 
+	 * @param timeout 0 or less means no timeout
+	 * @param unit
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public Message<B> receiveMessageSync(long timeout, TimeUnit unit);
+
 	/**
 	 * Fires when a message arrives
 	 * 
@@ -32,4 +46,15 @@ public interface Consumer<B extends Serializable> extends Client {
 	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
 	 */
 	public void onMessage(OnMessageLambda<B> messageConsumer);
+
+	/**
+	 * Fires when a message arrives, running the handler in an executor
+	 * 
+	 * @param messageConsumer
+	 * @param options         The executor, the max concurrency and the size of
+	 *                        the hand-off queue
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void onMessage(OnMessageLambda<B> messageConsumer, ConsumerDispatchOptions options);
 }
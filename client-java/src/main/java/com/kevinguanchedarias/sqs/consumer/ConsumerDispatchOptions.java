@@ -0,0 +1,181 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.kevinguanchedarias.sqs.enumerations.DispatchAckMode;
+
+/**
+ * Configuration of the executor backed
+ * {@link com.kevinguanchedarias.sqs.consumer.Consumer#onMessage(OnMessageLambda, ConsumerDispatchOptions)}
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class ConsumerDispatchOptions {
+
+	private static final Logger LOGGER = Logger.getLogger(ConsumerDispatchOptions.class.getName());
+
+	/**
+	 * The default error handler of the dispatch options, logs the errors as
+	 * WARNING with java.util.logging, so they reach the logging framework of
+	 * the application through its bridge, instead of the standard streams
+	 *
+	 * @since 1.1.0
+	 */
+	static final Consumer<Throwable> LOG_ERRORS = error -> LOGGER.log(Level.WARNING,
+			"Error while dispatching SQS messages", error);
+
+	private Executor executor;
+	private int maxConcurrency = Runtime.getRuntime().availableProcessors();
+	private int queueCapacity = Runtime.getRuntime().availableProcessors() * 2;
+	private DispatchAckMode ackMode = DispatchAckMode.AFTER_HANDLER;
+	private long shutdownTimeoutMillis = 30000;
+	private Consumer<Throwable> errorHandler = LOG_ERRORS;
+
+	/**
+	 * Executor in which the handlers run, if not specified, the consumer creates
+	 * one with <i>maxConcurrency</i> threads, and shuts it down on quit
+	 *
+	 * @param executor
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ConsumerDispatchOptions withExecutor(Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Max handlers running at the same time
+	 *
+	 * @param maxConcurrency
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ConsumerDispatchOptions withMaxConcurrency(int maxConcurrency) {
+		this.maxConcurrency = maxConcurrency;
+		return this;
+	}
+
+	/**
+	 * Max messages waiting for a handler, when the queue is full, no more
+	 * messages are requested to the server
+	 *
+	 * @param queueCapacity
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ConsumerDispatchOptions withQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+		return this;
+	}
+
+	/**
+	 * When the messages are acknowledged, defaults to
+	 * {@link DispatchAckMode#AFTER_HANDLER}
+	 *
+	 * @param ackMode
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ConsumerDispatchOptions withAckMode(DispatchAckMode ackMode) {
+		this.ackMode = ackMode;
+		return this;
+	}
+
+	/**
+	 * Max time quit waits for the running handler to be acknowledged, after that
+	 * the socket is closed
+	 *
+	 * @param shutdownTimeoutMillis
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ConsumerDispatchOptions withShutdownTimeoutMillis(long shutdownTimeoutMillis) {
+		this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+		return this;
+	}
+
+	/**
+	 * Invoked with the exceptions thrown by the handlers, or by the fetch of
+	 * messages <br>
+	 * By default the exceptions are logged with java.util.logging, in the
+	 * logger named after this class, the consumer also reports a fetch failure
+	 * it can't recover from as {@link com.kevinguanchedarias.sqs.enumerations.ConsumerState#STOPPED}
+	 * to its {@link ConsumerStateListener}
+	 *
+	 * @param errorHandler null restores the default
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ConsumerDispatchOptions withErrorHandler(Consumer<Throwable> errorHandler) {
+		this.errorHandler = errorHandler == null ? LOG_ERRORS : errorHandler;
+		return this;
+	}
+
+	/**
+	 * @return the executor, null if the consumer has to create one
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * @return the maxConcurrency
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	/**
+	 * @return the queueCapacity
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * @return the ackMode
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public DispatchAckMode getAckMode() {
+		return ackMode;
+	}
+
+	/**
+	 * @return the shutdownTimeoutMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getShutdownTimeoutMillis() {
+		return shutdownTimeoutMillis;
+	}
+
+	/**
+	 * @return the errorHandler
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public Consumer<Throwable> getErrorHandler() {
+		return errorHandler;
+	}
+}
@@ -0,0 +1,186 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+import java.io.Serializable;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.kevinguanchedarias.sqs.Message;
+import com.kevinguanchedarias.sqs.enumerations.DispatchAckMode;
+
+/**
+ * Hands the fetched messages to an executor, running up to
+ * <i>maxConcurrency</i> handlers at the same time <br>
+ * A message is only requested to the server when there is free space in the
+ * hand-off queue
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+class ConsumerDispatcher<T extends Serializable> extends AbstractDispatcher<T> {
+	private static final long POLL_MILLIS = 100;
+
+	private final ConsumerDispatchOptions options;
+	private final Executor executor;
+	private final ExecutorService ownedExecutor;
+	private final Queue<Dispatch> queue = new ConcurrentLinkedQueue<>();
+	private final Semaphore space;
+	private final AtomicInteger activeWorkers = new AtomicInteger();
+
+	ConsumerDispatcher(AbstractConsumer<T> consumer, OnMessageLambda<T> messageLambda,
+			ConsumerDispatchOptions options) {
+		super(consumer, messageLambda, options.getErrorHandler(), options.getShutdownTimeoutMillis());
+		if (options.getMaxConcurrency() < 1 || options.getQueueCapacity() < 1) {
+			throw new IllegalArgumentException("maxConcurrency and queueCapacity must be greater than 0");
+		}
+		this.options = options;
+		if (options.getExecutor() == null) {
+			AtomicInteger threadCount = new AtomicInteger();
+			ownedExecutor = Executors.newFixedThreadPool(options.getMaxConcurrency(), runnable -> {
+				Thread thread = new Thread(runnable, "sqs-consumer-dispatch-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor = ownedExecutor;
+		} else {
+			ownedExecutor = null;
+			executor = options.getExecutor();
+		}
+		space = new Semaphore(options.getQueueCapacity());
+	}
+
+	/**
+	 *
+	 * @return The number of messages waiting for a handler
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	int getQueuedMessages() {
+		return options.getQueueCapacity() - space.availablePermits();
+	}
+
+	/**
+	 *
+	 * @return The number of workers running handlers
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	int getActiveWorkers() {
+		return activeWorkers.get();
+	}
+
+	@Override
+	protected boolean awaitCapacity() throws InterruptedException {
+		return space.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	protected void dispatch(FetchedMessage<T> body) throws InterruptedException, ExecutionException {
+		if (options.getAckMode() == DispatchAckMode.AFTER_HANDLER) {
+			Dispatch dispatch = new Dispatch(body, new CompletableFuture<>());
+			handOff(dispatch);
+			consumer.acknowledgeSync(awaitHandler(dispatch));
+		} else {
+			try {
+				consumer.acknowledgeSync(true);
+			} catch (InterruptedException | ExecutionException | RuntimeException e) {
+				onNotDispatched();
+				throw e;
+			}
+			handOff(new Dispatch(body, null));
+		}
+	}
+
+	@Override
+	protected void onNotDispatched() {
+		space.release();
+	}
+
+	@Override
+	protected void onStopped() {
+		if (ownedExecutor != null) {
+			ownedExecutor.shutdown();
+		}
+	}
+
+	private boolean awaitHandler(Dispatch dispatch) throws InterruptedException {
+		try {
+			dispatch.done.get();
+			return true;
+		} catch (ExecutionException e) {
+			return false;
+		}
+	}
+
+	private void handOff(Dispatch dispatch) {
+		queue.offer(dispatch);
+		int active;
+		while ((active = activeWorkers.get()) < options.getMaxConcurrency()) {
+			if (activeWorkers.compareAndSet(active, active + 1)) {
+				try {
+					executor.execute(this::drain);
+				} catch (RejectedExecutionException e) {
+					drain();
+				}
+				return;
+			}
+		}
+	}
+
+	private void drain() {
+		do {
+			Dispatch dispatch;
+			while ((dispatch = queue.poll()) != null) {
+				space.release();
+				handle(dispatch);
+			}
+			activeWorkers.decrementAndGet();
+		} while (!queue.isEmpty() && reclaimWorker());
+	}
+
+	private boolean reclaimWorker() {
+		int active;
+		while ((active = activeWorkers.get()) < options.getMaxConcurrency()) {
+			if (activeWorkers.compareAndSet(active, active + 1)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void handle(Dispatch dispatch) {
+		try {
+			Message<T> message = consumer.createMessage(dispatch.body);
+			consumer.invokeHandler(messageLambda, message);
+			if (dispatch.done != null) {
+				dispatch.done.complete(null);
+			}
+		} catch (RuntimeException | Error e) {
+			errorHandler.accept(e);
+			if (dispatch.done != null) {
+				dispatch.done.completeExceptionally(e);
+			}
+		}
+	}
+
+	private class Dispatch {
+		private final FetchedMessage<T> body;
+		private final CompletableFuture<Void> done;
+
+		private Dispatch(FetchedMessage<T> body, CompletableFuture<Void> done) {
+			this.body = body;
+			this.done = done;
+		}
+	}
+}
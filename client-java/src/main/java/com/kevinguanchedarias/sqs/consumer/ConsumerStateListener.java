@@ -0,0 +1,27 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+import com.kevinguanchedarias.sqs.enumerations.ConsumerState;
+
+/**
+ * Notified when the onMessage loop of a consumer changes its state, in the
+ * thread of the loop
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@FunctionalInterface
+public interface ConsumerStateListener {
+
+	/**
+	 * 
+	 * @param state
+	 * @param cause The failure that lost the connection, or the last failed
+	 *              attempt when giving up, null otherwise
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void onStateChanged(ConsumerState state, Throwable cause);
+}
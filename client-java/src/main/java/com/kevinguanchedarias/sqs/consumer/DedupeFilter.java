@@ -0,0 +1,188 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the ids of the received messages in a fixed amount of memory, as
+ * configured by {@link DedupeOptions} <br>
+ * Each generation has a Bloom filter in front of an open addressing table of
+ * 64 bit fingerprints of the ids, most new ids are resolved by the Bloom
+ * filter alone, and the table removes its false positives
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+final class DedupeFilter {
+	private static final int BLOOM_HASHES = 5;
+	private static final int BLOOM_BITS_PER_ENTRY = 8;
+	private static final long EMPTY = 0;
+
+	private final int maxEntries;
+	private final long windowNanos;
+	private Generation current;
+	private Generation previous;
+	private long checkedMessages;
+	private long duplicateMessages;
+	private long bloomNegatives;
+
+	DedupeFilter(DedupeOptions options) {
+		maxEntries = options.getMaxEntries();
+		windowNanos = TimeUnit.MILLISECONDS.toNanos(options.getWindowMillis());
+		long now = System.nanoTime();
+		current = new Generation(maxEntries, now);
+		previous = new Generation(maxEntries, now);
+	}
+
+	/**
+	 *
+	 * @param id
+	 * @return true if the id has been recorded
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	synchronized boolean isDuplicate(long id) {
+		long fingerprint = fingerprint(id);
+		rotateIfRequired(false);
+		checkedMessages++;
+		if (!current.mightContain(fingerprint) && !previous.mightContain(fingerprint)) {
+			bloomNegatives++;
+			return false;
+		} else if (current.contains(fingerprint) || previous.contains(fingerprint)) {
+			duplicateMessages++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Remembers the id, invoked once the server has removed the message
+	 *
+	 * @param id
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	synchronized void record(long id) {
+		long fingerprint = fingerprint(id);
+		rotateIfRequired(current.size >= maxEntries);
+		if (!current.contains(fingerprint)) {
+			current.add(fingerprint);
+		}
+	}
+
+	synchronized DedupeMetrics getMetrics() {
+		return new DedupeMetrics(checkedMessages, duplicateMessages, bloomNegatives, current.size + previous.size,
+				current.getMemoryBytes() + previous.getMemoryBytes());
+	}
+
+	/**
+	 * 
+	 * @param full true if the current generation can't take more ids
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private void rotateIfRequired(boolean full) {
+		long now = System.nanoTime();
+		long age = now - current.startNanos;
+		if (age >= windowNanos || full) {
+			Generation discarded = previous;
+			discarded.clear(now);
+			previous = current;
+			current = discarded;
+			if (age >= windowNanos * 2) {
+				// Idle for more than a window, the previous ids are too old too
+				previous.clear(now);
+			}
+		}
+	}
+
+	/**
+	 * Mixes the bits of the id, so sequential ids spread over the tables, as
+	 * the finalizer of MurmurHash3
+	 */
+	private static long fingerprint(long id) {
+		long retVal = id;
+		retVal ^= retVal >>> 33;
+		retVal *= 0xff51afd7ed558ccdL;
+		retVal ^= retVal >>> 33;
+		retVal *= 0xc4ceb9fe1a85ec53L;
+		retVal ^= retVal >>> 33;
+		return retVal == EMPTY ? 1 : retVal;
+	}
+
+	private static int powerOfTwoAtLeast(long value) {
+		return value <= 1 ? 1 : Integer.highestOneBit((int) (value - 1)) << 1;
+	}
+
+	private static final class Generation {
+		private final long[] table;
+		private final int tableMask;
+		private final long[] bloom;
+		private final int bloomMask;
+		private int size;
+		private long startNanos;
+
+		private Generation(int maxEntries, long startNanos) {
+			table = new long[powerOfTwoAtLeast(maxEntries * 2L)];
+			tableMask = table.length - 1;
+			int bloomBits = Math.max(Long.SIZE, powerOfTwoAtLeast((long) maxEntries * BLOOM_BITS_PER_ENTRY));
+			bloom = new long[bloomBits / Long.SIZE];
+			bloomMask = bloomBits - 1;
+			this.startNanos = startNanos;
+		}
+
+		private boolean mightContain(long fingerprint) {
+			int first = (int) fingerprint;
+			int step = (int) (fingerprint >>> 32) | 1;
+			for (int i = 0; i < BLOOM_HASHES; i++) {
+				int bit = (first + i * step) & bloomMask;
+				if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean contains(long fingerprint) {
+			for (int slot = (int) fingerprint & tableMask;; slot = (slot + 1) & tableMask) {
+				long stored = table[slot];
+				if (stored == fingerprint) {
+					return true;
+				} else if (stored == EMPTY) {
+					return false;
+				}
+			}
+		}
+
+		private void add(long fingerprint) {
+			int slot = (int) fingerprint & tableMask;
+			while (table[slot] != EMPTY) {
+				slot = (slot + 1) & tableMask;
+			}
+			table[slot] = fingerprint;
+			size++;
+			int first = (int) fingerprint;
+			int step = (int) (fingerprint >>> 32) | 1;
+			for (int i = 0; i < BLOOM_HASHES; i++) {
+				int bit = (first + i * step) & bloomMask;
+				bloom[bit >>> 6] |= 1L << bit;
+			}
+		}
+
+		private void clear(long now) {
+			if (size > 0) {
+				Arrays.fill(table, EMPTY);
+				Arrays.fill(bloom, 0);
+				size = 0;
+			}
+			startNanos = now;
+		}
+
+		private long getMemoryBytes() {
+			return (long) (table.length + bloom.length) * Long.BYTES;
+		}
+	}
+}
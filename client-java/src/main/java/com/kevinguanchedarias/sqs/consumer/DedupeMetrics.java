@@ -0,0 +1,94 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+/**
+ * Snapshot of the state of the idempotency filter of a consumer
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class DedupeMetrics {
+	private final long checkedMessages;
+	private final long duplicateMessages;
+	private final long bloomNegatives;
+	private final int entries;
+	private final long memoryBytes;
+
+	/**
+	 *
+	 * @param checkedMessages   Messages with id received
+	 * @param duplicateMessages Messages dropped, as their id was already received
+	 * @param bloomNegatives    Messages the Bloom filter proved new, without
+	 *                          looking up the table of ids
+	 * @param entries           Ids remembered
+	 * @param memoryBytes       Memory used by the filter
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public DedupeMetrics(long checkedMessages, long duplicateMessages, long bloomNegatives, int entries,
+			long memoryBytes) {
+		this.checkedMessages = checkedMessages;
+		this.duplicateMessages = duplicateMessages;
+		this.bloomNegatives = bloomNegatives;
+		this.entries = entries;
+		this.memoryBytes = memoryBytes;
+	}
+
+	/**
+	 * @return the checkedMessages
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getCheckedMessages() {
+		return checkedMessages;
+	}
+
+	/**
+	 * @return the duplicateMessages
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getDuplicateMessages() {
+		return duplicateMessages;
+	}
+
+	/**
+	 *
+	 * @return The fraction of the checked messages that were duplicates,
+	 *         between 0 and 1
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public double getHitRate() {
+		return checkedMessages == 0 ? 0 : (double) duplicateMessages / checkedMessages;
+	}
+
+	/**
+	 * @return the bloomNegatives
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getBloomNegatives() {
+		return bloomNegatives;
+	}
+
+	/**
+	 * @return the entries
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getEntries() {
+		return entries;
+	}
+
+	/**
+	 * @return the memoryBytes
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getMemoryBytes() {
+		return memoryBytes;
+	}
+}
@@ -0,0 +1,72 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+/**
+ * How a consumer remembers the ids of the messages it has received, to drop
+ * the messages the server delivers again <br>
+ * The ids are kept in two generations of <i>maxEntries</i> each, the older
+ * one is discarded when the current one is older than <i>windowMillis</i>, or
+ * full, so an id is remembered at least for the window, unless more than
+ * <i>maxEntries</i> messages arrive meanwhile <br>
+ * The memory used is fixed, 34 bytes per entry when <i>maxEntries</i> is a
+ * power of two, up to twice as much otherwise
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class DedupeOptions {
+	private int maxEntries = 65536;
+	private long windowMillis = 600000;
+
+	/**
+	 * Max ids of each generation
+	 *
+	 * @param maxEntries
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public DedupeOptions withMaxEntries(int maxEntries) {
+		if (maxEntries < 1 || maxEntries > 1 << 24) {
+			throw new IllegalArgumentException("maxEntries must be between 1 and 2^24");
+		}
+		this.maxEntries = maxEntries;
+		return this;
+	}
+
+	/**
+	 * Time each generation of ids is filled, before it becomes the older one
+	 *
+	 * @param windowMillis
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public DedupeOptions withWindowMillis(long windowMillis) {
+		if (windowMillis < 1) {
+			throw new IllegalArgumentException("windowMillis must be positive");
+		}
+		this.windowMillis = windowMillis;
+		return this;
+	}
+
+	/**
+	 * @return the maxEntries
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * @return the windowMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getWindowMillis() {
+		return windowMillis;
+	}
+}
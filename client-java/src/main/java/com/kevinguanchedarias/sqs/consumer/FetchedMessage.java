@@ -0,0 +1,44 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+import java.io.Serializable;
+
+/**
+ * Body of a message already parsed while it was in the read buffer, or the
+ * error thrown by the parse, that is rethrown when the message is created, as
+ * the section has to be closed before <br>
+ * A duplicate has neither body nor error, as it's dropped
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+final class FetchedMessage<T extends Serializable> {
+	@SuppressWarnings("rawtypes")
+	private static final FetchedMessage DUPLICATE = new FetchedMessage<>(null, null);
+
+	private final T body;
+	private final RuntimeException transformError;
+
+	FetchedMessage(T body, RuntimeException transformError) {
+		this.body = body;
+		this.transformError = transformError;
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T extends Serializable> FetchedMessage<T> duplicate() {
+		return DUPLICATE;
+	}
+
+	boolean isDuplicate() {
+		return this == DUPLICATE;
+	}
+
+	T getBody() {
+		if (transformError != null) {
+			throw transformError;
+		}
+		return body;
+	}
+}
@@ -3,22 +3,21 @@
  */
 package com.kevinguanchedarias.sqs.consumer;
 
-import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kevinguanchedarias.sqs.JsonMessageInner;
 import com.kevinguanchedarias.sqs.JsonMessageOuter;
 import com.kevinguanchedarias.sqs.Message;
-import com.kevinguanchedarias.sqs.exception.SqsBadJsonException;
 
 /**
  * 
  * @since 1.1.0
  * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
  */
-public class JsonConsumer extends AbstractConsumer<JsonMessageInner> {
-
-	private ObjectMapper mapper;
+public class JsonConsumer extends TypedJsonConsumer<JsonMessageInner> {
 
 	/**
 	 * @param mapper
@@ -26,24 +25,67 @@ public class JsonConsumer extends AbstractConsumer<JsonMessageInner> {
 	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
 	 */
 	public JsonConsumer(ObjectMapper mapper) {
-		this.mapper = mapper;
+		super(mapper, JsonMessageInner.class);
 	}
 
-	/*
-	 * (non-Javadoc)
+	/**
+	 * Key extractor that uses {@link JsonMessageInner#getType()}
 	 * 
-	 * @see
-	 * com.kevinguanchedarias.sqs.consumer.AbstractConsumer#transformResult(java.
-	 * lang.String)
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
 	 */
-	@Override
-	protected JsonMessageInner transformResult(String body) {
-		try {
-			return mapper.readValue(body, JsonMessageInner.class);
-		} catch (IOException e) {
-			throw new SqsBadJsonException(
-					"Couldn't parse the JSON, in the future, run something like RUN ABORT_GET_MESSAGE", e);
-		}
+	public static KeyExtractor<JsonMessageInner> keyByType() {
+		return message -> message.getBody().getType();
+	}
+
+	/**
+	 * Key extractor that uses a top level field of
+	 * {@link JsonMessageInner#getContent()}
+	 * 
+	 * @param field
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static KeyExtractor<JsonMessageInner> keyByContentField(String field) {
+		return message -> {
+			Map<String, Object> content = message.getBody().getContent();
+			return content == null ? null : content.get(field);
+		};
+	}
+
+	/**
+	 * Fires when a message arrives, running the handler in the lane that
+	 * corresponds to the key of the message <br>
+	 * Messages with the same key are handled in order, one at a time, while
+	 * messages with different keys may be handled in parallel <br>
+	 * <b>NOTICE:</b> Messages are acknowledged when they enter their lane, the
+	 * handler runs after the acknowledge, so a failed handler is not
+	 * redelivered, and the queued messages are lost if the process dies
+	 * 
+	 * @param messageLambda
+	 * @param options       The key extractor, the number of lanes and the
+	 *                      capacity of each lane
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void onMessage(OnMessageLambda<JsonMessageInner> messageLambda,
+			KeyedDispatchOptions<JsonMessageInner> options) {
+		startDispatcher(() -> new LaneDispatcher<>(this, messageLambda, options));
+	}
+
+	/**
+	 * 
+	 * @return The occupancy and lag of each lane, empty if the key affine
+	 *         onMessage is not used
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public List<LaneMetrics> getLaneMetrics() {
+		AbstractDispatcher<JsonMessageInner> current = getDispatcher();
+		return current instanceof LaneDispatcher ? ((LaneDispatcher<JsonMessageInner>) current).getLaneMetrics()
+				: Collections.emptyList();
 	}
 
 	/*
@@ -0,0 +1,28 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+import java.io.Serializable;
+
+import com.kevinguanchedarias.sqs.Message;
+
+/**
+ * Extracts the key that decides in which lane a message is handled, messages
+ * with equal keys are handled in order
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@FunctionalInterface
+public interface KeyExtractor<B extends Serializable> {
+
+	/**
+	 * 
+	 * @param message
+	 * @return The key, null keys go to the first lane
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public Object extractKey(Message<B> message);
+}
@@ -0,0 +1,139 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+import java.io.Serializable;
+import java.util.function.Consumer;
+
+/**
+ * Configuration of the key affine dispatch, where messages with the same key
+ * are handled in order, in the same lane, and different keys in parallel <br>
+ * Messages are acknowledged before entering their lane, so the handler runs
+ * after the acknowledge and a message whose handler fails is not redelivered
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class KeyedDispatchOptions<B extends Serializable> {
+	private KeyExtractor<B> keyExtractor;
+	private int lanes = Runtime.getRuntime().availableProcessors();
+	private int laneCapacity = 64;
+	private long shutdownTimeoutMillis = 30000;
+	private Consumer<Throwable> errorHandler = ConsumerDispatchOptions.LOG_ERRORS;
+
+	/**
+	 * Extracts the key of the messages, required
+	 *
+	 * @param keyExtractor
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public KeyedDispatchOptions<B> withKeyExtractor(KeyExtractor<B> keyExtractor) {
+		this.keyExtractor = keyExtractor;
+		return this;
+	}
+
+	/**
+	 * Number of lanes, each one has its own thread
+	 *
+	 * @param lanes
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public KeyedDispatchOptions<B> withLanes(int lanes) {
+		this.lanes = lanes;
+		return this;
+	}
+
+	/**
+	 * Max messages waiting in a lane, when the lane of a message is full, no
+	 * more messages are requested to the server
+	 *
+	 * @param laneCapacity
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public KeyedDispatchOptions<B> withLaneCapacity(int laneCapacity) {
+		this.laneCapacity = laneCapacity;
+		return this;
+	}
+
+	/**
+	 * Max time quit waits for the message being dispatched, after that the
+	 * socket is closed
+	 *
+	 * @param shutdownTimeoutMillis
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public KeyedDispatchOptions<B> withShutdownTimeoutMillis(long shutdownTimeoutMillis) {
+		this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+		return this;
+	}
+
+	/**
+	 * Invoked with the exceptions thrown by the handlers, by the key extractor,
+	 * or by the fetch of messages <br>
+	 * By default the exceptions are logged, as in
+	 * {@link ConsumerDispatchOptions#withErrorHandler(Consumer)}
+	 *
+	 * @param errorHandler null restores the default
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public KeyedDispatchOptions<B> withErrorHandler(Consumer<Throwable> errorHandler) {
+		this.errorHandler = errorHandler == null ? ConsumerDispatchOptions.LOG_ERRORS : errorHandler;
+		return this;
+	}
+
+	/**
+	 * @return the keyExtractor
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public KeyExtractor<B> getKeyExtractor() {
+		return keyExtractor;
+	}
+
+	/**
+	 * @return the lanes
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getLanes() {
+		return lanes;
+	}
+
+	/**
+	 * @return the laneCapacity
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getLaneCapacity() {
+		return laneCapacity;
+	}
+
+	/**
+	 * @return the shutdownTimeoutMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getShutdownTimeoutMillis() {
+		return shutdownTimeoutMillis;
+	}
+
+	/**
+	 * @return the errorHandler
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public Consumer<Throwable> getErrorHandler() {
+		return errorHandler;
+	}
+}
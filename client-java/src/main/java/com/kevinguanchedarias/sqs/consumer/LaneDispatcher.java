@@ -0,0 +1,161 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.kevinguanchedarias.sqs.Message;
+
+/**
+ * Hashes the key of each message onto a lane, every lane has a bounded queue
+ * and a single thread, so messages with the same key are handled in the order
+ * they were received <br>
+ * Messages are acknowledged once their key is known, before entering the lane,
+ * so the handler runs after the acknowledge and a failed handler is not
+ * redelivered. A message that can't be read or keyed is rejected instead <br>
+ * When the lane of a message is full, the fetch waits, so a slow key stops the
+ * fetch of the rest
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+class LaneDispatcher<T extends Serializable> extends AbstractDispatcher<T> {
+	private static final long POLL_MILLIS = 100;
+
+	private final KeyExtractor<T> keyExtractor;
+	private final List<Lane> lanes;
+	private final int laneCapacity;
+
+	LaneDispatcher(AbstractConsumer<T> consumer, OnMessageLambda<T> messageLambda, KeyedDispatchOptions<T> options) {
+		super(consumer, messageLambda, options.getErrorHandler(), options.getShutdownTimeoutMillis());
+		if (options.getKeyExtractor() == null) {
+			throw new IllegalArgumentException("keyExtractor is required");
+		}
+		if (options.getLanes() < 1 || options.getLaneCapacity() < 1) {
+			throw new IllegalArgumentException("lanes and laneCapacity must be greater than 0");
+		}
+		keyExtractor = options.getKeyExtractor();
+		laneCapacity = options.getLaneCapacity();
+		lanes = new ArrayList<>(options.getLanes());
+		for (int i = 0; i < options.getLanes(); i++) {
+			lanes.add(new Lane(i));
+		}
+	}
+
+	@Override
+	void start() {
+		for (Lane lane : lanes) {
+			lane.thread.start();
+		}
+		super.start();
+	}
+
+	/**
+	 *
+	 * @return A snapshot of the state of each lane
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	List<LaneMetrics> getLaneMetrics() {
+		long now = System.nanoTime();
+		List<LaneMetrics> retVal = new ArrayList<>(lanes.size());
+		for (Lane lane : lanes) {
+			LaneEntry oldest = lane.queue.peek();
+			long lagMillis = oldest == null ? 0 : TimeUnit.NANOSECONDS.toMillis(now - oldest.enqueuedNanos);
+			retVal.add(new LaneMetrics(lane.index, lane.queue.size(), laneCapacity, lane.handledMessages, lagMillis));
+		}
+		return retVal;
+	}
+
+	@Override
+	protected boolean awaitCapacity() {
+		return true;
+	}
+
+	@Override
+	protected void dispatch(FetchedMessage<T> body) throws InterruptedException, ExecutionException {
+		Message<T> message;
+		Lane lane;
+		try {
+			message = consumer.createMessage(body);
+			lane = lanes.get(laneIndex(keyExtractor.extractKey(message)));
+		} catch (RuntimeException e) {
+			// Not acknowledged yet, so the server keeps the message
+			consumer.acknowledgeSync(false);
+			errorHandler.accept(e);
+			return;
+		}
+		consumer.acknowledgeSync(true);
+		LaneEntry entry = new LaneEntry(message, System.nanoTime());
+		while (!lane.queue.offer(entry, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+			if (!lane.thread.isAlive()) {
+				throw new IllegalStateException("The lane " + lane.index + " is not running");
+			}
+		}
+	}
+
+	@Override
+	protected void onStopped() {
+		// Lanes exit by themselves once their queue is empty
+	}
+
+	private int laneIndex(Object key) {
+		if (key == null) {
+			return 0;
+		}
+		int hash = key.hashCode();
+		return Math.floorMod(hash ^ (hash >>> 16), lanes.size());
+	}
+
+	private class Lane {
+		private final int index;
+		private final BlockingQueue<LaneEntry> queue = new ArrayBlockingQueue<>(laneCapacity);
+		private final Thread thread;
+		private volatile long handledMessages;
+
+		private Lane(int index) {
+			this.index = index;
+			thread = new Thread(this::run, "sqs-consumer-lane-" + index);
+			thread.setDaemon(true);
+		}
+
+		private void run() {
+			try {
+				while (running || !queue.isEmpty()) {
+					LaneEntry entry = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+					if (entry != null) {
+						handle(entry.message);
+						handledMessages++;
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		private void handle(Message<T> message) {
+			try {
+				consumer.invokeHandler(messageLambda, message);
+			} catch (RuntimeException | Error e) {
+				errorHandler.accept(e);
+			}
+		}
+	}
+
+	private class LaneEntry {
+		private final Message<T> message;
+		private final long enqueuedNanos;
+
+		private LaneEntry(Message<T> message, long enqueuedNanos) {
+			this.message = message;
+			this.enqueuedNanos = enqueuedNanos;
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+/**
+ * Snapshot of the state of a lane of a key affine dispatcher
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class LaneMetrics {
+	private final int lane;
+	private final int queuedMessages;
+	private final int capacity;
+	private final long handledMessages;
+	private final long lagMillis;
+
+	/**
+	 * 
+	 * @param lane            Index of the lane
+	 * @param queuedMessages  Messages waiting in the lane
+	 * @param capacity        Max messages that can wait in the lane
+	 * @param handledMessages Messages handled since the dispatcher started
+	 * @param lagMillis       Time the oldest waiting message has been in the
+	 *                        lane
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public LaneMetrics(int lane, int queuedMessages, int capacity, long handledMessages, long lagMillis) {
+		this.lane = lane;
+		this.queuedMessages = queuedMessages;
+		this.capacity = capacity;
+		this.handledMessages = handledMessages;
+		this.lagMillis = lagMillis;
+	}
+
+	/**
+	 * @return the lane
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getLane() {
+		return lane;
+	}
+
+	/**
+	 * @return the queuedMessages
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getQueuedMessages() {
+		return queuedMessages;
+	}
+
+	/**
+	 * @return the capacity
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * 
+	 * @return The occupancy of the lane, between 0 and 1
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public double getOccupancy() {
+		return (double) queuedMessages / capacity;
+	}
+
+	/**
+	 * @return the handledMessages
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getHandledMessages() {
+		return handledMessages;
+	}
+
+	/**
+	 * @return the lagMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getLagMillis() {
+		return lagMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "LaneMetrics [lane=" + lane + ", queuedMessages=" + queuedMessages + ", capacity=" + capacity
+				+ ", handledMessages=" + handledMessages + ", lagMillis=" + lagMillis + "]";
+	}
+}
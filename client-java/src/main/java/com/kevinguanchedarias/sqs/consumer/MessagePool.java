@@ -0,0 +1,68 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+import java.io.Serializable;
+import java.util.function.Supplier;
+
+import com.kevinguanchedarias.sqs.Message;
+
+/**
+ * Bounded pool of the messages handed to the onMessage handlers, so the steady
+ * state doesn't allocate a message per delivery <br>
+ * Taken by the fetching thread and released by the handler threads, the lock
+ * is uncontended most of the time, and unlike a lock free queue it doesn't
+ * allocate a node per release
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+final class MessagePool<T extends Serializable> {
+	private final Supplier<? extends Message<T>> factory;
+	private final Object[] free;
+	private int size;
+
+	/**
+	 * 
+	 * @param factory  Creates the messages when the pool is empty
+	 * @param capacity Max free messages kept, the released beyond it are left to
+	 *                 the garbage collector
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	MessagePool(Supplier<? extends Message<T>> factory, int capacity) {
+		this.factory = factory;
+		free = new Object[capacity];
+	}
+
+	@SuppressWarnings("unchecked")
+	Message<T> take() {
+		synchronized (this) {
+			if (size > 0) {
+				Message<T> retVal = (Message<T>) free[--size];
+				free[size] = null;
+				return retVal;
+			}
+		}
+		return factory.get();
+	}
+
+	/**
+	 * Clears the message, and keeps it if there is room
+	 * 
+	 * @param message Must not be used after this call
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void release(Message<T> message) {
+		message.setBody(null);
+		message.setDeliverDateMillis(Message.NO_TIME);
+		message.setDeliverDelayMillis(Message.NO_TIME);
+		synchronized (this) {
+			if (size < free.length) {
+				free[size++] = message;
+			}
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How the onMessage loop of a consumer reconnects after losing the connection
+ * <br>
+ * The delay before each attempt grows exponentially from
+ * <i>initialDelayMillis</i> up to <i>maxDelayMillis</i>, and a random part of
+ * it, the <i>jitter</i>, is subtracted, so many consumers of a restarted
+ * server don't reconnect at the same time
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class ReconnectPolicy {
+	private long initialDelayMillis = 100;
+	private long maxDelayMillis = 30000;
+	private double multiplier = 2;
+	private double jitter = 0.5;
+	private int maxAttempts;
+
+	/**
+	 * Delay before the first attempt
+	 *
+	 * @param initialDelayMillis
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ReconnectPolicy withInitialDelayMillis(long initialDelayMillis) {
+		this.initialDelayMillis = initialDelayMillis;
+		return this;
+	}
+
+	/**
+	 * Max delay between attempts
+	 *
+	 * @param maxDelayMillis
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ReconnectPolicy withMaxDelayMillis(long maxDelayMillis) {
+		this.maxDelayMillis = maxDelayMillis;
+		return this;
+	}
+
+	/**
+	 * Factor applied to the delay after each failed attempt
+	 *
+	 * @param multiplier
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ReconnectPolicy withMultiplier(double multiplier) {
+		this.multiplier = multiplier;
+		return this;
+	}
+
+	/**
+	 * Max fraction of the delay randomly subtracted, from 0 (no jitter) to 1
+	 *
+	 * @param jitter
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ReconnectPolicy withJitter(double jitter) {
+		if (jitter < 0 || jitter > 1) {
+			throw new IllegalArgumentException("The jitter must be between 0 and 1");
+		}
+		this.jitter = jitter;
+		return this;
+	}
+
+	/**
+	 * Attempts before giving up, 0 (the default) means retry forever
+	 *
+	 * @param maxAttempts
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ReconnectPolicy withMaxAttempts(int maxAttempts) {
+		this.maxAttempts = maxAttempts;
+		return this;
+	}
+
+	/**
+	 *
+	 * @param attempt Starting at 1
+	 * @return The delay before the attempt, with the jitter applied
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long computeDelayMillis(int attempt) {
+		double delay = Math.min(maxDelayMillis, initialDelayMillis * Math.pow(multiplier, attempt - 1.0));
+		return (long) (delay - delay * jitter * ThreadLocalRandom.current().nextDouble());
+	}
+
+	/**
+	 * @return the initialDelayMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getInitialDelayMillis() {
+		return initialDelayMillis;
+	}
+
+	/**
+	 * @return the maxDelayMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getMaxDelayMillis() {
+		return maxDelayMillis;
+	}
+
+	/**
+	 * @return the multiplier
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public double getMultiplier() {
+		return multiplier;
+	}
+
+	/**
+	 * @return the jitter
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public double getJitter() {
+		return jitter;
+	}
+
+	/**
+	 * @return the maxAttempts
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free queue, for exactly one thread adding and one thread
+ * removing
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+class SpscRingBuffer<E> {
+	private final Object[] elements;
+	private final int mask;
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+
+	/**
+	 * 
+	 * @param capacity Will be rounded up to the next power of two
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	SpscRingBuffer(int capacity) {
+		int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+		elements = new Object[size];
+		mask = size - 1;
+	}
+
+	/**
+	 * Adds the element, only invoked from the producer thread
+	 * 
+	 * @param element
+	 * @return false if the buffer is full
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	boolean offer(E element) {
+		long currentTail = tail.get();
+		if (currentTail - head.get() == elements.length) {
+			return false;
+		}
+		elements[(int) currentTail & mask] = element;
+		tail.lazySet(currentTail + 1);
+		return true;
+	}
+
+	/**
+	 * Removes the oldest element, only invoked from the consumer thread
+	 * 
+	 * @return null if the buffer is empty
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	@SuppressWarnings("unchecked")
+	E poll() {
+		long currentHead = head.get();
+		if (currentHead == tail.get()) {
+			return null;
+		}
+		int index = (int) currentHead & mask;
+		E element = (E) elements[index];
+		elements[index] = null;
+		head.lazySet(currentHead + 1);
+		return element;
+	}
+
+	/**
+	 * 
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	int size() {
+		return (int) (tail.get() - head.get());
+	}
+
+	/**
+	 * 
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	int capacity() {
+		return elements.length;
+	}
+}
@@ -0,0 +1,133 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Accumulates the chunks of a streamed body, in memory up to the threshold,
+ * and in a temporary file beyond it
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+final class StreamSpool {
+	private static final String FILE_PREFIX = "sqs-stream-";
+	private static final String FILE_SUFFIX = ".spool";
+	private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+	private final int thresholdBytes;
+	private final Path directory;
+	private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+	private Path file;
+	private OutputStream fileStream;
+	private long nextSequence;
+	private long lastAppendNanos = System.nanoTime();
+
+	/**
+	 *
+	 * @param thresholdBytes Max bytes kept in memory
+	 * @param directory      Where the temporary file is created, null for the
+	 *                       default temporary directory
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	StreamSpool(int thresholdBytes, Path directory) {
+		this.thresholdBytes = thresholdBytes;
+		this.directory = directory;
+	}
+
+	/**
+	 * Appends the data of the next chunk
+	 *
+	 * @param data
+	 * @throws IOException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void append(ByteBuffer data) throws IOException {
+		if (file == null && memory.size() + data.remaining() > thresholdBytes) {
+			file = directory == null ? Files.createTempFile(FILE_PREFIX, FILE_SUFFIX)
+					: Files.createTempFile(directory, FILE_PREFIX, FILE_SUFFIX);
+			fileStream = new BufferedOutputStream(Files.newOutputStream(file), FILE_BUFFER_SIZE);
+			memory.writeTo(fileStream);
+			memory = null;
+		}
+		OutputStream target = file == null ? memory : fileStream;
+		if (data.hasArray()) {
+			target.write(data.array(), data.arrayOffset() + data.position(), data.remaining());
+		} else {
+			byte[] copy = new byte[data.remaining()];
+			data.duplicate().get(copy);
+			target.write(copy);
+		}
+		nextSequence++;
+		lastAppendNanos = System.nanoTime();
+	}
+
+	/**
+	 *
+	 * @return The sequence number of the chunk expected next
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	long getNextSequence() {
+		return nextSequence;
+	}
+
+	/**
+	 *
+	 * @return The {@link System#nanoTime()} of the last chunk appended, or of
+	 *         the creation of the spool
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	long getLastAppendNanos() {
+		return lastAppendNanos;
+	}
+
+	/**
+	 * Finishes the spool, the temporary file is deleted when the returned stream
+	 * is closed
+	 *
+	 * @return
+	 * @throws IOException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	InputStream toInputStream() throws IOException {
+		if (file == null) {
+			return new ByteArrayInputStream(memory.toByteArray());
+		}
+		fileStream.close();
+		return Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE);
+	}
+
+	/**
+	 * Drops the chunks received, never throws
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void discard() {
+		memory = null;
+		if (file != null) {
+			try {
+				fileStream.close();
+				Files.deleteIfExists(file);
+			} catch (IOException e) {
+				file.toFile().deleteOnExit();
+			}
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+import java.io.Serializable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.kevinguanchedarias.sqs.Message;
+
+/**
+ * Delivers the messages to a Reactive Streams subscriber, a GET_MESSAGE
+ * section is only opened while the subscriber has pending demand <br>
+ * All the signals are emitted from the fetch thread
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+class SubscriptionDispatcher<T extends Serializable> extends AbstractDispatcher<T> implements Subscription {
+	private static final long POLL_MILLIS = 100;
+	private static final long SHUTDOWN_TIMEOUT_MILLIS = 30000;
+
+	private final Object demandMonitor = new Object();
+	private final AtomicLong demand = new AtomicLong();
+	private final AtomicBoolean terminated = new AtomicBoolean();
+	private volatile Subscriber<? super Message<T>> subscriber;
+	private volatile boolean cancelled;
+	private volatile Throwable invalidRequest;
+
+	SubscriptionDispatcher(AbstractConsumer<T> consumer, Subscriber<? super Message<T>> subscriber) {
+		super(consumer, message -> {
+		}, null, SHUTDOWN_TIMEOUT_MILLIS);
+		this.subscriber = subscriber;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.reactivestreams.Subscription#request(long)
+	 */
+	@Override
+	public void request(long n) {
+		if (n <= 0) {
+			invalidRequest = new IllegalArgumentException(
+					"Rule 3.9: the requested messages must be greater than 0, requested " + n);
+			cancel();
+			return;
+		}
+		long current;
+		long next;
+		do {
+			current = demand.get();
+			next = current + n < 0 ? Long.MAX_VALUE : current + n;
+		} while (!demand.compareAndSet(current, next));
+		synchronized (demandMonitor) {
+			demandMonitor.notifyAll();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.reactivestreams.Subscription#cancel()
+	 */
+	@Override
+	public void cancel() {
+		cancelled = true;
+		running = false;
+		synchronized (demandMonitor) {
+			demandMonitor.notifyAll();
+		}
+	}
+
+	@Override
+	protected boolean awaitCapacity() throws InterruptedException {
+		if (demand.get() > 0) {
+			return !cancelled;
+		}
+		synchronized (demandMonitor) {
+			if (demand.get() == 0 && !cancelled) {
+				demandMonitor.wait(POLL_MILLIS);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * If the subscription has been cancelled while the server was delivering the
+	 * message, the message is not acknowledged, so the server keeps it
+	 *
+	 * @see com.kevinguanchedarias.sqs.consumer.AbstractDispatcher#dispatch(FetchedMessage)
+	 */
+	@Override
+	protected void dispatch(FetchedMessage<T> body) throws InterruptedException, ExecutionException {
+		if (cancelled) {
+			consumer.acknowledgeSync(false);
+			return;
+		}
+		consumer.acknowledgeSync(true);
+		Message<T> message = consumer.createMessage(body);
+		if (demand.get() != Long.MAX_VALUE) {
+			demand.decrementAndGet();
+		}
+		Subscriber<? super Message<T>> current = subscriber;
+		if (current != null) {
+			consumer.invokeHandler(current::onNext, message, current.getClass());
+		}
+	}
+
+	@Override
+	protected void onStopped() {
+		running = false;
+	}
+
+	/**
+	 * Emits the terminal signal, onError if the fetch failed or the subscriber
+	 * sent an invalid request, onComplete if the consumer has quit
+	 *
+	 * @see com.kevinguanchedarias.sqs.consumer.AbstractDispatcher#onFetchLoopFinished()
+	 */
+	@Override
+	protected void onFetchLoopFinished() {
+		if (invalidRequest != null) {
+			signalError(invalidRequest);
+		} else if (!cancelled) {
+			Subscriber<? super Message<T>> current = subscriber;
+			if (current != null && terminated.compareAndSet(false, true)) {
+				subscriber = null;
+				current.onComplete();
+			}
+		}
+		subscriber = null;
+	}
+
+	@Override
+	protected void onFetchError(Throwable error) {
+		signalError(error);
+	}
+
+	private void signalError(Throwable error) {
+		Subscriber<? super Message<T>> current = subscriber;
+		if (current != null && terminated.compareAndSet(false, true)) {
+			subscriber = null;
+			current.onError(error);
+		}
+	}
+}
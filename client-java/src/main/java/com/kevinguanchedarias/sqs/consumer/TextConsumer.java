@@ -4,7 +4,9 @@
 package com.kevinguanchedarias.sqs.consumer;
 
 import com.kevinguanchedarias.sqs.Message;
+import com.kevinguanchedarias.sqs.SqsRuntime;
 import com.kevinguanchedarias.sqs.TextMessage;
+import com.kevinguanchedarias.sqs.protocol.SqsProtocolDecoder;
 
 /**
  * 
@@ -13,6 +15,27 @@ import com.kevinguanchedarias.sqs.TextMessage;
  */
 public class TextConsumer extends AbstractConsumer<String> implements Consumer<String> {
 
+	/**
+	 * Uses the default runtime
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TextConsumer() {
+		super();
+	}
+
+	/**
+	 * 
+	 * @param runtime
+	 * @see SqsRuntime#createTextConsumer()
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TextConsumer(SqsRuntime runtime) {
+		super(runtime);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -22,7 +45,20 @@ public class TextConsumer extends AbstractConsumer<String> implements Consumer<S
 	 */
 	@Override
 	protected String transformResult(String body) {
-		return body.substring(1).substring(0, body.length() - 1);
+		return SqsProtocolDecoder.decodeJsonString(body);
+	}
+
+	/**
+	 * Removes the quotes and the escapes added by the producer, directly from
+	 * the read buffer
+	 * 
+	 * @see com.kevinguanchedarias.sqs.consumer.AbstractConsumer#transformResult(byte[],
+	 *      int, int)
+	 * @since 1.1.0
+	 */
+	@Override
+	protected String transformResult(byte[] source, int offset, int length) {
+		return SqsProtocolDecoder.decodeJsonString(source, offset, length);
 	}
 
 	/*
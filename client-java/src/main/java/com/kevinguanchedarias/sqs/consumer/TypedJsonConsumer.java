@@ -0,0 +1,97 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.consumer;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.kevinguanchedarias.sqs.JsonMessage;
+import com.kevinguanchedarias.sqs.Message;
+import com.kevinguanchedarias.sqs.SqsRuntime;
+import com.kevinguanchedarias.sqs.exception.SqsBadJsonException;
+
+/**
+ * Consumes messages which body is a user POJO, parsed directly from the bytes
+ * of the read buffer, without intermediate Strings <br>
+ * The ObjectReader is built once, on construction
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class TypedJsonConsumer<T extends Serializable> extends AbstractConsumer<T> {
+
+	private final ObjectReader reader;
+
+	/**
+	 *
+	 * @param mapper
+	 * @param type   The class of the bodies
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TypedJsonConsumer(ObjectMapper mapper, Class<T> type) {
+		reader = mapper.readerFor(type);
+	}
+
+	/**
+	 *
+	 * @param runtime
+	 * @param mapper
+	 * @param type    The class of the bodies
+	 * @see SqsRuntime#createTypedJsonConsumer(ObjectMapper, Class)
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TypedJsonConsumer(SqsRuntime runtime, ObjectMapper mapper, Class<T> type) {
+		super(runtime);
+		reader = mapper.readerFor(type);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * com.kevinguanchedarias.sqs.consumer.AbstractConsumer#transformResult(java.
+	 * lang.String)
+	 */
+	@Override
+	protected T transformResult(String body) {
+		try {
+			return reader.readValue(body);
+		} catch (IOException e) {
+			throw new SqsBadJsonException(
+					"Couldn't parse the JSON, in the future, run something like RUN ABORT_GET_MESSAGE", e);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * com.kevinguanchedarias.sqs.consumer.AbstractConsumer#transformResult(byte[],
+	 * int, int)
+	 */
+	@Override
+	protected T transformResult(byte[] source, int offset, int length) {
+		try {
+			return reader.readValue(source, offset, length);
+		} catch (IOException e) {
+			throw new SqsBadJsonException(
+					"Couldn't parse the JSON, in the future, run something like RUN ABORT_GET_MESSAGE", e);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.kevinguanchedarias.sqs.consumer.AbstractConsumer#getMessageClass()
+	 */
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	protected Class<? extends Message<T>> getMessageClass() {
+		return (Class) JsonMessage.class;
+	}
+}
@@ -0,0 +1,14 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.enumerations;
+
+/**
+ * Represents why a batch of messages has been sent
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public enum BatchFlushReason {
+	MAX_BYTES, MAX_MESSAGES, LINGER, MANUAL;
+}
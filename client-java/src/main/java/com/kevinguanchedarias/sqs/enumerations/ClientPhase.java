@@ -0,0 +1,51 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.enumerations;
+
+/**
+ * The phases of the protocol timed by a
+ * {@link com.kevinguanchedarias.sqs.metrics.ClientMetricsListener}
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public enum ClientPhase {
+	/**
+	 * Opening the socket, until the server says HELO
+	 */
+	CONNECT,
+
+	/**
+	 * The CONFIG section, until the server accepts it
+	 */
+	CONFIG,
+
+	/**
+	 * The METADATA section of a sent message
+	 */
+	SEND_METADATA,
+
+	/**
+	 * The MESSAGE section of a sent message, until the server accepts the body
+	 */
+	SEND_BODY,
+
+	/**
+	 * Waiting for the server to deliver a message, includes the time the queue
+	 * was empty
+	 */
+	RECEIVE_WAIT,
+
+	/**
+	 * Closing the GET_MESSAGE section, acknowledging or not the message
+	 */
+	RECEIVE_ACK,
+
+	/**
+	 * From the loss of the connection of the onMessage loop until it consumes
+	 * again, including the backoff, each failed attempt is reported as a
+	 * connection failure
+	 */
+	RECONNECT;
+}
@@ -0,0 +1,29 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.enumerations;
+
+/**
+ * Represents the state of the onMessage loop of a consumer
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public enum ConsumerState {
+
+	/**
+	 * Receiving messages, and running the handler
+	 */
+	CONSUMING,
+
+	/**
+	 * The connection was lost, waiting before the next attempt, or connecting
+	 */
+	RECONNECTING,
+
+	/**
+	 * The loop has finished, because the consumer quit, or there is no
+	 * reconnect policy, or it gave up
+	 */
+	STOPPED;
+}
@@ -0,0 +1,29 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.enumerations;
+
+/**
+ * Represents when a consumer dispatching messages to an executor acknowledges
+ * them to the server
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public enum DispatchAckMode {
+
+	/**
+	 * The message is acknowledged after the handler completes, if the handler
+	 * throws, the server keeps the message for redelivery <br>
+	 * As the server doesn't deliver a new message until the previous one is
+	 * acknowledged, handlers run one at a time
+	 */
+	AFTER_HANDLER,
+
+	/**
+	 * The message is acknowledged when it enters the hand-off queue, allowing to
+	 * run handlers in parallel <br>
+	 * Queued messages are lost if the process dies
+	 */
+	ON_HAND_OFF;
+}
@@ -0,0 +1,33 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.enumerations;
+
+/**
+ * Represents when the outbox of a producer forces its segment files to the disk
+ * <br>
+ * The messages are always in the page cache when the send returns, so they
+ * survive a crash of the process, the policy decides what survives a crash of
+ * the machine
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public enum OutboxSyncPolicy {
+
+	/**
+	 * Never forces, the operating system writes the pages back when it wants
+	 */
+	NONE,
+
+	/**
+	 * Forces the written segments periodically, a crash of the machine loses at
+	 * most the messages of the last interval
+	 */
+	INTERVAL,
+
+	/**
+	 * Forces the segment before each send returns, the slowest
+	 */
+	ALWAYS;
+}
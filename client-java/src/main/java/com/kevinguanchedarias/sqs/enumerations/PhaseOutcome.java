@@ -0,0 +1,30 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.enumerations;
+
+/**
+ * How a {@link ClientPhase} finished
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public enum PhaseOutcome {
+	SUCCESS,
+
+	/**
+	 * The server answered something else than the expected response
+	 */
+	INVALID_RESPONSE,
+
+	/**
+	 * The connection failed, was closed, or the thread was interrupted
+	 */
+	CONNECTION_FAILURE,
+
+	/**
+	 * A timeout of the {@link com.kevinguanchedarias.sqs.ClientConfig}, or the
+	 * deadline of the operation expired
+	 */
+	TIMEOUT;
+}
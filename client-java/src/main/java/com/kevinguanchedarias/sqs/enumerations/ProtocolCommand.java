@@ -0,0 +1,46 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.enumerations;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The constant lines of the SQS protocol, encoded once
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public enum ProtocolCommand {
+	START_CONFIG("\r\nSTART_CONFIG\r\n"), END_CONFIG("\r\nEND_CONFIG\r\n"), START_METADATA(
+			"\r\nSTART_METADATA\r\n"), END_METADATA("\r\nEND_METADATA\r\n"), START_MESSAGE(
+					"\r\nSTART_MESSAGE\r\n"), START_GET_MESSAGE("\r\nSTART_GET_MESSAGE\r\n"), END_GET_MESSAGE(
+							"\r\nEND_GET_MESSAGE\r\n"), RUN_QUIT("\r\nRUN QUIT\r\n"), RUN_PING("\r\nRUN PING\r\n");
+
+	private final ByteBuffer frame;
+
+	private ProtocolCommand(String line) {
+		frame = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+	}
+
+	/**
+	 * 
+	 * @return A read only view of the encoded line, ready to be written
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ByteBuffer frame() {
+		return frame.duplicate();
+	}
+
+	/**
+	 * 
+	 * @return The number of bytes of the line
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int length() {
+		return frame.capacity();
+	}
+}
@@ -0,0 +1,25 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.exception;
+
+/**
+ * Thrown when a body can't be compressed, or a compressed body can't be
+ * decoded
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class SqsBodyCodecException extends RuntimeException {
+	private static final long serialVersionUID = -6120978337407566135L;
+
+	/**
+	 * @param message
+	 * @param cause
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsBodyCodecException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,24 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.exception;
+
+/**
+ * Thrown when the client can't accept more pending messages
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class SqsBufferFullException extends RuntimeException {
+	private static final long serialVersionUID = -3185370476920611846L;
+
+	/**
+	 * @param message
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsBufferFullException(String message) {
+		super(message);
+	}
+
+}
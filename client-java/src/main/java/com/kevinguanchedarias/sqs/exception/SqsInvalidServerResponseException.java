@@ -25,6 +25,31 @@ public class SqsInvalidServerResponseException extends RuntimeException {
 		return new SqsInvalidServerResponseException("Server sent " + received + ", but expected: " + expected);
 	}
 
+	/**
+	 * Creates from a response that doesn't fit in the read buffer
+	 *
+	 * @param maxSize
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static SqsInvalidServerResponseException fromOversizedResponse(int maxSize) {
+		return new SqsInvalidServerResponseException(
+				"Server sent a response bigger than " + maxSize + " bytes without line terminator");
+	}
+
+	/**
+	 * Creates from a body that doesn't have the expected format
+	 *
+	 * @param expected What the body should be
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static SqsInvalidServerResponseException fromInvalidBody(String expected) {
+		return new SqsInvalidServerResponseException("Server sent a body that is not a valid " + expected);
+	}
+
 	private SqsInvalidServerResponseException(String message) {
 		super(message);
 	}
@@ -0,0 +1,25 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.exception;
+
+/**
+ * When the metrics of a client can't be published
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class SqsMetricsException extends RuntimeException {
+	private static final long serialVersionUID = 3410592213984670318L;
+
+	/**
+	 * @param message
+	 * @param cause
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsMetricsException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+}
@@ -0,0 +1,24 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.exception;
+
+/**
+ * Thrown when there is no client available in the pool after waiting
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class SqsPoolExhaustedException extends RuntimeException {
+	private static final long serialVersionUID = 2293315760151934861L;
+
+	/**
+	 * @param message
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsPoolExhaustedException(String message) {
+		super(message);
+	}
+
+}
@@ -0,0 +1,27 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.exception;
+
+/**
+ * When the I/O threads of a {@link com.kevinguanchedarias.sqs.SqsRuntime}
+ * can't be started or stopped
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class SqsRuntimeException extends RuntimeException {
+	private static final long serialVersionUID = 4410927385521983117L;
+
+	/**
+	 * 
+	 * @param message
+	 * @param cause
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsRuntimeException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+}
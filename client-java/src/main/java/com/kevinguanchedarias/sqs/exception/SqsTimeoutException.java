@@ -0,0 +1,29 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.exception;
+
+/**
+ * When a socket operation or a whole send or receive doesn't complete in time
+ * <br>
+ * Extends {@link SqsConnectionException}, as the connection is closed, unless
+ * the documentation of the operation says otherwise
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class SqsTimeoutException extends SqsConnectionException {
+	private static final long serialVersionUID = -2416840129503756912L;
+
+	/**
+	 * 
+	 * @param message
+	 * @param cause
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsTimeoutException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+}
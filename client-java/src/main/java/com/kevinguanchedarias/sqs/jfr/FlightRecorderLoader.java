@@ -0,0 +1,85 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.jfr;
+
+import com.kevinguanchedarias.sqs.ConnectionRole;
+
+/**
+ * Chooses the {@link SqsFlightRecorder} once, the JFR backed one is loaded by
+ * name, so its classes are never resolved in a JVM without jdk.jfr
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+final class FlightRecorderLoader {
+	static final SqsFlightRecorder INSTANCE = load();
+
+	private static final String JFR_EVENT_CLASS = "jdk.jfr.Event";
+	private static final String JFR_RECORDER_CLASS = "com.kevinguanchedarias.sqs.jfr.JfrSqsFlightRecorder";
+
+	private FlightRecorderLoader() {
+		// Not instantiable
+	}
+
+	private static SqsFlightRecorder load() {
+		try {
+			Class.forName(JFR_EVENT_CLASS, false, FlightRecorderLoader.class.getClassLoader());
+			return (SqsFlightRecorder) Class.forName(JFR_RECORDER_CLASS).getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+			return new NoopFlightRecorder();
+		}
+	}
+
+	/**
+	 * Used when the JVM has no jdk.jfr
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private static class NoopFlightRecorder implements SqsFlightRecorder {
+
+		@Override
+		public Object beginConnect() {
+			return null;
+		}
+
+		@Override
+		public void commitConnect(Object event, String host, int port, String queue, ConnectionRole role,
+				long connectNanos, long configNanos, boolean success) {
+			// Nothing records
+		}
+
+		@Override
+		public Object beginSend() {
+			return null;
+		}
+
+		@Override
+		public void commitSend(Object event, String queue, long bodySize, long metadataNanos, long bodyNanos,
+				boolean async, boolean success) {
+			// Nothing records
+		}
+
+		@Override
+		public Object beginReceive() {
+			return null;
+		}
+
+		@Override
+		public void commitReceive(Object event, String queue, long bodySize, long waitNanos, long ackNanos,
+				boolean acknowledged, boolean success) {
+			// Nothing records
+		}
+
+		@Override
+		public Object beginHandlerInvocation() {
+			return null;
+		}
+
+		@Override
+		public void commitHandlerInvocation(Object event, String queue, String handler, boolean success) {
+			// Nothing records
+		}
+	}
+}
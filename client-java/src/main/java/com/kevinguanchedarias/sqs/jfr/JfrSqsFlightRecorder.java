@@ -0,0 +1,181 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.jfr;
+
+import com.kevinguanchedarias.sqs.ConnectionRole;
+
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Emits the events with jdk.jfr, loaded by {@link FlightRecorderLoader} only
+ * when it is available <br>
+ * The events are registered on load, so they are listed in the recording
+ * settings before the first one is emitted
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+class JfrSqsFlightRecorder implements SqsFlightRecorder {
+
+	JfrSqsFlightRecorder() {
+		FlightRecorder.register(SqsConnectEvent.class);
+		FlightRecorder.register(SqsSendEvent.class);
+		FlightRecorder.register(SqsReceiveEvent.class);
+		FlightRecorder.register(SqsHandlerInvocationEvent.class);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.kevinguanchedarias.sqs.jfr.SqsFlightRecorder#beginConnect()
+	 */
+	@Override
+	public Object beginConnect() {
+		return begin(new SqsConnectEvent());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.kevinguanchedarias.sqs.jfr.SqsFlightRecorder#commitConnect(java.lang.
+	 * Object, java.lang.String, int, java.lang.String,
+	 * com.kevinguanchedarias.sqs.ConnectionRole, long, long, boolean)
+	 */
+	@Override
+	public void commitConnect(Object event, String host, int port, String queue, ConnectionRole role,
+			long connectNanos, long configNanos, boolean success) {
+		if (event != null) {
+			SqsConnectEvent connectEvent = (SqsConnectEvent) event;
+			connectEvent.end();
+			if (connectEvent.shouldCommit()) {
+				connectEvent.host = host;
+				connectEvent.port = port;
+				connectEvent.queue = queue;
+				connectEvent.role = role.name();
+				connectEvent.connectDuration = connectNanos;
+				connectEvent.configDuration = configNanos;
+				connectEvent.success = success;
+				connectEvent.commit();
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.kevinguanchedarias.sqs.jfr.SqsFlightRecorder#beginSend()
+	 */
+	@Override
+	public Object beginSend() {
+		return begin(new SqsSendEvent());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.kevinguanchedarias.sqs.jfr.SqsFlightRecorder#commitSend(java.lang.
+	 * Object, java.lang.String, long, long, long, boolean, boolean)
+	 */
+	@Override
+	public void commitSend(Object event, String queue, long bodySize, long metadataNanos, long bodyNanos,
+			boolean async, boolean success) {
+		if (event != null) {
+			SqsSendEvent sendEvent = (SqsSendEvent) event;
+			sendEvent.end();
+			if (sendEvent.shouldCommit()) {
+				sendEvent.queue = queue;
+				sendEvent.bodySize = bodySize;
+				sendEvent.metadataDuration = metadataNanos;
+				sendEvent.bodyDuration = bodyNanos;
+				sendEvent.async = async;
+				sendEvent.success = success;
+				sendEvent.commit();
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.kevinguanchedarias.sqs.jfr.SqsFlightRecorder#beginReceive()
+	 */
+	@Override
+	public Object beginReceive() {
+		return begin(new SqsReceiveEvent());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.kevinguanchedarias.sqs.jfr.SqsFlightRecorder#commitReceive(java.lang.
+	 * Object, java.lang.String, long, long, long, boolean, boolean)
+	 */
+	@Override
+	public void commitReceive(Object event, String queue, long bodySize, long waitNanos, long ackNanos,
+			boolean acknowledged, boolean success) {
+		if (event != null) {
+			SqsReceiveEvent receiveEvent = (SqsReceiveEvent) event;
+			receiveEvent.end();
+			if (receiveEvent.shouldCommit()) {
+				receiveEvent.queue = queue;
+				receiveEvent.bodySize = bodySize;
+				receiveEvent.waitDuration = waitNanos;
+				receiveEvent.ackDuration = ackNanos;
+				receiveEvent.acknowledged = acknowledged;
+				receiveEvent.success = success;
+				receiveEvent.commit();
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * com.kevinguanchedarias.sqs.jfr.SqsFlightRecorder#beginHandlerInvocation()
+	 */
+	@Override
+	public Object beginHandlerInvocation() {
+		return begin(new SqsHandlerInvocationEvent());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * com.kevinguanchedarias.sqs.jfr.SqsFlightRecorder#commitHandlerInvocation(java
+	 * .lang.Object, java.lang.String, java.lang.String, boolean)
+	 */
+	@Override
+	public void commitHandlerInvocation(Object event, String queue, String handler, boolean success) {
+		if (event != null) {
+			SqsHandlerInvocationEvent invocationEvent = (SqsHandlerInvocationEvent) event;
+			invocationEvent.end();
+			if (invocationEvent.shouldCommit()) {
+				invocationEvent.queue = queue;
+				invocationEvent.handler = handler;
+				invocationEvent.success = success;
+				invocationEvent.commit();
+			}
+		}
+	}
+
+	/**
+	 * The disabled events are not returned, so the JIT can remove their
+	 * allocation
+	 *
+	 * @param event
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private Event begin(Event event) {
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+}
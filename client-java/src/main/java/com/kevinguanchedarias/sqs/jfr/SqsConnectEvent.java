@@ -0,0 +1,52 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Opening a connection, until the server accepts the CONFIG section
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@Name(SqsConnectEvent.NAME_PREFIX + "Connect")
+@Label("SQS Connect")
+@Category(SqsConnectEvent.CATEGORY)
+@StackTrace(false)
+class SqsConnectEvent extends Event {
+	static final String NAME_PREFIX = "com.kevinguanchedarias.sqs.";
+	static final String CATEGORY = "SQS";
+
+	@Label("Host")
+	String host;
+
+	@Label("Port")
+	int port;
+
+	@Label("Queue")
+	String queue;
+
+	@Label("Role")
+	String role;
+
+	@Label("Connect Duration")
+	@Description("Time until the server said HELO")
+	@Timespan
+	long connectDuration;
+
+	@Label("Config Duration")
+	@Description("Time of the CONFIG section")
+	@Timespan
+	long configDuration;
+
+	@Label("Success")
+	boolean success;
+}
@@ -0,0 +1,97 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.jfr;
+
+import com.kevinguanchedarias.sqs.ConnectionRole;
+
+/**
+ * Emits the Java Flight Recorder events of the client <br>
+ * The begin methods return the started event, or null when the event is not
+ * enabled in any running recording, the commit methods ignore a null event, so
+ * when nothing is recording the cost is a null check <br>
+ * The events are passed as Object, so the client classes don't reference
+ * jdk.jfr, which is not present before Java 8u262
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public interface SqsFlightRecorder {
+
+	/**
+	 * 
+	 * @return The JFR backed recorder when jdk.jfr is available, else one that
+	 *         does nothing
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static SqsFlightRecorder getInstance() {
+		return FlightRecorderLoader.INSTANCE;
+	}
+
+	public Object beginConnect();
+
+	/**
+	 * 
+	 * @param event
+	 * @param host
+	 * @param port
+	 * @param queue
+	 * @param role
+	 * @param connectNanos Time until the server said HELO
+	 * @param configNanos  Time of the CONFIG section
+	 * @param success
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void commitConnect(Object event, String host, int port, String queue, ConnectionRole role,
+			long connectNanos, long configNanos, boolean success);
+
+	public Object beginSend();
+
+	/**
+	 * 
+	 * @param event
+	 * @param queue
+	 * @param bodySize      Encoded bytes of the body
+	 * @param metadataNanos Time of the METADATA section, 0 for async sends
+	 * @param bodyNanos     Time of the MESSAGE section, 0 for async sends
+	 * @param async         If true, the event lasts since the send was queued
+	 *                      until the server accepted the message
+	 * @param success
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void commitSend(Object event, String queue, long bodySize, long metadataNanos, long bodyNanos,
+			boolean async, boolean success);
+
+	public Object beginReceive();
+
+	/**
+	 * 
+	 * @param event
+	 * @param queue
+	 * @param bodySize     Bytes of the body, as received
+	 * @param waitNanos    Time waiting for the server to deliver the message
+	 * @param ackNanos     Time closing the GET_MESSAGE section
+	 * @param acknowledged
+	 * @param success
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void commitReceive(Object event, String queue, long bodySize, long waitNanos, long ackNanos,
+			boolean acknowledged, boolean success);
+
+	public Object beginHandlerInvocation();
+
+	/**
+	 * 
+	 * @param event
+	 * @param queue
+	 * @param handler Class of the handler
+	 * @param success false if the handler threw
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void commitHandlerInvocation(Object event, String queue, String handler, boolean success);
+}
@@ -0,0 +1,33 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Running the handler of a received message
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@Name(SqsConnectEvent.NAME_PREFIX + "HandlerInvocation")
+@Label("SQS Handler Invocation")
+@Category(SqsConnectEvent.CATEGORY)
+@StackTrace(false)
+class SqsHandlerInvocationEvent extends Event {
+	@Label("Queue")
+	String queue;
+
+	@Label("Handler")
+	String handler;
+
+	@Label("Success")
+	@Description("false if the handler threw")
+	boolean success;
+}
@@ -0,0 +1,48 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Receiving a message, since it is requested until the GET_MESSAGE section is closed
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@Name(SqsConnectEvent.NAME_PREFIX + "Receive")
+@Label("SQS Receive")
+@Category(SqsConnectEvent.CATEGORY)
+@StackTrace(false)
+class SqsReceiveEvent extends Event {
+	@Label("Queue")
+	String queue;
+
+	@Label("Body Size")
+	@DataAmount
+	long bodySize;
+
+	@Label("Wait Duration")
+	@Description("Time waiting for the server to deliver the message")
+	@Timespan
+	long waitDuration;
+
+	@Label("Ack Duration")
+	@Description("Time closing the GET_MESSAGE section")
+	@Timespan
+	long ackDuration;
+
+	@Label("Acknowledged")
+	boolean acknowledged;
+
+	@Label("Success")
+	boolean success;
+}
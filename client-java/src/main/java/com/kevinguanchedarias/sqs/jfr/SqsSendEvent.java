@@ -0,0 +1,49 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Sending a message, until the server accepts it
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@Name(SqsConnectEvent.NAME_PREFIX + "Send")
+@Label("SQS Send")
+@Category(SqsConnectEvent.CATEGORY)
+@StackTrace(false)
+class SqsSendEvent extends Event {
+	@Label("Queue")
+	String queue;
+
+	@Label("Body Size")
+	@DataAmount
+	long bodySize;
+
+	@Label("Metadata Duration")
+	@Description("Time of the METADATA section, 0 for async sends")
+	@Timespan
+	long metadataDuration;
+
+	@Label("Body Duration")
+	@Description("Time of the MESSAGE section, 0 for async sends")
+	@Timespan
+	long bodyDuration;
+
+	@Label("Async")
+	@Description("The event lasts since the send was queued, and ends in the thread that completed the I/O")
+	boolean async;
+
+	@Label("Success")
+	boolean success;
+}
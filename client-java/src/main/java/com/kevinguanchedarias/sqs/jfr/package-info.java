@@ -0,0 +1,8 @@
+/**
+ * Has the Java Flight Recorder events of the client, the classes that use
+ * jdk.jfr are only loaded when the JVM has it
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+package com.kevinguanchedarias.sqs.jfr;
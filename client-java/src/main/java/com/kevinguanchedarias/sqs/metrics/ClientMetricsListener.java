@@ -0,0 +1,50 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.metrics;
+
+import com.kevinguanchedarias.sqs.enumerations.ClientPhase;
+import com.kevinguanchedarias.sqs.enumerations.PhaseOutcome;
+
+/**
+ * Invoked around each phase of the protocol run by the synchronous operations
+ * of a client, in the thread that runs them <br>
+ * The async sends, the batches and the prefetch pipeline many messages
+ * together, so they are not split in phases <br>
+ * <b>NOTICE:</b> Invoked in the hot path, implementations must be fast, and
+ * must not throw
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public interface ClientMetricsListener {
+
+	/**
+	 * Invoked before the phase starts, does nothing by default
+	 * 
+	 * @param phase
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public default void onPhaseStarted(ClientPhase phase) {
+		// Only the durations are relevant by default
+	}
+
+	/**
+	 * Invoked when the phase finishes, successfully or not
+	 * 
+	 * @param phase
+	 * @param durationNanos
+	 * @param bytesOut      Bytes written to the socket during the phase, the
+	 *                      pipelined sends write the whole message in the
+	 *                      METADATA phase
+	 * @param bytesIn       Bytes read from the socket during the phase, the
+	 *                      responses of a phase may have been read by the
+	 *                      previous one, as they arrive together
+	 * @param outcome
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void onPhaseCompleted(ClientPhase phase, long durationNanos, long bytesOut, long bytesIn,
+			PhaseOutcome outcome);
+}
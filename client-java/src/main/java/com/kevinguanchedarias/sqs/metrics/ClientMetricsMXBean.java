@@ -0,0 +1,46 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.metrics;
+
+/**
+ * Management interface of {@link HistogramMetricsRecorder}, published with
+ * {@link HistogramMetricsRecorder#registerMBean(String)}
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public interface ClientMetricsMXBean {
+
+	/**
+	 * 
+	 * @return A snapshot of each phase
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public PhaseMetrics[] getPhases();
+
+	/**
+	 * 
+	 * @return The failed phases, of any kind
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getErrors();
+
+	/**
+	 * 
+	 * @return The seconds since the recorder was created or reset
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public double getElapsedSeconds();
+
+	/**
+	 * Starts a new measure window
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void reset();
+}
@@ -0,0 +1,220 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.kevinguanchedarias.sqs.enumerations.ClientPhase;
+import com.kevinguanchedarias.sqs.enumerations.PhaseOutcome;
+import com.kevinguanchedarias.sqs.exception.SqsMetricsException;
+
+/**
+ * Default {@link ClientMetricsListener}, records the latency of each phase in
+ * a lock free histogram, and counts the errors and the bytes <br>
+ * Use an instance per client, so the measures are per client <br>
+ * Example: <br>
+ * <code>
+ * HistogramMetricsRecorder recorder = new HistogramMetricsRecorder();<br>
+ * producer.setMetricsListener(recorder);<br>
+ * recorder.registerMBean("orders-producer");
+ * </code>
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class HistogramMetricsRecorder implements ClientMetricsListener, ClientMetricsMXBean {
+	public static final String JMX_DOMAIN = "com.kevinguanchedarias.sqs";
+
+	private static final ClientPhase[] PHASES = ClientPhase.values();
+	private static final PhaseOutcome[] OUTCOMES = PhaseOutcome.values();
+
+	private final PhaseRecorder[] recorders = new PhaseRecorder[PHASES.length];
+	private volatile long startNanos = System.nanoTime();
+	private ObjectName registeredName;
+
+	/**
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public HistogramMetricsRecorder() {
+		for (int i = 0; i < recorders.length; i++) {
+			recorders[i] = new PhaseRecorder();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * com.kevinguanchedarias.sqs.metrics.ClientMetricsListener#onPhaseCompleted(
+	 * com.kevinguanchedarias.sqs.enumerations.ClientPhase, long, long, long,
+	 * com.kevinguanchedarias.sqs.enumerations.PhaseOutcome)
+	 */
+	@Override
+	public void onPhaseCompleted(ClientPhase phase, long durationNanos, long bytesOut, long bytesIn,
+			PhaseOutcome outcome) {
+		PhaseRecorder recorder = recorders[phase.ordinal()];
+		if (outcome == PhaseOutcome.SUCCESS) {
+			recorder.latencies.record(durationNanos);
+		} else {
+			recorder.outcomes.incrementAndGet(outcome.ordinal());
+		}
+		if (bytesOut != 0) {
+			recorder.bytesOut.addAndGet(bytesOut);
+		}
+		if (bytesIn != 0) {
+			recorder.bytesIn.addAndGet(bytesIn);
+		}
+	}
+
+	/**
+	 *
+	 * @param phase
+	 * @return A snapshot of the measures of the phase
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public PhaseMetrics getSnapshot(ClientPhase phase) {
+		PhaseRecorder recorder = recorders[phase.ordinal()];
+		LatencyHistogram latencies = recorder.latencies;
+		long count = latencies.getTotalCount();
+		double elapsedSeconds = getElapsedSeconds();
+		return new PhaseMetrics(phase, count, recorder.outcomes.get(PhaseOutcome.INVALID_RESPONSE.ordinal()),
+				recorder.outcomes.get(PhaseOutcome.CONNECTION_FAILURE.ordinal()),
+				recorder.outcomes.get(PhaseOutcome.TIMEOUT.ordinal()),
+				elapsedSeconds > 0 ? count / elapsedSeconds : 0, latencies.getValueAtPercentile(50),
+				latencies.getValueAtPercentile(99), latencies.getValueAtPercentile(99.9), latencies.getMax(),
+				latencies.getMean(), recorder.bytesOut.get(), recorder.bytesIn.get());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.kevinguanchedarias.sqs.metrics.ClientMetricsMXBean#getPhases()
+	 */
+	@Override
+	public PhaseMetrics[] getPhases() {
+		PhaseMetrics[] retVal = new PhaseMetrics[PHASES.length];
+		for (int i = 0; i < PHASES.length; i++) {
+			retVal[i] = getSnapshot(PHASES[i]);
+		}
+		return retVal;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.kevinguanchedarias.sqs.metrics.ClientMetricsMXBean#getErrors()
+	 */
+	@Override
+	public long getErrors() {
+		long retVal = 0;
+		for (PhaseRecorder recorder : recorders) {
+			for (PhaseOutcome outcome : OUTCOMES) {
+				if (outcome != PhaseOutcome.SUCCESS) {
+					retVal += recorder.outcomes.get(outcome.ordinal());
+				}
+			}
+		}
+		return retVal;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * com.kevinguanchedarias.sqs.metrics.ClientMetricsMXBean#getElapsedSeconds()
+	 */
+	@Override
+	public double getElapsedSeconds() {
+		return (double) (System.nanoTime() - startNanos) / TimeUnit.SECONDS.toNanos(1);
+	}
+
+	/**
+	 * Starts a new measure window, the phases that complete while resetting may
+	 * be partially kept
+	 *
+	 * @see com.kevinguanchedarias.sqs.metrics.ClientMetricsMXBean#reset()
+	 */
+	@Override
+	public void reset() {
+		for (PhaseRecorder recorder : recorders) {
+			recorder.latencies.reset();
+			for (int i = 0; i < OUTCOMES.length; i++) {
+				recorder.outcomes.set(i, 0);
+			}
+			recorder.bytesOut.set(0);
+			recorder.bytesIn.set(0);
+		}
+		startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Publishes the recorder in the platform MBean server, as
+	 * <i>com.kevinguanchedarias.sqs:type=ClientMetrics,name=clientName</i>
+	 *
+	 * @param clientName Must be unique in the JVM
+	 * @return The name of the MBean
+	 * @throws SqsMetricsException If the name is in use, or the MBean server
+	 *                             rejects it
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public synchronized ObjectName registerMBean(String clientName) {
+		if (registeredName != null) {
+			throw new SqsMetricsException("The recorder is already registered as " + registeredName, null);
+		}
+		try {
+			ObjectName name = new ObjectName(
+					JMX_DOMAIN + ":type=ClientMetrics,name=" + ObjectName.quote(clientName));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+			registeredName = name;
+			return name;
+		} catch (JMException e) {
+			throw new SqsMetricsException("Couldn't register the metrics of " + clientName, e);
+		}
+	}
+
+	/**
+	 * Removes the recorder from the platform MBean server, if registered
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public synchronized void unregisterMBean() {
+		if (registeredName != null) {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			try {
+				if (server.isRegistered(registeredName)) {
+					server.unregisterMBean(registeredName);
+				}
+			} catch (JMException e) {
+				throw new SqsMetricsException("Couldn't unregister " + registeredName, e);
+			} finally {
+				registeredName = null;
+			}
+		}
+	}
+
+	/**
+	 * The measures of a single phase
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private static class PhaseRecorder {
+		private final LatencyHistogram latencies = new LatencyHistogram();
+		private final AtomicLongArray outcomes = new AtomicLongArray(OUTCOMES.length);
+		private final AtomicLong bytesOut = new AtomicLong();
+		private final AtomicLong bytesIn = new AtomicLong();
+	}
+}
@@ -0,0 +1,117 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram of positive values, with log-linear buckets like
+ * HdrHistogram <br>
+ * Each power of two is split in {@link #SUB_BUCKET_HALF_COUNT} linear buckets,
+ * so the value reported for a percentile is at most 1/32 (3%) above the real
+ * one, for any magnitude, with a fixed size array
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+final class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+	private static final int BUCKETS = indexOf(Long.MAX_VALUE) + 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong totalCount = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 *
+	 * @param value Negative values are recorded as 0
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void record(long value) {
+		long positive = Math.max(0, value);
+		counts.incrementAndGet(indexOf(positive));
+		sum.addAndGet(positive);
+		long currentMax;
+		while (positive > (currentMax = max.get()) && !max.compareAndSet(currentMax, positive)) {
+			// Another thread changed the max, check again
+		}
+		totalCount.incrementAndGet();
+	}
+
+	long getTotalCount() {
+		return totalCount.get();
+	}
+
+	long getMax() {
+		return max.get();
+	}
+
+	double getMean() {
+		long count = totalCount.get();
+		return count == 0 ? 0 : (double) sum.get() / count;
+	}
+
+	/**
+	 *
+	 * @param percentile Between 0 and 100
+	 * @return The highest value that falls in the same bucket than the value at
+	 *         the percentile, 0 if nothing has been recorded
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	long getValueAtPercentile(double percentile) {
+		long count = totalCount.get();
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+		long accumulated = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			accumulated += counts.get(i);
+			if (accumulated >= rank) {
+				return Math.min(highestEquivalentValue(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * Not atomic, values recorded while resetting may be partially kept
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		totalCount.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+
+	private static int indexOf(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+		return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift)
+				- SUB_BUCKET_HALF_COUNT;
+	}
+
+	private static long highestEquivalentValue(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int relative = index - SUB_BUCKET_COUNT;
+		int shift = relative / SUB_BUCKET_HALF_COUNT + 1;
+		long lowest = (long) (relative % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+}
@@ -0,0 +1,207 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.metrics;
+
+import com.kevinguanchedarias.sqs.enumerations.ClientPhase;
+
+/**
+ * Snapshot of the measures of a phase, taken by
+ * {@link HistogramMetricsRecorder} <br>
+ * The latencies are of the successful runs of the phase
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class PhaseMetrics {
+	private final ClientPhase phase;
+	private final long count;
+	private final long invalidResponses;
+	private final long connectionFailures;
+	private final long timeouts;
+	private final double throughput;
+	private final long p50Nanos;
+	private final long p99Nanos;
+	private final long p999Nanos;
+	private final long maxNanos;
+	private final double meanNanos;
+	private final long bytesOut;
+	private final long bytesIn;
+
+	/**
+	 *
+	 * @param phase
+	 * @param count              Successful runs
+	 * @param invalidResponses   Runs that failed because of the server response
+	 * @param connectionFailures Runs that failed because of the connection
+	 * @param timeouts           Runs that didn't complete in time
+	 * @param throughput         Successful runs per second
+	 * @param p50Nanos
+	 * @param p99Nanos
+	 * @param p999Nanos
+	 * @param maxNanos
+	 * @param meanNanos
+	 * @param bytesOut
+	 * @param bytesIn
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public PhaseMetrics(ClientPhase phase, long count, long invalidResponses, long connectionFailures,
+			long timeouts, double throughput, long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos, double meanNanos,
+			long bytesOut, long bytesIn) {
+		this.phase = phase;
+		this.count = count;
+		this.invalidResponses = invalidResponses;
+		this.connectionFailures = connectionFailures;
+		this.timeouts = timeouts;
+		this.throughput = throughput;
+		this.p50Nanos = p50Nanos;
+		this.p99Nanos = p99Nanos;
+		this.p999Nanos = p999Nanos;
+		this.maxNanos = maxNanos;
+		this.meanNanos = meanNanos;
+		this.bytesOut = bytesOut;
+		this.bytesIn = bytesIn;
+	}
+
+	/**
+	 * @return the phase
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ClientPhase getPhase() {
+		return phase;
+	}
+
+	/**
+	 * @return the successful runs
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the invalidResponses
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getInvalidResponses() {
+		return invalidResponses;
+	}
+
+	/**
+	 * @return the connectionFailures
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getConnectionFailures() {
+		return connectionFailures;
+	}
+
+	/**
+	 * @return the timeouts
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getTimeouts() {
+		return timeouts;
+	}
+
+	/**
+	 *
+	 * @return The runs that failed, for any reason
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getErrors() {
+		return invalidResponses + connectionFailures + timeouts;
+	}
+
+	/**
+	 * @return the successful runs per second
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public double getThroughput() {
+		return throughput;
+	}
+
+	/**
+	 * @return the p50Nanos
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getP50Nanos() {
+		return p50Nanos;
+	}
+
+	/**
+	 * @return the p99Nanos
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getP99Nanos() {
+		return p99Nanos;
+	}
+
+	/**
+	 * @return the p999Nanos
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getP999Nanos() {
+		return p999Nanos;
+	}
+
+	/**
+	 * @return the maxNanos
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+	/**
+	 * @return the meanNanos
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public double getMeanNanos() {
+		return meanNanos;
+	}
+
+	/**
+	 * @return the bytesOut
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getBytesOut() {
+		return bytesOut;
+	}
+
+	/**
+	 * @return the bytesIn
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getBytesIn() {
+		return bytesIn;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "PhaseMetrics [phase=" + phase + ", count=" + count + ", invalidResponses=" + invalidResponses
+				+ ", connectionFailures=" + connectionFailures + ", timeouts=" + timeouts + ", throughput="
+				+ throughput + ", p50Nanos=" + p50Nanos + ", p99Nanos=" + p99Nanos + ", p999Nanos=" + p999Nanos
+				+ ", maxNanos=" + maxNanos + ", meanNanos=" + meanNanos + ", bytesOut=" + bytesOut + ", bytesIn="
+				+ bytesIn + "]";
+	}
+}
@@ -0,0 +1,7 @@
+/**
+ * Has the classes used to measure where the time goes inside the client
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+package com.kevinguanchedarias.sqs.metrics;
@@ -3,12 +3,40 @@
  */
 package com.kevinguanchedarias.sqs.producer;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.kevinguanchedarias.sqs.AbstractClient;
 import com.kevinguanchedarias.sqs.ConnectionRole;
 import com.kevinguanchedarias.sqs.Message;
+import com.kevinguanchedarias.sqs.SqsRuntime;
+import com.kevinguanchedarias.sqs.codec.BodyCodec;
+import com.kevinguanchedarias.sqs.codec.BodyEnvelope;
+import com.kevinguanchedarias.sqs.enumerations.ClientPhase;
+import com.kevinguanchedarias.sqs.enumerations.ConnectionState;
+import com.kevinguanchedarias.sqs.enumerations.ProtocolCommand;
+import com.kevinguanchedarias.sqs.exception.SqsBufferFullException;
+import com.kevinguanchedarias.sqs.exception.SqsConnectionException;
+import com.kevinguanchedarias.sqs.exception.SqsInvalidServerResponseException;
+import com.kevinguanchedarias.sqs.exception.SqsRuntimeException;
+import com.kevinguanchedarias.sqs.protocol.MessageIdEnvelope;
+import com.kevinguanchedarias.sqs.protocol.SqsProtocolEncoder;
+import com.kevinguanchedarias.sqs.protocol.StreamChunk;
 
 /**
  * 
@@ -16,6 +44,42 @@ import com.kevinguanchedarias.sqs.Message;
  * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
  */
 public abstract class AbstractProducer<T extends Serializable> extends AbstractClient implements Producer<T> {
+	protected static final int DEFAULT_MAX_IN_FLIGHT_SENDS = 1024;
+	protected static final int MESSAGE_FRAME_COUNT = 5;
+	protected static final int DEFAULT_STREAM_CHUNK_BYTES = 256 * 1024;
+	static final int SET_FRAME_INDEX = 1;
+	private static final int START_MESSAGE_FRAME_INDEX = 3;
+	static final int BODY_FRAME_INDEX = 4;
+
+	private boolean pipelined;
+	private volatile BodyCodec bodyCodec;
+	private int minEncodedBodyBytes;
+	private int streamChunkBytes = DEFAULT_STREAM_CHUNK_BYTES;
+	private volatile boolean messageIds;
+	private int maxInFlightSends = DEFAULT_MAX_IN_FLIGHT_SENDS;
+	private final Queue<PendingSend> pendingSends = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger inFlightSends = new AtomicInteger();
+	private final AtomicBoolean sending = new AtomicBoolean();
+
+	/**
+	 * Uses the default runtime
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected AbstractProducer() {
+		super();
+	}
+
+	/**
+	 * 
+	 * @param runtime
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected AbstractProducer(SqsRuntime runtime) {
+		super(runtime);
+	}
 
 	/**
 	 * Method to get the current body text
@@ -38,6 +102,139 @@ public abstract class AbstractProducer<T extends Serializable> extends AbstractC
 		doConnect(host, port, queue, ConnectionRole.PRODUCER);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.kevinguanchedarias.sqs.Client#connectAsync(java.lang.String, int,
+	 * java.lang.String)
+	 */
+	@Override
+	public CompletableFuture<Void> connectAsync(String host, int port, String queue) {
+		return doConnectAsync(host, port, queue, ConnectionRole.PRODUCER);
+	}
+
+	/**
+	 * When enabled, the metadata and the message sections are sent in a single
+	 * write, and the responses are validated after, instead of waiting the
+	 * response of each line <br>
+	 * Only takes effect when the server announces the
+	 * {@link #PIPELINING_CAPABILITY}, see {@link #isServerPipelining()}
+	 * 
+	 * @param pipelined
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setPipelined(boolean pipelined) {
+		this.pipelined = pipelined;
+	}
+
+	/**
+	 * 
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isPipelined() {
+		return pipelined;
+	}
+
+	/**
+	 * Compresses the bodies of at least <i>minBodyBytes</i> with the codec,
+	 * wrapping them in a {@link BodyEnvelope}, the consumers decode them
+	 * transparently <br>
+	 * A body is sent as is when the envelope is not smaller
+	 * 
+	 * @param codec        null disables the compression
+	 * @param minBodyBytes The smaller bodies are not worth compressing
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setBodyCodec(BodyCodec codec, int minBodyBytes) {
+		minEncodedBodyBytes = minBodyBytes;
+		bodyCodec = codec;
+	}
+
+	/**
+	 * 
+	 * @return null if the bodies are not compressed
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public BodyCodec getBodyCodec() {
+		return bodyCodec;
+	}
+
+	/**
+	 * Assigns a random 64 bit id to each message, carried in the body inside a
+	 * {@link MessageIdEnvelope}, the consumers remove it transparently, and
+	 * drop the messages already received when
+	 * {@link com.kevinguanchedarias.sqs.consumer.AbstractConsumer#setDedupe(com.kevinguanchedarias.sqs.consumer.DedupeOptions)}
+	 * is enabled <br>
+	 * The id is assigned when the message is encoded, so a message sent again
+	 * by the application gets a new one, while the resends of an
+	 * {@link OutboxProducer} keep it
+	 * 
+	 * @param messageIds
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setMessageIds(boolean messageIds) {
+		this.messageIds = messageIds;
+	}
+
+	/**
+	 * 
+	 * @return true if the messages are sent with an id
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isMessageIds() {
+		return messageIds;
+	}
+
+	/**
+	 * Size of the data of each chunk sent by
+	 * {@link #sendMessageSync(InputStream)}, by default 256KB, encoded as
+	 * base64 in the body, so it must be below three quarters of the read buffer
+	 * of the consumers
+	 * 
+	 * @param streamChunkBytes
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setStreamChunkBytes(int streamChunkBytes) {
+		if (streamChunkBytes < 1) {
+			throw new IllegalArgumentException("streamChunkBytes must be at least 1");
+		}
+		this.streamChunkBytes = streamChunkBytes;
+	}
+
+	/**
+	 * Max number of messages sent with {@link #sendMessageAsync(Message)} that
+	 * can be waiting for the server, when reached the returned future fails
+	 * with {@link SqsBufferFullException}
+	 * 
+	 * @param maxInFlightSends
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void setMaxInFlightSends(int maxInFlightSends) {
+		if (maxInFlightSends < 1) {
+			throw new IllegalArgumentException("maxInFlightSends must be at least 1");
+		}
+		this.maxInFlightSends = maxInFlightSends;
+	}
+
+	/**
+	 * 
+	 * @return The number of async sends that have not completed yet
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getInFlightSends() {
+		return inFlightSends.get();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -46,21 +243,500 @@ public abstract class AbstractProducer<T extends Serializable> extends AbstractC
 	 */
 	@Override
 	public void sendMessageSync(Message<T> message) {
-		String deliverString = message.getDeliverAfter() != null ? "SET DELIVER_TIMESTAMP=" + message.getDeliverAfter()
-				: "SET DELIVER_DATE=" + message.getDeliverDate().toInstant();
+		sendMessageSync(message, getClientConfig().getOperationTimeoutMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * The connection is closed on timeout, as the server may answer later
+	 * 
+	 * @see com.kevinguanchedarias.sqs.producer.Producer#sendMessageSync(com.kevinguanchedarias.sqs.Message,
+	 *      long, java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public void sendMessageSync(Message<T> message, long timeout, TimeUnit unit) {
+		doSendSync(message, null, timeout, unit);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * com.kevinguanchedarias.sqs.producer.Producer#sendMessageAsync(com.
+	 * kevinguanchedarias.sqs.Message)
+	 */
+	@Override
+	public CompletableFuture<Void> sendMessageAsync(Message<T> message) {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		if (inFlightSends.incrementAndGet() > maxInFlightSends) {
+			inFlightSends.decrementAndGet();
+			future.completeExceptionally(
+					new SqsBufferFullException("There are already " + maxInFlightSends + " sends in flight"));
+		} else {
+			try {
+				Object event = flightRecorder.beginSend();
+				ByteBuffer[] frames = encodeMessage(message);
+				if (event != null) {
+					String queue = getQueue();
+					long bodySize = encodedBodySize(frames);
+					future.whenComplete((result, exception) -> flightRecorder.commitSend(event, queue, bodySize,
+							0, 0, true, exception == null));
+				}
+				pendingSends.add(new PendingSend(frames, Collections.singletonList(future),
+						pipelined && isServerPipelining()));
+				sendNextAsync();
+			} catch (RuntimeException e) {
+				inFlightSends.decrementAndGet();
+				future.completeExceptionally(e);
+			}
+		}
+		return future;
+	}
+
+	/**
+	 * Sends a body of any size, reading it in chunks, each chunk is sent as a
+	 * message, in order, with a group id, so the heap used doesn't depend on
+	 * the size of the body <br>
+	 * Receive it with
+	 * {@link com.kevinguanchedarias.sqs.consumer.AbstractConsumer#receiveStreamSync()},
+	 * the chunks are delivered immediately, and are not compressed by the body
+	 * codec <br>
+	 * If a chunk fails, the consumer drops the chunks sent before
+	 * 
+	 * @param body Not closed by this method
+	 * @return The group id of the chunks
+	 * @throws SqsRuntimeException When the body can't be read
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String sendMessageSync(InputStream body) {
+		String groupId = UUID.randomUUID().toString();
+		byte[] chunk = new byte[streamChunkBytes];
+		long sequence = 0;
+		boolean last;
 		try {
-			writeSync("\r\nSTART_METADATA\r\n");
-			expectResponseSync(OK_RESPONSE);
-			writeSync(deliverString + ";\r\n");
-			expectResponseToContainSync(OK_WITH_VAL);
-			writeSync("\r\nEND_METADATA\r\n");
-			expectResponseSync(OK_RESPONSE);
-			writeSync("\r\nSTART_MESSAGE\r\n");
-			expectResponseSync(OK_RESPONSE);
-			writeSync(createMessageBody(message) + "\r\nEND_MESSAGE\r\n");
-			expectResponseSync(OK_RESPONSE);
+			do {
+				int size = readChunk(body, chunk);
+				last = size < chunk.length;
+				SqsProtocolEncoder chunkEncoder = getRuntime().getThreadEncoder();
+				chunkEncoder.begin();
+				ByteBuffer[] frames = createMessageFrames(chunkEncoder.encodeSet("DELIVER_TIMESTAMP", 0L),
+						StreamChunk.encode(chunkEncoder, groupId, sequence++, last, chunk, 0, size));
+				doSendSync(null, frames, getClientConfig().getOperationTimeoutMillis(), TimeUnit.MILLISECONDS);
+			} while (!last);
+		} catch (IOException e) {
+			throw new SqsRuntimeException("Couldn't read the body of the stream", e);
+		}
+		return groupId;
+	}
+
+	/**
+	 * Sends an already encoded message, waiting for the server to accept it
+	 * 
+	 * @param frames  Built with {@link #createMessageFrames(ByteBuffer, ByteBuffer)}
+	 * @param timeout 0 or less means no timeout
+	 * @param unit
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void sendEncodedSync(ByteBuffer[] frames, long timeout, TimeUnit unit) {
+		doSendSync(null, frames, timeout, unit);
+	}
+
+	/**
+	 * Creates the bytes of the lines required to produce the message, owned by
+	 * the caller, so they can be written later from any thread <br>
+	 * The constant lines are shared read only buffers, the variable ones are
+	 * encoded with an encoder of the current thread, and then copied
+	 * 
+	 * @param message
+	 * @return {@link #MESSAGE_FRAME_COUNT} buffers
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	ByteBuffer[] encodeMessage(Message<T> message) {
+		ByteBuffer[] frames = createMessageFrames(message, getRuntime().getThreadEncoder());
+		frames[SET_FRAME_INDEX] = SqsProtocolEncoder.copyOf(frames[SET_FRAME_INDEX]);
+		frames[BODY_FRAME_INDEX] = SqsProtocolEncoder.copyOf(frames[BODY_FRAME_INDEX]);
+		return frames;
+	}
+
+	/**
+	 * Like {@link #encodeMessage(Message)}, but the variable lines are views of
+	 * the encoder of the current thread, valid until its next use
+	 * 
+	 * @param message
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	ByteBuffer[] encodeMessageView(Message<T> message) {
+		return createMessageFrames(message, getRuntime().getThreadEncoder());
+	}
+
+	/**
+	 * Queues already encoded messages to be written back to back in a single
+	 * write, after the sends already queued, each future completes when the
+	 * server accepts its message <br>
+	 * Pipelined regardless of {@link #isPipelined()}, when the server announces
+	 * it
+	 * 
+	 * @param buffers The result of {@link #encodeMessage(Message)} for each
+	 *                message, concatenated
+	 * @param futures One per message
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void sendBatchAsync(ByteBuffer[] buffers, List<CompletableFuture<Void>> futures) {
+		inFlightSends.incrementAndGet();
+		pendingSends.add(new PendingSend(buffers, futures, isServerPipelining()));
+		sendNextAsync();
+	}
+
+	/**
+	 * Quits gracefully when the connection is alive, else closes the socket,
+	 * never throws
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void quitQuietly() {
+		if (isAlive()) {
+			try {
+				quit();
+			} catch (RuntimeException e) {
+				closeQuietly();
+			}
+		} else {
+			closeQuietly();
+		}
+	}
+
+	/**
+	 * Creates the lines that have to be sent to the server to produce the
+	 * message, the server responds to each of them <br>
+	 * The variable lines are views of the encoder, valid until its next use
+	 * 
+	 * @param message
+	 * @param target  Encoder owned by the current thread
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected ByteBuffer[] createMessageFrames(Message<T> message, SqsProtocolEncoder target) {
+		target.begin();
+		long deliverAfterMillis = message.getDeliverAfterMillis();
+		ByteBuffer deliverFrame;
+		if (deliverAfterMillis != Message.NO_TIME) {
+			deliverFrame = target.encodeSet("DELIVER_TIMESTAMP", deliverAfterMillis);
+		} else if (message.getDeliverDateMillis() != Message.NO_TIME) {
+			deliverFrame = target.encodeSet("DELIVER_DATE",
+					Instant.ofEpochMilli(message.getDeliverDateMillis()).toString());
+		} else {
+			throw new IllegalArgumentException("The message has neither deliverDate nor deliverDelay");
+		}
+		ByteBuffer bodyFrame = createMessageBodyFrame(message, target);
+		if (messageIds) {
+			bodyFrame = MessageIdEnvelope.wrap(ThreadLocalRandom.current().nextLong(), bodyFrame, target);
+		}
+		BodyCodec codec = bodyCodec;
+		if (codec != null
+				&& bodyFrame.remaining() - SqsProtocolEncoder.END_MESSAGE_SUFFIX_LENGTH >= minEncodedBodyBytes) {
+			bodyFrame = BodyEnvelope.wrap(codec, bodyFrame, target);
+		}
+		return createMessageFrames(deliverFrame, bodyFrame);
+	}
+
+	/**
+	 * 
+	 * @param deliverFrame The SET line of the delivery time
+	 * @param bodyFrame    The body followed by the END_MESSAGE line
+	 * @return The {@link #MESSAGE_FRAME_COUNT} lines of a message
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	static ByteBuffer[] createMessageFrames(ByteBuffer deliverFrame, ByteBuffer bodyFrame) {
+		return new ByteBuffer[] { ProtocolCommand.START_METADATA.frame(), deliverFrame,
+				ProtocolCommand.END_METADATA.frame(), ProtocolCommand.START_MESSAGE.frame(), bodyFrame };
+	}
+
+	/**
+	 * Creates the bytes of the body followed by the END_MESSAGE line, by default
+	 * encodes {@link #createMessageBody(Message)}, override it to write the body
+	 * directly as bytes
+	 * 
+	 * @param message
+	 * @param target  Encoder owned by the current thread, the returned buffer
+	 *                should be one of its views
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected ByteBuffer createMessageBodyFrame(Message<T> message, SqsProtocolEncoder target) {
+		return target.encodeMessageBody(createMessageBody(message));
+	}
+
+	/**
+	 * Writes all the frames at once, and then validates the responses in order
+	 * <br>
+	 * If one response is not valid, the connection is marked as not connected,
+	 * as the server state is unknown
+	 * 
+	 * @param frames
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	protected void sendFramesPipelinedSync(ByteBuffer[] frames) throws InterruptedException, ExecutionException {
+		beginPhase(ClientPhase.SEND_METADATA);
+		writeSync(frames);
+		try {
+			for (int i = 0; i < frames.length; i++) {
+				beginBodyPhaseIfRequired(i);
+				expectFrameResponseSync(i);
+			}
+			endPhase();
+		} catch (SqsInvalidServerResponseException e) {
+			connectionState = ConnectionState.NOT_CONNECTED;
+			throw e;
+		}
+	}
+
+	private void doSendSync(Message<T> message, ByteBuffer[] encodedFrames, long timeout, TimeUnit unit) {
+		Object event = startFlightEvent(flightRecorder.beginSend());
+		long bodySize = 0;
+		boolean success = false;
+		boolean acquired = false;
+		startDeadline(timeout, unit);
+		try {
+			acquireConnection();
+			acquired = true;
+			ByteBuffer[] frames = encodedFrames == null ? createMessageFrames(message, encoder) : encodedFrames;
+			bodySize = encodedBodySize(frames);
+			if (pipelined && isServerPipelining()) {
+				sendFramesPipelinedSync(frames);
+			} else {
+				beginPhase(ClientPhase.SEND_METADATA);
+				for (int i = 0; i < frames.length; i++) {
+					beginBodyPhaseIfRequired(i);
+					writeSync(frames[i]);
+					expectFrameResponseSync(i);
+				}
+				endPhase();
+			}
+			success = true;
 		} catch (InterruptedException | ExecutionException e) {
+			failPhase(e);
 			commonExceptionHandler(e);
+		} catch (RuntimeException e) {
+			failPhase(e);
+			throw e;
+		} finally {
+			clearDeadline();
+			if (acquired) {
+				releaseConnection();
+			}
+			if (event != null) {
+				flightRecorder.commitSend(finishFlightEvent(), getQueue(), bodySize,
+						getPhaseNanos(ClientPhase.SEND_METADATA), getPhaseNanos(ClientPhase.SEND_BODY), false,
+						success);
+			}
+		}
+	}
+
+	/**
+	 * 
+	 * @param source
+	 * @param target
+	 * @return The bytes read, less than the size of the target only at the end
+	 *         of the source
+	 * @throws IOException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private static int readChunk(InputStream source, byte[] target) throws IOException {
+		int size = 0;
+		int read;
+		while (size < target.length && (read = source.read(target, size, target.length - size)) != -1) {
+			size += read;
+		}
+		return size;
+	}
+
+	private long encodedBodySize(ByteBuffer[] frames) {
+		return frames[BODY_FRAME_INDEX].remaining() - (long) SqsProtocolEncoder.END_MESSAGE_SUFFIX_LENGTH;
+	}
+
+	/**
+	 * The METADATA phase ends when its last response arrives, as the pipelined
+	 * sends write all the frames at once
+	 * 
+	 * @param frameIndex
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private void beginBodyPhaseIfRequired(int frameIndex) {
+		if (frameIndex == START_MESSAGE_FRAME_INDEX) {
+			endPhase();
+			beginPhase(ClientPhase.SEND_BODY);
+		}
+	}
+
+	private void expectFrameResponseSync(int frameIndex) throws InterruptedException, ExecutionException {
+		if (frameIndex == SET_FRAME_INDEX) {
+			expectResponseToContainSync(OK_WITH_VAL);
+		} else {
+			expectResponseSync(OK_RESPONSE);
+		}
+	}
+
+	private CompletableFuture<String> expectFrameResponseAsync(int frameIndex) {
+		return frameIndex == SET_FRAME_INDEX ? expectResponseToContainAsync(OK_WITH_VAL)
+				: expectResponseAsync(OK_RESPONSE);
+	}
+
+	/**
+	 * Starts the next pending send, if there isn't another one running, as the
+	 * server handles a single message section at a time
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private void sendNextAsync() {
+		while (!pendingSends.isEmpty() && sending.compareAndSet(false, true)) {
+			if (!tryAcquireConnection()) {
+				sending.set(false);
+				if (isProbing()) {
+					// Resumed by onConnectionReleased()
+					return;
+				}
+				continue;
+			}
+			PendingSend next = pendingSends.poll();
+			if (next == null) {
+				releaseConnection();
+				sending.set(false);
+			} else {
+				runExchangeAsync(next).whenComplete((result, exception) -> onSendCompleted(next, exception));
+				return;
+			}
+		}
+	}
+
+	private CompletableFuture<Void> runExchangeAsync(PendingSend send) {
+		CompletableFuture<Void> exchange = new CompletableFuture<>();
+		if (!isAlive()) {
+			exchange.completeExceptionally(new SqsConnectionException("Connection is not alive", null));
+		} else if (send.pipelined) {
+			writeAsync(send.buffers).whenComplete((written, exception) -> {
+				if (exception == null) {
+					expectResponsesAsync(send, 0, exchange);
+				} else {
+					exchange.completeExceptionally(exception);
+				}
+			});
+		} else {
+			CompletableFuture<String> chain = CompletableFuture.completedFuture(null);
+			for (int i = 0; i < send.buffers.length; i++) {
+				int frameIndex = i;
+				chain = chain.thenCompose(response -> writeAsync(send.buffers[frameIndex]))
+						.thenCompose(written -> expectFrameResponseAsync(frameIndex % MESSAGE_FRAME_COUNT))
+						.thenApply(response -> {
+							onResponseAccepted(send, frameIndex);
+							return response;
+						});
+			}
+			chain.whenComplete((response, exception) -> {
+				if (exception == null) {
+					exchange.complete(null);
+				} else {
+					exchange.completeExceptionally(exception);
+				}
+			});
+		}
+		return exchange;
+	}
+
+	/**
+	 * Validates the responses of a pipelined send, starting at the given one,
+	 * completing the future of each message after its last response <br>
+	 * Loops while the responses are already buffered, and continues in the
+	 * read callback otherwise
+	 * 
+	 * @param send
+	 * @param index
+	 * @param exchange
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private void expectResponsesAsync(PendingSend send, int index, CompletableFuture<Void> exchange) {
+		for (int i = index; i < send.buffers.length; i++) {
+			CompletableFuture<String> response = expectFrameResponseAsync(i % MESSAGE_FRAME_COUNT);
+			if (!response.isDone()) {
+				int current = i;
+				response.whenComplete((result, exception) -> {
+					if (exception == null) {
+						onResponseAccepted(send, current);
+						expectResponsesAsync(send, current + 1, exchange);
+					} else {
+						exchange.completeExceptionally(exception);
+					}
+				});
+				return;
+			} else if (response.isCompletedExceptionally()) {
+				response.whenComplete((result, exception) -> exchange.completeExceptionally(exception));
+				return;
+			}
+			onResponseAccepted(send, i);
+		}
+		exchange.complete(null);
+	}
+
+	private void onResponseAccepted(PendingSend send, int index) {
+		if (index % MESSAGE_FRAME_COUNT == MESSAGE_FRAME_COUNT - 1) {
+			send.futures.get(index / MESSAGE_FRAME_COUNT).complete(null);
+		}
+	}
+
+	private void onSendCompleted(PendingSend send, Throwable exception) {
+		inFlightSends.decrementAndGet();
+		if (exception != null) {
+			Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+					? exception.getCause()
+					: exception;
+			connectionState = ConnectionState.NOT_CONNECTED;
+			send.failAll(cause);
+			PendingSend pending;
+			while ((pending = pendingSends.poll()) != null) {
+				inFlightSends.decrementAndGet();
+				pending.failAll(cause);
+			}
+		}
+		releaseConnection();
+		sending.set(false);
+		sendNextAsync();
+	}
+
+	/**
+	 * Messages waiting to be sent by {@link AbstractProducer#sendMessageAsync}
+	 * or by a batch
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private static class PendingSend {
+		private final ByteBuffer[] buffers;
+		private final List<CompletableFuture<Void>> futures;
+		private final boolean pipelined;
+
+		private PendingSend(ByteBuffer[] buffers, List<CompletableFuture<Void>> futures, boolean pipelined) {
+			this.buffers = buffers;
+			this.futures = futures;
+			this.pipelined = pipelined;
+		}
+
+		private void failAll(Throwable cause) {
+			futures.forEach(future -> future.completeExceptionally(cause));
 		}
 	}
 }
@@ -0,0 +1,15 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.producer;
+
+/**
+ * Invoked each time a {@link BatchingProducer} sends a batch
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@FunctionalInterface
+public interface BatchMetricsListener {
+	public void onBatchFlushed(ProducerBatchMetrics metrics);
+}
@@ -0,0 +1,264 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.producer;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.kevinguanchedarias.sqs.Message;
+import com.kevinguanchedarias.sqs.enumerations.BatchFlushReason;
+import com.kevinguanchedarias.sqs.exception.SqsBufferFullException;
+import com.kevinguanchedarias.sqs.exception.SqsConnectionException;
+import com.kevinguanchedarias.sqs.exception.SqsTimeoutException;
+
+/**
+ * Accumulates the messages and sends them in batches, each batch is written
+ * back to back in a single socket write <br>
+ * A batch is sent when it reaches the max bytes, the max messages, or when the
+ * linger time of its first message expires <br>
+ * The batches are only pipelined when the server announces the
+ * {@link AbstractProducer#PIPELINING_CAPABILITY}, else the lines of a batch are
+ * written one by one, waiting the response of each
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class BatchingProducer<T extends Serializable> implements Producer<T> {
+	private final AbstractProducer<T> producer;
+	private final BatchingProducerConfig config;
+	private final BufferMemory memory;
+	private final ScheduledExecutorService flusher;
+	private Batch current;
+	private CompletableFuture<Void> lastBatch = CompletableFuture.completedFuture(null);
+
+	/**
+	 * 
+	 * @param producer The producer that will send the batches
+	 * @param config
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public BatchingProducer(AbstractProducer<T> producer, BatchingProducerConfig config) {
+		this.producer = producer;
+		this.config = config;
+		memory = new BufferMemory(config.getBufferMemoryBytes());
+		flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "sqs-batch-flusher");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.kevinguanchedarias.sqs.Client#connect(java.lang.String, int,
+	 * java.lang.String)
+	 */
+	@Override
+	public void connect(String host, int port, String queue) {
+		producer.connect(host, port, queue);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.kevinguanchedarias.sqs.Client#connectAsync(java.lang.String, int,
+	 * java.lang.String)
+	 */
+	@Override
+	public CompletableFuture<Void> connectAsync(String host, int port, String queue) {
+		return producer.connectAsync(host, port, queue);
+	}
+
+	/**
+	 * Sends the pending batch, and waits until the server accepts all the
+	 * messages before closing the connection
+	 * 
+	 * @see com.kevinguanchedarias.sqs.Client#quit()
+	 */
+	@Override
+	public void quit() {
+		CompletableFuture<Void> pending;
+		synchronized (this) {
+			flush(BatchFlushReason.MANUAL);
+			pending = lastBatch;
+		}
+		try {
+			pending.get();
+		} catch (ExecutionException e) {
+			// The failure has been already reported to the sender of each message
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flusher.shutdownNow();
+		producer.quit();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.kevinguanchedarias.sqs.Client#isAlive()
+	 */
+	@Override
+	public boolean isAlive() {
+		return producer.isAlive();
+	}
+
+	/**
+	 * Adds the message to the batch, and waits until the server accepts it
+	 * 
+	 * @see com.kevinguanchedarias.sqs.producer.Producer#sendMessageSync(com.kevinguanchedarias.sqs.Message)
+	 */
+	@Override
+	public void sendMessageSync(Message<T> message) {
+		sendMessageSync(message, producer.getClientConfig().getOperationTimeoutMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Adds the message to the batch, and waits until the server accepts it, or
+	 * the timeout expires <br>
+	 * The connection is kept on timeout, as it's shared by the whole batch, the
+	 * message is still sent with it
+	 * 
+	 * @see com.kevinguanchedarias.sqs.producer.Producer#sendMessageSync(com.kevinguanchedarias.sqs.Message,
+	 *      long, java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public void sendMessageSync(Message<T> message, long timeout, TimeUnit unit) {
+		CompletableFuture<Void> future = sendMessageAsync(message);
+		try {
+			if (timeout > 0) {
+				future.get(timeout, unit);
+			} else {
+				future.get();
+			}
+		} catch (TimeoutException e) {
+			throw new SqsTimeoutException("Timed out waiting for the batch", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SqsConnectionException("Interrupted while waiting for the batch", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new SqsConnectionException("Couldn't send the batch", e.getCause());
+		}
+	}
+
+	/**
+	 * Adds the message to the batch <br>
+	 * When the buffer memory is full, blocks or fails with
+	 * {@link SqsBufferFullException}, depending on the configuration
+	 * 
+	 * @see com.kevinguanchedarias.sqs.producer.Producer#sendMessageAsync(com.kevinguanchedarias.sqs.Message)
+	 */
+	@Override
+	public CompletableFuture<Void> sendMessageAsync(Message<T> message) {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		try {
+			ByteBuffer[] buffers = producer.encodeMessage(message);
+			long size = 0;
+			for (ByteBuffer buffer : buffers) {
+				size += buffer.remaining();
+			}
+			memory.reserve(size, config.isBlockOnBufferFull(), config.getMaxBlockMillis());
+			long reserved = size;
+			future.whenComplete((result, exception) -> memory.release(reserved));
+			addToBatch(buffers, size, future);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			future.completeExceptionally(e);
+		} catch (RuntimeException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	/**
+	 * Sends the current batch now
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public synchronized void flush() {
+		flush(BatchFlushReason.MANUAL);
+	}
+
+	/**
+	 * 
+	 * @return The bytes that can be added before the buffer memory is full
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getAvailableBufferMemory() {
+		return memory.getAvailable();
+	}
+
+	private synchronized void addToBatch(ByteBuffer[] buffers, long size, CompletableFuture<Void> future) {
+		if (current != null && current.bytes + size > config.getMaxBatchBytes()) {
+			flush(BatchFlushReason.MAX_BYTES);
+		}
+		if (current == null) {
+			Batch batch = new Batch();
+			current = batch;
+			flusher.schedule(() -> flushIfCurrent(batch), config.getLingerMillis(), TimeUnit.MILLISECONDS);
+		}
+		current.add(buffers, size, future);
+		if (current.futures.size() >= config.getMaxBatchMessages()) {
+			flush(BatchFlushReason.MAX_MESSAGES);
+		} else if (current.bytes >= config.getMaxBatchBytes()) {
+			flush(BatchFlushReason.MAX_BYTES);
+		}
+	}
+
+	private synchronized void flushIfCurrent(Batch batch) {
+		if (current == batch) {
+			flush(BatchFlushReason.LINGER);
+		}
+	}
+
+	private void flush(BatchFlushReason reason) {
+		if (current != null) {
+			Batch batch = current;
+			current = null;
+			producer.sendBatchAsync(batch.buffers.toArray(new ByteBuffer[batch.buffers.size()]), batch.futures);
+			lastBatch = CompletableFuture.allOf(batch.futures.toArray(new CompletableFuture<?>[batch.futures.size()]));
+			BatchMetricsListener listener = config.getMetricsListener();
+			if (listener != null) {
+				listener.onBatchFlushed(new ProducerBatchMetrics(batch.futures.size(), batch.bytes,
+						System.nanoTime() - batch.createdNanos, reason));
+			}
+		}
+	}
+
+	/**
+	 * The messages accumulated
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private static class Batch {
+		private final long createdNanos = System.nanoTime();
+		private final List<ByteBuffer> buffers = new ArrayList<>();
+		private final List<CompletableFuture<Void>> futures = new ArrayList<>();
+		private long bytes;
+
+		private void add(ByteBuffer[] messageBuffers, long size, CompletableFuture<Void> future) {
+			for (ByteBuffer buffer : messageBuffers) {
+				buffers.add(buffer);
+			}
+			futures.add(future);
+			bytes += size;
+		}
+	}
+}
@@ -0,0 +1,174 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.producer;
+
+/**
+ * Configuration of a {@link BatchingProducer}, a batch is sent when it reaches
+ * any of the limits
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class BatchingProducerConfig {
+	private int maxBatchBytes = 64 * 1024;
+	private int maxBatchMessages = 500;
+	private long lingerMillis = 5;
+	private long bufferMemoryBytes = 32L * 1024 * 1024;
+	private boolean blockOnBufferFull = true;
+	private long maxBlockMillis = 60000;
+	private BatchMetricsListener metricsListener;
+
+	/**
+	 * Max bytes of a batch, a message bigger than this is sent alone
+	 * 
+	 * @param maxBatchBytes
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public BatchingProducerConfig withMaxBatchBytes(int maxBatchBytes) {
+		this.maxBatchBytes = maxBatchBytes;
+		return this;
+	}
+
+	/**
+	 * Max messages of a batch
+	 * 
+	 * @param maxBatchMessages
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public BatchingProducerConfig withMaxBatchMessages(int maxBatchMessages) {
+		this.maxBatchMessages = maxBatchMessages;
+		return this;
+	}
+
+	/**
+	 * Max time a message waits for more messages to fill the batch
+	 * 
+	 * @param lingerMillis
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public BatchingProducerConfig withLingerMillis(long lingerMillis) {
+		this.lingerMillis = lingerMillis;
+		return this;
+	}
+
+	/**
+	 * Max bytes of the messages that have not been accepted by the server yet
+	 * 
+	 * @param bufferMemoryBytes
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public BatchingProducerConfig withBufferMemoryBytes(long bufferMemoryBytes) {
+		this.bufferMemoryBytes = bufferMemoryBytes;
+		return this;
+	}
+
+	/**
+	 * When the buffer memory is full, if true the sender waits up to
+	 * {@link #withMaxBlockMillis(long)}, else the send fails immediately
+	 * 
+	 * @param blockOnBufferFull
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public BatchingProducerConfig withBlockOnBufferFull(boolean blockOnBufferFull) {
+		this.blockOnBufferFull = blockOnBufferFull;
+		return this;
+	}
+
+	/**
+	 * 
+	 * @param maxBlockMillis
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public BatchingProducerConfig withMaxBlockMillis(long maxBlockMillis) {
+		this.maxBlockMillis = maxBlockMillis;
+		return this;
+	}
+
+	/**
+	 * 
+	 * @param metricsListener
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public BatchingProducerConfig withMetricsListener(BatchMetricsListener metricsListener) {
+		this.metricsListener = metricsListener;
+		return this;
+	}
+
+	/**
+	 * @return the maxBatchBytes
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getMaxBatchBytes() {
+		return maxBatchBytes;
+	}
+
+	/**
+	 * @return the maxBatchMessages
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getMaxBatchMessages() {
+		return maxBatchMessages;
+	}
+
+	/**
+	 * @return the lingerMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getLingerMillis() {
+		return lingerMillis;
+	}
+
+	/**
+	 * @return the bufferMemoryBytes
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getBufferMemoryBytes() {
+		return bufferMemoryBytes;
+	}
+
+	/**
+	 * @return the blockOnBufferFull
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isBlockOnBufferFull() {
+		return blockOnBufferFull;
+	}
+
+	/**
+	 * @return the maxBlockMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getMaxBlockMillis() {
+		return maxBlockMillis;
+	}
+
+	/**
+	 * @return the metricsListener
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public BatchMetricsListener getMetricsListener() {
+		return metricsListener;
+	}
+}
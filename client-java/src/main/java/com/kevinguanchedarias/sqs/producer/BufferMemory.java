@@ -0,0 +1,98 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.producer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.kevinguanchedarias.sqs.exception.SqsBufferFullException;
+
+/**
+ * Accounts the bytes of the messages that are waiting to be accepted by the
+ * server
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+class BufferMemory {
+	private final long total;
+	private long available;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition released = lock.newCondition();
+
+	/**
+	 * @param total
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	BufferMemory(long total) {
+		this.total = total;
+		available = total;
+	}
+
+	/**
+	 * Takes the bytes from the available memory
+	 * 
+	 * @param bytes
+	 * @param block          If false, will throw when there is not enough
+	 *                       memory available
+	 * @param maxBlockMillis
+	 * @throws InterruptedException
+	 * @throws SqsBufferFullException When there is not memory available
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void reserve(long bytes, boolean block, long maxBlockMillis) throws InterruptedException {
+		if (bytes > total) {
+			throw new SqsBufferFullException(
+					"The message has " + bytes + " bytes, more than the buffer memory of " + total + " bytes");
+		}
+		lock.lock();
+		try {
+			long remainingNanos = TimeUnit.MILLISECONDS.toNanos(maxBlockMillis);
+			while (available < bytes) {
+				if (!block || remainingNanos <= 0) {
+					throw new SqsBufferFullException("There are not " + bytes + " bytes available in the buffer memory");
+				}
+				remainingNanos = released.awaitNanos(remainingNanos);
+			}
+			available -= bytes;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the bytes to the available memory
+	 * 
+	 * @param bytes
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void release(long bytes) {
+		lock.lock();
+		try {
+			available += bytes;
+			released.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	long getAvailable() {
+		lock.lock();
+		try {
+			return available;
+		} finally {
+			lock.unlock();
+		}
+	}
+}
@@ -0,0 +1,517 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.producer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import com.kevinguanchedarias.sqs.exception.SqsBadStateException;
+import com.kevinguanchedarias.sqs.exception.SqsBufferFullException;
+import com.kevinguanchedarias.sqs.exception.SqsConnectionException;
+
+/**
+ * Append only journal of encoded messages, stored in memory mapped segment
+ * files <br>
+ * Each segment starts with a header holding the offset of its first record
+ * not accepted by the server yet, followed by the records: <i>length, CRC32,
+ * length of the delivery line, delivery line, body</i> <br>
+ * Many threads append, a single one reads and acknowledges, in order, the
+ * segments are deleted once all their records are acknowledged
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+final class OutboxJournal {
+	private static final String SEGMENT_SUFFIX = ".outbox";
+	private static final String LOCK_FILE = "outbox.lock";
+	private static final int MAGIC = 0x5351534f;
+	private static final int ACKED_OFFSET_POSITION = 4;
+	private static final int HEADER_BYTES = 8;
+	private static final int RECORD_HEADER_BYTES = 8;
+	private static final int DELIVER_LENGTH_BYTES = 4;
+
+	private final Path directory;
+	private final int segmentBytes;
+	private final int maxSegments;
+	private final boolean syncAlways;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition appended = lock.newCondition();
+	private final Condition acknowledged = lock.newCondition();
+	private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+	private final ArrayDeque<PendingAck> pendingAcks = new ArrayDeque<>();
+	private final FileChannel lockChannel;
+	private Segment writeSegment;
+	private Segment readSegment;
+	private int readPosition;
+	private long nextSegmentId;
+	private long appendedRecords;
+	private long acknowledgedRecords;
+	private boolean closed;
+
+	/**
+	 * Opens the journal, the records not acknowledged of the existing segments
+	 * are read first, the new ones go to a new segment
+	 *
+	 * @param config
+	 * @param syncAlways If true, the segment is forced after each append
+	 * @throws IOException
+	 * @throws SqsBadStateException When the directory is used by another outbox
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	OutboxJournal(OutboxProducerConfig config, boolean syncAlways) throws IOException {
+		directory = config.getDirectory();
+		segmentBytes = config.getSegmentBytes();
+		maxSegments = config.getMaxSegments();
+		this.syncAlways = syncAlways;
+		Files.createDirectories(directory);
+		lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE);
+		try {
+			lockDirectory();
+			recoverSegments();
+			writeSegment = createSegment();
+		} catch (IOException | RuntimeException e) {
+			lockChannel.close();
+			throw e;
+		}
+		readSegment = segments.peekFirst();
+		readPosition = readSegment.getAckedOffset();
+	}
+
+	/**
+	 * Copies the message to the current segment
+	 *
+	 * @param deliverFrame   The SET line of the delivery time
+	 * @param bodyFrame      The body followed by the END_MESSAGE line
+	 * @param accepted       Optional, completed when the server accepts the
+	 *                       message
+	 * @param block          If false, will throw when the outbox is full
+	 * @param maxBlockMillis
+	 * @throws IOException          When a new segment can't be created
+	 * @throws InterruptedException
+	 * @throws SqsBufferFullException When the outbox is full
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void append(ByteBuffer deliverFrame, ByteBuffer bodyFrame, CompletableFuture<Void> accepted, boolean block,
+			long maxBlockMillis) throws IOException, InterruptedException {
+		int payloadBytes = DELIVER_LENGTH_BYTES + deliverFrame.remaining() + bodyFrame.remaining();
+		int recordBytes = RECORD_HEADER_BYTES + payloadBytes;
+		if (HEADER_BYTES + recordBytes > segmentBytes) {
+			throw new IllegalArgumentException("The message needs " + recordBytes
+					+ " bytes, more than the outbox segments of " + segmentBytes + " bytes");
+		}
+		lock.lock();
+		try {
+			checkOpen();
+			if (writeSegment.end + recordBytes > writeSegment.buffer.capacity()) {
+				awaitFreeSegment(block, maxBlockMillis);
+				writeSegment = createSegment();
+			}
+			MappedByteBuffer buffer = writeSegment.buffer;
+			int position = writeSegment.end;
+			buffer.position(position + RECORD_HEADER_BYTES);
+			buffer.putInt(deliverFrame.remaining());
+			buffer.put(deliverFrame.duplicate());
+			buffer.put(bodyFrame.duplicate());
+			buffer.putInt(position + 4, checksum(buffer, position + RECORD_HEADER_BYTES, payloadBytes));
+			// The length goes last, a record without it is ignored when recovering
+			buffer.putInt(position, payloadBytes);
+			writeSegment.end = position + recordBytes;
+			writeSegment.dirty = true;
+			if (syncAlways) {
+				buffer.force();
+			}
+			long sequence = appendedRecords++;
+			if (accepted != null) {
+				pendingAcks.add(new PendingAck(sequence, accepted));
+			}
+			appended.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits for the first record not acknowledged, to be invoked only by the
+	 * reader
+	 *
+	 * @param timeoutMillis
+	 * @return null if there isn't any record after the timeout, or if the
+	 *         journal has been closed
+	 * @throws InterruptedException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	Record next(long timeoutMillis) throws InterruptedException {
+		lock.lock();
+		try {
+			long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+			while (!closed) {
+				if (readPosition < readSegment.end) {
+					MappedByteBuffer buffer = readSegment.buffer;
+					int deliverStart = readPosition + RECORD_HEADER_BYTES + DELIVER_LENGTH_BYTES;
+					int bodyStart = deliverStart + buffer.getInt(readPosition + RECORD_HEADER_BYTES);
+					int nextPosition = readPosition + RECORD_HEADER_BYTES + buffer.getInt(readPosition);
+					return new Record(readSegment, view(buffer, deliverStart, bodyStart),
+							view(buffer, bodyStart, nextPosition), nextPosition);
+				} else if (readSegment != writeSegment) {
+					retireReadSegment();
+				} else if (remainingNanos <= 0) {
+					return null;
+				} else {
+					remainingNanos = appended.awaitNanos(remainingNanos);
+				}
+			}
+			return null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Marks the record as accepted by the server, so it's not read again, even
+	 * after reopening the journal
+	 *
+	 * @param record The last one returned by {@link #next(long)}
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void acknowledge(Record record) {
+		List<CompletableFuture<Void>> accepted = new ArrayList<>();
+		lock.lock();
+		try {
+			record.segment.buffer.putInt(ACKED_OFFSET_POSITION, record.nextPosition);
+			record.segment.dirty = true;
+			readPosition = record.nextPosition;
+			long sequence = acknowledgedRecords++;
+			while (!pendingAcks.isEmpty() && pendingAcks.peekFirst().sequence <= sequence) {
+				accepted.add(pendingAcks.pollFirst().future);
+			}
+			if (readSegment != writeSegment && readPosition >= readSegment.end) {
+				retireReadSegment();
+			}
+			acknowledged.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		accepted.forEach(future -> future.complete(null));
+	}
+
+	/**
+	 * Forces the segments written since the last invocation to the disk
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void sync() {
+		List<Segment> dirty = new ArrayList<>();
+		lock.lock();
+		try {
+			for (Segment segment : segments) {
+				if (segment.dirty) {
+					segment.dirty = false;
+					dirty.add(segment);
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+		dirty.forEach(segment -> segment.buffer.force());
+	}
+
+	/**
+	 * Waits until all the records have been acknowledged
+	 *
+	 * @param timeoutMillis
+	 * @return false if there are records left after the timeout
+	 * @throws InterruptedException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	boolean awaitDrained(long timeoutMillis) throws InterruptedException {
+		lock.lock();
+		try {
+			long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+			while (appendedRecords > acknowledgedRecords) {
+				if (closed || remainingNanos <= 0) {
+					return false;
+				}
+				remainingNanos = acknowledged.awaitNanos(remainingNanos);
+			}
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 *
+	 * @return The records not acknowledged yet
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	long getPendingRecords() {
+		lock.lock();
+		try {
+			return appendedRecords - acknowledgedRecords;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Forces the segments and releases the directory, the futures of the
+	 * records not acknowledged fail, but the records are kept for the next
+	 * time the journal is opened
+	 *
+	 * @throws IOException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void close() throws IOException {
+		List<PendingAck> abandoned;
+		lock.lock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			abandoned = new ArrayList<>(pendingAcks);
+			pendingAcks.clear();
+			appended.signalAll();
+			acknowledged.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		sync();
+		lockChannel.close();
+		SqsConnectionException cause = new SqsConnectionException(
+				"The outbox was closed before the server accepted the message, it will be sent after reopening it",
+				null);
+		abandoned.forEach(pending -> pending.future.completeExceptionally(cause));
+	}
+
+	private void lockDirectory() throws IOException {
+		FileLock fileLock;
+		try {
+			fileLock = lockChannel.tryLock();
+		} catch (OverlappingFileLockException e) {
+			fileLock = null;
+		}
+		if (fileLock == null) {
+			throw new SqsBadStateException("The directory " + directory + " is used by another outbox");
+		}
+	}
+
+	/**
+	 * Maps the existing segments, finding the end of their valid records, the
+	 * ones already acknowledged are deleted
+	 *
+	 * @throws IOException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private void recoverSegments() throws IOException {
+		List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+			stream.forEach(files::add);
+		}
+		files.sort(Comparator.comparing(Path::toString));
+		for (Path file : files) {
+			Segment segment = mapSegment(file, false);
+			nextSegmentId = segment.id + 1;
+			int ackedOffset = segment.getAckedOffset();
+			if (segment.buffer.getInt(0) != MAGIC || ackedOffset < HEADER_BYTES
+					|| ackedOffset > segment.buffer.capacity()) {
+				throw new IOException("The file " + file + " is not a valid outbox segment");
+			}
+			int position = ackedOffset;
+			long records = 0;
+			while (isValidRecord(segment.buffer, position)) {
+				position += RECORD_HEADER_BYTES + segment.buffer.getInt(position);
+				records++;
+			}
+			segment.end = position;
+			if (records == 0) {
+				Files.deleteIfExists(file);
+			} else {
+				segments.add(segment);
+				appendedRecords += records;
+			}
+		}
+	}
+
+	private boolean isValidRecord(MappedByteBuffer buffer, int position) {
+		if (position + RECORD_HEADER_BYTES + DELIVER_LENGTH_BYTES > buffer.capacity()) {
+			return false;
+		}
+		int payloadBytes = buffer.getInt(position);
+		int payloadStart = position + RECORD_HEADER_BYTES;
+		return payloadBytes >= DELIVER_LENGTH_BYTES && payloadBytes <= buffer.capacity() - payloadStart
+				&& buffer.getInt(payloadStart) >= 0 && buffer.getInt(payloadStart) <= payloadBytes - DELIVER_LENGTH_BYTES
+				&& buffer.getInt(position + 4) == checksum(buffer, payloadStart, payloadBytes);
+	}
+
+	private Segment createSegment() throws IOException {
+		Path file = directory.resolve(String.format("%020d%s", nextSegmentId, SEGMENT_SUFFIX));
+		Segment retVal = mapSegment(file, true);
+		nextSegmentId++;
+		retVal.buffer.putInt(0, MAGIC);
+		retVal.buffer.putInt(ACKED_OFFSET_POSITION, HEADER_BYTES);
+		retVal.end = HEADER_BYTES;
+		segments.add(retVal);
+		return retVal;
+	}
+
+	private Segment mapSegment(Path file, boolean create) throws IOException {
+		String name = file.getFileName().toString();
+		long id;
+		try {
+			id = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+		} catch (NumberFormatException e) {
+			throw new IOException("The file " + file + " is not a valid outbox segment", e);
+		}
+		try (FileChannel channel = create
+				? FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+						StandardOpenOption.WRITE)
+				: FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			long size = create ? segmentBytes : channel.size();
+			if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+				throw new IOException("The file " + file + " is not a valid outbox segment");
+			}
+			// The mapping stays valid after closing the channel
+			return new Segment(id, file, channel.map(MapMode.READ_WRITE, 0, size));
+		}
+	}
+
+	/**
+	 * Deletes the segment being read, all its records have been acknowledged,
+	 * and moves to the next one
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private void retireReadSegment() {
+		segments.pollFirst();
+		try {
+			Files.deleteIfExists(readSegment.file);
+		} catch (IOException e) {
+			// Some systems can't delete mapped files, it will be deleted when reopening
+		}
+		readSegment = segments.peekFirst();
+		readPosition = readSegment.getAckedOffset();
+		acknowledged.signalAll();
+	}
+
+	private void awaitFreeSegment(boolean block, long maxBlockMillis) throws InterruptedException {
+		long remainingNanos = TimeUnit.MILLISECONDS.toNanos(maxBlockMillis);
+		while (segments.size() >= maxSegments) {
+			if (!block || remainingNanos <= 0) {
+				throw new SqsBufferFullException("The outbox is full, there are " + (appendedRecords - acknowledgedRecords)
+						+ " messages waiting for the server");
+			}
+			remainingNanos = acknowledged.awaitNanos(remainingNanos);
+			checkOpen();
+		}
+	}
+
+	private void checkOpen() {
+		if (closed) {
+			throw new SqsBadStateException("The outbox is closed");
+		}
+	}
+
+	private static int checksum(ByteBuffer buffer, int position, int length) {
+		ByteBuffer view = buffer.duplicate();
+		view.limit(position + length).position(position);
+		CRC32 crc = new CRC32();
+		crc.update(view);
+		return (int) crc.getValue();
+	}
+
+	private static ByteBuffer view(ByteBuffer buffer, int start, int end) {
+		ByteBuffer retVal = buffer.duplicate();
+		retVal.limit(end).position(start);
+		return retVal.slice();
+	}
+
+	/**
+	 * A record read from the journal, its buffers are views of the mapped
+	 * segment
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	static final class Record {
+		private final Segment segment;
+		private final ByteBuffer deliverFrame;
+		private final ByteBuffer bodyFrame;
+		private final int nextPosition;
+
+		private Record(Segment segment, ByteBuffer deliverFrame, ByteBuffer bodyFrame, int nextPosition) {
+			this.segment = segment;
+			this.deliverFrame = deliverFrame;
+			this.bodyFrame = bodyFrame;
+			this.nextPosition = nextPosition;
+		}
+
+		/**
+		 *
+		 * @return New buffers on each invocation, as writing consumes them
+		 * @since 1.1.0
+		 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+		 */
+		ByteBuffer[] createMessageFrames() {
+			return AbstractProducer.createMessageFrames(deliverFrame.duplicate(), bodyFrame.duplicate());
+		}
+	}
+
+	private static final class Segment {
+		private final long id;
+		private final Path file;
+		private final MappedByteBuffer buffer;
+		private int end;
+		private boolean dirty;
+
+		private Segment(long id, Path file, MappedByteBuffer buffer) {
+			this.id = id;
+			this.file = file;
+			this.buffer = buffer;
+		}
+
+		private int getAckedOffset() {
+			return buffer.getInt(ACKED_OFFSET_POSITION);
+		}
+	}
+
+	private static final class PendingAck {
+		private final long sequence;
+		private final CompletableFuture<Void> future;
+
+		private PendingAck(long sequence, CompletableFuture<Void> future) {
+			this.sequence = sequence;
+			this.future = future;
+		}
+	}
+}
@@ -0,0 +1,346 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.producer;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.kevinguanchedarias.sqs.Message;
+import com.kevinguanchedarias.sqs.consumer.ReconnectPolicy;
+import com.kevinguanchedarias.sqs.enumerations.OutboxSyncPolicy;
+import com.kevinguanchedarias.sqs.exception.SqsBadStateException;
+import com.kevinguanchedarias.sqs.exception.SqsBufferFullException;
+import com.kevinguanchedarias.sqs.exception.SqsConnectionException;
+import com.kevinguanchedarias.sqs.exception.SqsRuntimeException;
+
+/**
+ * Writes the messages to a local outbox, an append only journal of memory
+ * mapped segment files, and sends them to the server from a background
+ * drainer thread, in order <br>
+ * The sends return once the message is in the outbox, so the producers don't
+ * wait for the server, and the messages survive until the server accepts
+ * them, even if the server is down or the process restarts <br>
+ * When the connection is lost, the drainer reconnects as configured by
+ * {@link OutboxProducerConfig#withReconnectPolicy(ReconnectPolicy)}, and
+ * sends again the message that was in flight, so the server may receive a
+ * message twice <br>
+ * <b>NOTICE:</b> A delivery delay counts from the moment the drainer sends the
+ * message, use a delivery date when the message may wait in the outbox
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class OutboxProducer<T extends Serializable> implements Producer<T> {
+	private static final long IDLE_WAIT_MILLIS = 1000;
+
+	private final AbstractProducer<T> producer;
+	private final OutboxProducerConfig config;
+	private final OutboxJournal journal;
+	private final ScheduledExecutorService syncer;
+	private final CompletableFuture<Void> firstConnection = new CompletableFuture<>();
+	private Thread drainer;
+	private String host;
+	private int port;
+	private String queue;
+	private int failedAttempts;
+	private volatile boolean quitting;
+	private volatile Throwable lastFailure;
+
+	/**
+	 * Opens the outbox, the messages left by a previous run are sent first
+	 *
+	 * @param producer The producer used by the drainer, must not be used by
+	 *                 anything else
+	 * @param config
+	 * @throws SqsRuntimeException  When the outbox can't be opened
+	 * @throws SqsBadStateException When the directory is used by another outbox
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public OutboxProducer(AbstractProducer<T> producer, OutboxProducerConfig config) {
+		this.producer = producer;
+		this.config = config;
+		try {
+			journal = new OutboxJournal(config, config.getSyncPolicy() == OutboxSyncPolicy.ALWAYS);
+		} catch (IOException e) {
+			throw new SqsRuntimeException("Couldn't open the outbox in " + config.getDirectory(), e);
+		}
+		if (config.getSyncPolicy() == OutboxSyncPolicy.INTERVAL) {
+			syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "sqs-outbox-sync");
+				thread.setDaemon(true);
+				return thread;
+			});
+			syncer.scheduleWithFixedDelay(journal::sync, config.getSyncIntervalMillis(),
+					config.getSyncIntervalMillis(), TimeUnit.MILLISECONDS);
+		} else {
+			syncer = null;
+		}
+	}
+
+	/**
+	 * Starts the drainer, which connects in background, so this method doesn't
+	 * fail when the server is not available
+	 *
+	 * @see com.kevinguanchedarias.sqs.Client#connect(java.lang.String, int,
+	 *      java.lang.String)
+	 */
+	@Override
+	public synchronized void connect(String host, int port, String queue) {
+		if (quitting) {
+			throw new SqsBadStateException("The outbox producer has quit");
+		} else if (drainer != null) {
+			throw new SqsBadStateException("The outbox producer is already connected");
+		}
+		this.host = host;
+		this.port = port;
+		this.queue = queue;
+		drainer = new Thread(this::drainLoop, "sqs-outbox-drainer");
+		drainer.setDaemon(true);
+		drainer.start();
+	}
+
+	/**
+	 * Starts the drainer
+	 *
+	 * @return A future that completes when the drainer connects for the first
+	 *         time, or fails if it gives up
+	 * @see com.kevinguanchedarias.sqs.Client#connectAsync(java.lang.String, int,
+	 *      java.lang.String)
+	 */
+	@Override
+	public CompletableFuture<Void> connectAsync(String host, int port, String queue) {
+		try {
+			connect(host, port, queue);
+		} catch (RuntimeException e) {
+			CompletableFuture<Void> retVal = new CompletableFuture<>();
+			retVal.completeExceptionally(e);
+			return retVal;
+		}
+		return firstConnection;
+	}
+
+	/**
+	 * Stops the drainer and closes the outbox, the messages not accepted by the
+	 * server yet are kept, and sent when the outbox is opened again <br>
+	 * Invoke {@link #awaitDrained(long, TimeUnit)} before, to wait for them
+	 *
+	 * @see com.kevinguanchedarias.sqs.Client#quit()
+	 */
+	@Override
+	public void quit() {
+		Thread runningDrainer;
+		synchronized (this) {
+			quitting = true;
+			runningDrainer = drainer;
+		}
+		if (runningDrainer != null) {
+			runningDrainer.interrupt();
+			try {
+				runningDrainer.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		producer.quitQuietly();
+		if (syncer != null) {
+			syncer.shutdownNow();
+		}
+		try {
+			journal.close();
+		} catch (IOException e) {
+			throw new SqsRuntimeException("Couldn't close the outbox", e);
+		}
+	}
+
+	/**
+	 *
+	 * @return true while the outbox accepts messages, even if the server is not
+	 *         available
+	 * @see com.kevinguanchedarias.sqs.Client#isAlive()
+	 */
+	@Override
+	public boolean isAlive() {
+		return !quitting;
+	}
+
+	/**
+	 * Writes the message to the outbox, blocking up to the max block time of
+	 * the configuration when it's full
+	 *
+	 * @see com.kevinguanchedarias.sqs.producer.Producer#sendMessageSync(com.kevinguanchedarias.sqs.Message)
+	 */
+	@Override
+	public void sendMessageSync(Message<T> message) {
+		sendMessageSync(message, config.getMaxBlockMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Writes the message to the outbox, returns when it's in the page cache, or
+	 * in the disk, as configured by the sync policy <br>
+	 * The timeout limits the wait when the outbox is full
+	 *
+	 * @throws SqsBufferFullException When the outbox is full
+	 * @see com.kevinguanchedarias.sqs.producer.Producer#sendMessageSync(com.kevinguanchedarias.sqs.Message,
+	 *      long, java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public void sendMessageSync(Message<T> message, long timeout, TimeUnit unit) {
+		append(message, null, timeout > 0 ? unit.toMillis(timeout) : Long.MAX_VALUE);
+	}
+
+	/**
+	 * Writes the message to the outbox, blocking up to the max block time of
+	 * the configuration when it's full
+	 *
+	 * @return A future that completes when the server has accepted the message,
+	 *         or fails if the outbox is closed before
+	 * @see com.kevinguanchedarias.sqs.producer.Producer#sendMessageAsync(com.kevinguanchedarias.sqs.Message)
+	 */
+	@Override
+	public CompletableFuture<Void> sendMessageAsync(Message<T> message) {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		try {
+			append(message, future, config.getMaxBlockMillis());
+		} catch (RuntimeException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	/**
+	 * Waits until the server has accepted all the messages of the outbox
+	 *
+	 * @param timeout
+	 * @param unit
+	 * @return false if there are messages left after the timeout
+	 * @throws InterruptedException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+		return journal.awaitDrained(unit.toMillis(timeout));
+	}
+
+	/**
+	 *
+	 * @return The messages of the outbox not accepted by the server yet
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getPendingMessages() {
+		return journal.getPendingRecords();
+	}
+
+	/**
+	 *
+	 * @return false before connecting, after quitting, or when the drainer has
+	 *         given up reconnecting
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public synchronized boolean isDraining() {
+		return drainer != null && drainer.isAlive();
+	}
+
+	/**
+	 *
+	 * @return The last error of the drainer, null if there isn't any
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public Throwable getLastFailure() {
+		return lastFailure;
+	}
+
+	private void append(Message<T> message, CompletableFuture<Void> accepted, long maxBlockMillis) {
+		ByteBuffer[] frames = producer.encodeMessageView(message);
+		try {
+			journal.append(frames[AbstractProducer.SET_FRAME_INDEX], frames[AbstractProducer.BODY_FRAME_INDEX],
+					accepted, config.isBlockOnOutboxFull(), maxBlockMillis);
+		} catch (IOException e) {
+			throw new SqsRuntimeException("Couldn't write to the outbox", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SqsConnectionException("Interrupted while waiting for space in the outbox", e);
+		}
+	}
+
+	/**
+	 * Sends the messages of the outbox one by one, each one is removed when the
+	 * server accepts it, on failure the same message is sent again with a new
+	 * connection
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private void drainLoop() {
+		OutboxJournal.Record record = null;
+		try {
+			while (!quitting) {
+				if (!producer.isAlive() && !connectWithBackoff()) {
+					break;
+				}
+				if (record == null) {
+					record = journal.next(IDLE_WAIT_MILLIS);
+				}
+				if (record != null) {
+					try {
+						producer.sendEncodedSync(record.createMessageFrames(),
+								producer.getClientConfig().getOperationTimeoutMillis(), TimeUnit.MILLISECONDS);
+						journal.acknowledge(record);
+						record = null;
+						failedAttempts = 0;
+					} catch (RuntimeException e) {
+						// The server state is unknown, so the connection is replaced
+						lastFailure = e;
+						failedAttempts++;
+						producer.quitQuietly();
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			if (!firstConnection.isDone()) {
+				firstConnection.completeExceptionally(lastFailure != null ? lastFailure
+						: new SqsConnectionException("The outbox producer quit before connecting", null));
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @return false if the policy doesn't allow more attempts, or the producer
+	 *         is quitting
+	 * @throws InterruptedException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private boolean connectWithBackoff() throws InterruptedException {
+		ReconnectPolicy policy = config.getReconnectPolicy();
+		while (!quitting) {
+			if (failedAttempts > 0) {
+				if (policy == null || (policy.getMaxAttempts() > 0 && failedAttempts > policy.getMaxAttempts())) {
+					return false;
+				}
+				Thread.sleep(policy.computeDelayMillis(failedAttempts));
+			}
+			try {
+				producer.connect(host, port, queue);
+				firstConnection.complete(null);
+				return true;
+			} catch (RuntimeException e) {
+				lastFailure = e;
+				failedAttempts++;
+			}
+		}
+		return false;
+	}
+}
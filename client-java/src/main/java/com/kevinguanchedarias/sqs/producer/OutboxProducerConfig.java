@@ -0,0 +1,201 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.producer;
+
+import java.nio.file.Path;
+
+import com.kevinguanchedarias.sqs.consumer.ReconnectPolicy;
+import com.kevinguanchedarias.sqs.enumerations.OutboxSyncPolicy;
+
+/**
+ * Configuration of an {@link OutboxProducer} <br>
+ * The outbox uses at most <i>segmentBytes * maxSegments</i> bytes of disk
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class OutboxProducerConfig {
+	private final Path directory;
+	private int segmentBytes = 16 * 1024 * 1024;
+	private int maxSegments = 64;
+	private OutboxSyncPolicy syncPolicy = OutboxSyncPolicy.INTERVAL;
+	private long syncIntervalMillis = 1000;
+	private boolean blockOnOutboxFull = true;
+	private long maxBlockMillis = 60000;
+	private ReconnectPolicy reconnectPolicy = new ReconnectPolicy();
+
+	/**
+	 *
+	 * @param directory Where the segment files are stored, created if it doesn't
+	 *                  exist, must not be shared with other outboxes
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public OutboxProducerConfig(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Size of each segment file, a message bigger than a segment can't be sent
+	 *
+	 * @param segmentBytes
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public OutboxProducerConfig withSegmentBytes(int segmentBytes) {
+		this.segmentBytes = segmentBytes;
+		return this;
+	}
+
+	/**
+	 * Max number of segment files, when all of them are full the outbox is full
+	 *
+	 * @param maxSegments
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public OutboxProducerConfig withMaxSegments(int maxSegments) {
+		this.maxSegments = maxSegments;
+		return this;
+	}
+
+	/**
+	 *
+	 * @param syncPolicy
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public OutboxProducerConfig withSyncPolicy(OutboxSyncPolicy syncPolicy) {
+		this.syncPolicy = syncPolicy;
+		return this;
+	}
+
+	/**
+	 * Used by {@link OutboxSyncPolicy#INTERVAL}
+	 *
+	 * @param syncIntervalMillis
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public OutboxProducerConfig withSyncIntervalMillis(long syncIntervalMillis) {
+		this.syncIntervalMillis = syncIntervalMillis;
+		return this;
+	}
+
+	/**
+	 * When the outbox is full, if true the sender waits up to
+	 * {@link #withMaxBlockMillis(long)}, else the send fails immediately
+	 *
+	 * @param blockOnOutboxFull
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public OutboxProducerConfig withBlockOnOutboxFull(boolean blockOnOutboxFull) {
+		this.blockOnOutboxFull = blockOnOutboxFull;
+		return this;
+	}
+
+	/**
+	 *
+	 * @param maxBlockMillis
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public OutboxProducerConfig withMaxBlockMillis(long maxBlockMillis) {
+		this.maxBlockMillis = maxBlockMillis;
+		return this;
+	}
+
+	/**
+	 * How the drainer reconnects when the server is not available, by default
+	 * it retries forever
+	 *
+	 * @param reconnectPolicy
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public OutboxProducerConfig withReconnectPolicy(ReconnectPolicy reconnectPolicy) {
+		this.reconnectPolicy = reconnectPolicy;
+		return this;
+	}
+
+	/**
+	 * @return the directory
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * @return the segmentBytes
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getSegmentBytes() {
+		return segmentBytes;
+	}
+
+	/**
+	 * @return the maxSegments
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getMaxSegments() {
+		return maxSegments;
+	}
+
+	/**
+	 * @return the syncPolicy
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public OutboxSyncPolicy getSyncPolicy() {
+		return syncPolicy;
+	}
+
+	/**
+	 * @return the syncIntervalMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getSyncIntervalMillis() {
+		return syncIntervalMillis;
+	}
+
+	/**
+	 * @return the blockOnOutboxFull
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isBlockOnOutboxFull() {
+		return blockOnOutboxFull;
+	}
+
+	/**
+	 * @return the maxBlockMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getMaxBlockMillis() {
+		return maxBlockMillis;
+	}
+
+	/**
+	 * @return the reconnectPolicy
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ReconnectPolicy getReconnectPolicy() {
+		return reconnectPolicy;
+	}
+}
@@ -4,6 +4,8 @@
 package com.kevinguanchedarias.sqs.producer;
 
 import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import com.kevinguanchedarias.sqs.Client;
 import com.kevinguanchedarias.sqs.Message;
@@ -23,4 +25,32 @@ public interface Producer<T extends Serializable> extends Client {
 	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
 	 */
 	public void sendMessageSync(Message<T> message);
+
+	/**
+	 * Sends a message to the queue system, failing with
+	 * {@link com.kevinguanchedarias.sqs.exception.SqsTimeoutException} if the
+	 * server doesn't accept it in time <br>
+	 * After a timeout, the message may have been accepted or not
+	 * 
+	 * @param message
+	 * @param timeout 0 or less means no timeout
+	 * @param unit
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void sendMessageSync(Message<T> message, long timeout, TimeUnit unit);
+
+	/**
+	 * Sends a message to the queue system without blocking the caller <br>
+	 * The messages are sent in the order this method is invoked, sharing the
+	 * connection <br>
+	 * <b>NOTICE:</b> Do not mix with {@link #sendMessageSync(Message)} while
+	 * there are sends in flight
+	 * 
+	 * @param message
+	 * @return A future that completes when the server has accepted the message
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public CompletableFuture<Void> sendMessageAsync(Message<T> message);
 }
@@ -0,0 +1,82 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.producer;
+
+import com.kevinguanchedarias.sqs.enumerations.BatchFlushReason;
+
+/**
+ * Describes a batch sent by {@link BatchingProducer}
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class ProducerBatchMetrics {
+	private final int messages;
+	private final long bytes;
+	private final long lingerNanos;
+	private final BatchFlushReason reason;
+
+	/**
+	 * @param messages
+	 * @param bytes
+	 * @param lingerNanos
+	 * @param reason
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ProducerBatchMetrics(int messages, long bytes, long lingerNanos, BatchFlushReason reason) {
+		this.messages = messages;
+		this.bytes = bytes;
+		this.lingerNanos = lingerNanos;
+		this.reason = reason;
+	}
+
+	/**
+	 * @return the number of messages in the batch
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getMessages() {
+		return messages;
+	}
+
+	/**
+	 * @return the bytes written for the batch
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * @return the time elapsed since the first message was added to the batch
+	 *         until it was flushed
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getLingerNanos() {
+		return lingerNanos;
+	}
+
+	/**
+	 * @return the reason
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public BatchFlushReason getReason() {
+		return reason;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ProducerBatchMetrics [messages=" + messages + ", bytes=" + bytes + ", lingerNanos=" + lingerNanos
+				+ ", reason=" + reason + "]";
+	}
+}
@@ -0,0 +1,49 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.producer;
+
+import java.io.Serializable;
+
+/**
+ * A producer taken from a {@link ProducerPool}, must be closed to return it to
+ * the pool, preferably with try-with-resources
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class ProducerLease<T extends Serializable> implements AutoCloseable {
+	private final ProducerPool<T> pool;
+	private final ProducerPool.Slot<T> slot;
+	private boolean released;
+
+	ProducerLease(ProducerPool<T> pool, ProducerPool.Slot<T> slot) {
+		this.pool = pool;
+		this.slot = slot;
+	}
+
+	/**
+	 * Returns the leased producer <br>
+	 * <b>NOTICE:</b> Do not quit it, nor keep it after closing the lease
+	 * 
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public Producer<T> getProducer() {
+		return slot.producer;
+	}
+
+	/**
+	 * Returns the producer to the pool
+	 * 
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		if (!released) {
+			released = true;
+			pool.release(slot);
+		}
+	}
+}
@@ -0,0 +1,442 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.producer;
+
+import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.kevinguanchedarias.sqs.Message;
+import com.kevinguanchedarias.sqs.exception.SqsBadStateException;
+import com.kevinguanchedarias.sqs.exception.SqsConnectionException;
+import com.kevinguanchedarias.sqs.exception.SqsPoolExhaustedException;
+import com.kevinguanchedarias.sqs.exception.SqsTimeoutException;
+
+/**
+ * Thread safe pool of connected producers <br>
+ * Each thread prefers the producer it used last time, and only when it's busy
+ * takes another idle one, so the threads don't fight for the same producers
+ * <br>
+ * Dead producers (as of {@link AbstractProducer#isAlive()}) are replaced when
+ * leased, and by a periodic task that also closes the idle ones
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class ProducerPool<T extends Serializable> implements Producer<T> {
+	private static final int EMPTY = 0;
+	private static final int IDLE = 1;
+	private static final int LEASED = 2;
+
+	private final Supplier<? extends AbstractProducer<T>> factory;
+	private final ProducerPoolConfig config;
+	private final Slot<T>[] slots;
+	private final Semaphore available;
+	private final ThreadLocal<int[]> affinity;
+	private volatile ScheduledExecutorService maintenance;
+	private volatile boolean closed;
+	private String host;
+	private int port;
+	private String queue;
+
+	/**
+	 * 
+	 * @param factory Creates the not connected producers, for example
+	 *                <i>TextProducer::new</i>
+	 * @param config
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ProducerPool(Supplier<? extends AbstractProducer<T>> factory, ProducerPoolConfig config) {
+		if (config.getMaxSize() < 1 || config.getMinSize() < 0 || config.getMinSize() > config.getMaxSize()) {
+			throw new IllegalArgumentException("Pool size must be 0 <= minSize <= maxSize, and maxSize >= 1");
+		}
+		this.factory = factory;
+		this.config = config;
+		// Arrays of a generic type can't be created, the slots only hold producers of T
+		@SuppressWarnings("unchecked")
+		Slot<T>[] newSlots = (Slot<T>[]) new Slot<?>[config.getMaxSize()];
+		slots = newSlots;
+		for (int i = 0; i < slots.length; i++) {
+			slots[i] = new Slot<>();
+		}
+		available = new Semaphore(slots.length);
+		affinity = ThreadLocal.withInitial(() -> new int[] { (int) (Thread.currentThread().getId() % slots.length) });
+	}
+
+	/**
+	 * Connects the min number of producers, in parallel
+	 * 
+	 * @see com.kevinguanchedarias.sqs.Client#connect(java.lang.String, int,
+	 *      java.lang.String)
+	 */
+	@Override
+	public void connect(String host, int port, String queue) {
+		try {
+			connectAsync(host, port, queue).join();
+		} catch (CompletionException e) {
+			throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+		}
+	}
+
+	/**
+	 * Connects the min number of producers, in parallel, the pool can be leased
+	 * right away, the leases wait until a producer is connected <br>
+	 * If any producer can't connect, all of them are closed, and the pool can
+	 * be connected again
+	 * 
+	 * @see com.kevinguanchedarias.sqs.Client#connectAsync(java.lang.String, int,
+	 *      java.lang.String)
+	 */
+	@Override
+	public synchronized CompletableFuture<Void> connectAsync(String host, int port, String queue) {
+		if (maintenance != null) {
+			throw new SqsBadStateException("The pool is already connected");
+		}
+		this.host = host;
+		this.port = port;
+		this.queue = queue;
+		int initialSize = config.getMinSize();
+		available.acquireUninterruptibly(initialSize);
+		CompletableFuture<?>[] connections = new CompletableFuture<?>[initialSize];
+		for (int i = 0; i < initialSize; i++) {
+			slots[i].state.set(LEASED);
+			slots[i].producer = factory.get();
+			connections[i] = slots[i].producer.connectAsync(host, port, queue);
+		}
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "sqs-producer-pool-maintenance");
+			thread.setDaemon(true);
+			return thread;
+		});
+		maintenance = executor;
+		return CompletableFuture.allOf(connections).whenComplete((connected, exception) -> {
+			synchronized (this) {
+				if (exception == null) {
+					for (int i = 0; i < initialSize; i++) {
+						slots[i].lastReleasedNanos = System.nanoTime();
+						slots[i].state.set(IDLE);
+					}
+					executor.scheduleWithFixedDelay(this::runMaintenance, config.getMaintenanceIntervalMillis(),
+							config.getMaintenanceIntervalMillis(), TimeUnit.MILLISECONDS);
+				} else {
+					for (int i = 0; i < initialSize; i++) {
+						discard(slots[i]);
+					}
+					executor.shutdownNow();
+					maintenance = null;
+				}
+				available.release(initialSize);
+			}
+		});
+	}
+
+	/**
+	 * Closes the idle producers, the leased ones are closed when released
+	 * 
+	 * @see com.kevinguanchedarias.sqs.Client#quit()
+	 */
+	@Override
+	public synchronized void quit() {
+		closed = true;
+		if (maintenance != null) {
+			maintenance.shutdownNow();
+		}
+		for (Slot<T> slot : slots) {
+			if (slot.state.compareAndSet(IDLE, LEASED)) {
+				discard(slot);
+			}
+		}
+	}
+
+	/**
+	 * Returns true if any of the producers is alive
+	 * 
+	 * @see com.kevinguanchedarias.sqs.Client#isAlive()
+	 */
+	@Override
+	public boolean isAlive() {
+		for (Slot<T> slot : slots) {
+			AbstractProducer<T> producer = slot.producer;
+			if (producer != null && producer.isAlive()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * com.kevinguanchedarias.sqs.producer.Producer#sendMessageSync(com.
+	 * kevinguanchedarias.sqs.Message)
+	 */
+	@Override
+	public void sendMessageSync(Message<T> message) {
+		try (ProducerLease<T> lease = lease()) {
+			lease.getProducer().sendMessageSync(message);
+		}
+	}
+
+	/**
+	 * The timeout includes the wait for a producer, the producer gets the rest
+	 * 
+	 * @see com.kevinguanchedarias.sqs.producer.Producer#sendMessageSync(com.kevinguanchedarias.sqs.Message,
+	 *      long, java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public void sendMessageSync(Message<T> message, long timeout, TimeUnit unit) {
+		if (timeout <= 0) {
+			sendMessageSync(message);
+		} else {
+			long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+			try (ProducerLease<T> lease = lease(timeout, unit)) {
+				long remainingNanos = deadlineNanos - System.nanoTime();
+				if (remainingNanos <= 0) {
+					throw new SqsTimeoutException("Timed out waiting for a producer", null);
+				}
+				lease.getProducer().sendMessageSync(message, remainingNanos, TimeUnit.NANOSECONDS);
+			}
+		}
+	}
+
+	/**
+	 * Leases a producer until the server accepts the message <br>
+	 * <b>NOTICE:</b> Blocks the caller when all the producers are leased
+	 * 
+	 * @see com.kevinguanchedarias.sqs.producer.Producer#sendMessageAsync(com.kevinguanchedarias.sqs.Message)
+	 */
+	@Override
+	public CompletableFuture<Void> sendMessageAsync(Message<T> message) {
+		ProducerLease<T> lease;
+		try {
+			lease = lease();
+		} catch (RuntimeException e) {
+			CompletableFuture<Void> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+		CompletableFuture<Void> future = lease.getProducer().sendMessageAsync(message);
+		future.whenComplete((result, exception) -> lease.close());
+		return future;
+	}
+
+	/**
+	 * Takes a connected producer for the exclusive use of the caller, waiting
+	 * up to the configured max wait when all of them are leased
+	 * 
+	 * @return
+	 * @throws SqsPoolExhaustedException When no producer was released in time
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ProducerLease<T> lease() {
+		return lease(TimeUnit.MILLISECONDS.toNanos(config.getMaxWaitMillis()), false);
+	}
+
+	/**
+	 * Takes a connected producer for the exclusive use of the caller, waiting
+	 * up to the timeout, or the configured max wait if it's shorter
+	 * 
+	 * @param timeout
+	 * @param unit
+	 * @return
+	 * @throws SqsTimeoutException       When no producer was released before
+	 *                                   the timeout
+	 * @throws SqsPoolExhaustedException When no producer was released in the
+	 *                                   configured max wait
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ProducerLease<T> lease(long timeout, TimeUnit unit) {
+		long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(config.getMaxWaitMillis());
+		long timeoutNanos = unit.toNanos(timeout);
+		return timeoutNanos > 0 && timeoutNanos < maxWaitNanos ? lease(timeoutNanos, true)
+				: lease(maxWaitNanos, false);
+	}
+
+	/**
+	 * 
+	 * @return The number of connected producers, leased or not
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getSize() {
+		int size = 0;
+		for (Slot<T> slot : slots) {
+			if (slot.producer != null) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * 
+	 * @return The number of producers that can be leased without waiting
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getAvailable() {
+		return available.availablePermits();
+	}
+
+	void release(Slot<T> slot) {
+		slot.lastReleasedNanos = System.nanoTime();
+		if (closed || !slot.producer.isAlive()) {
+			discard(slot);
+		} else {
+			slot.state.set(IDLE);
+		}
+		available.release();
+	}
+
+	private ProducerLease<T> lease(long waitNanos, boolean deadline) {
+		if (closed || maintenance == null) {
+			throw new SqsBadStateException("The pool is not connected");
+		}
+		try {
+			if (!available.tryAcquire(waitNanos, TimeUnit.NANOSECONDS)) {
+				if (deadline) {
+					throw new SqsTimeoutException("Timed out waiting for a producer", null);
+				}
+				throw new SqsPoolExhaustedException(
+						"No producer was released after waiting " + config.getMaxWaitMillis() + "ms");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SqsConnectionException("Interrupted while waiting for a producer", e);
+		}
+		try {
+			return new ProducerLease<>(this, takeSlot());
+		} catch (RuntimeException e) {
+			available.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Finds an idle slot, starting by the one used last time by the current
+	 * thread, or an empty one, the caller must own a permit
+	 * 
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private Slot<T> takeSlot() {
+		int[] preferred = affinity.get();
+		while (true) {
+			for (int i = 0; i < slots.length; i++) {
+				int index = (preferred[0] + i) % slots.length;
+				Slot<T> slot = slots[index];
+				if (slot.state.get() == IDLE && slot.state.compareAndSet(IDLE, LEASED)) {
+					preferred[0] = index;
+					return ensureConnected(slot);
+				}
+			}
+			for (int i = 0; i < slots.length; i++) {
+				int index = (preferred[0] + i) % slots.length;
+				Slot<T> slot = slots[index];
+				if (slot.state.get() == EMPTY && slot.state.compareAndSet(EMPTY, LEASED)) {
+					preferred[0] = index;
+					return ensureConnected(slot);
+				}
+			}
+			// Another permit owner took the slot we saw, there is another one free
+			Thread.yield();
+		}
+	}
+
+	private Slot<T> ensureConnected(Slot<T> slot) {
+		if (slot.producer == null || !slot.producer.isAlive()) {
+			if (slot.producer != null) {
+				slot.producer.quitQuietly();
+				slot.producer = null;
+			}
+			try {
+				slot.producer = createConnected();
+			} catch (RuntimeException e) {
+				slot.state.set(EMPTY);
+				throw e;
+			}
+		}
+		return slot;
+	}
+
+	private AbstractProducer<T> createConnected() {
+		AbstractProducer<T> producer = factory.get();
+		producer.connect(host, port, queue);
+		return producer;
+	}
+
+	private void discard(Slot<T> slot) {
+		if (slot.producer != null) {
+			slot.producer.quitQuietly();
+			slot.producer = null;
+		}
+		slot.state.set(EMPTY);
+	}
+
+	/**
+	 * Closes the dead and expired idle producers, and connects new ones until
+	 * reaching the min size
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private void runMaintenance() {
+		int connected = getSize();
+		long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMillis());
+		for (Slot<T> slot : slots) {
+			if (!closed && available.tryAcquire()) {
+				if (slot.state.compareAndSet(IDLE, LEASED)) {
+					boolean expired = System.nanoTime() - slot.lastReleasedNanos > idleTimeoutNanos
+							&& connected > config.getMinSize();
+					if (expired || !slot.producer.isAlive()) {
+						discard(slot);
+						connected--;
+					} else {
+						slot.state.set(IDLE);
+					}
+				}
+				available.release();
+			}
+		}
+		for (Slot<T> slot : slots) {
+			if (!closed && connected < config.getMinSize() && available.tryAcquire()) {
+				if (slot.state.compareAndSet(EMPTY, LEASED)) {
+					try {
+						slot.producer = createConnected();
+						slot.lastReleasedNanos = System.nanoTime();
+						slot.state.set(IDLE);
+						connected++;
+					} catch (RuntimeException e) {
+						// The server may be down, will retry in the next run
+						slot.state.set(EMPTY);
+					}
+				}
+				available.release();
+			}
+		}
+	}
+
+	/**
+	 * A position of the pool
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	static class Slot<T extends Serializable> {
+		final AtomicInteger state = new AtomicInteger(EMPTY);
+		volatile AbstractProducer<T> producer;
+		volatile long lastReleasedNanos;
+	}
+}
@@ -0,0 +1,129 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.producer;
+
+/**
+ * Configuration of a {@link ProducerPool}
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class ProducerPoolConfig {
+	private int minSize = 1;
+	private int maxSize = Runtime.getRuntime().availableProcessors();
+	private long maxWaitMillis = 30000;
+	private long idleTimeoutMillis = 60000;
+	private long maintenanceIntervalMillis = 5000;
+
+	/**
+	 * Producers connected on start, and kept connected even when idle
+	 * 
+	 * @param minSize
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ProducerPoolConfig withMinSize(int minSize) {
+		this.minSize = minSize;
+		return this;
+	}
+
+	/**
+	 * Max producers connected at the same time
+	 * 
+	 * @param maxSize
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ProducerPoolConfig withMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+		return this;
+	}
+
+	/**
+	 * Max time to wait for a producer when all of them are leased
+	 * 
+	 * @param maxWaitMillis
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ProducerPoolConfig withMaxWaitMillis(long maxWaitMillis) {
+		this.maxWaitMillis = maxWaitMillis;
+		return this;
+	}
+
+	/**
+	 * Time after which an unused producer is closed, if there are more than
+	 * {@link #withMinSize(int)}
+	 * 
+	 * @param idleTimeoutMillis
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ProducerPoolConfig withIdleTimeoutMillis(long idleTimeoutMillis) {
+		this.idleTimeoutMillis = idleTimeoutMillis;
+		return this;
+	}
+
+	/**
+	 * How often idle producers are evicted, and dead ones replaced
+	 * 
+	 * @param maintenanceIntervalMillis
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ProducerPoolConfig withMaintenanceIntervalMillis(long maintenanceIntervalMillis) {
+		this.maintenanceIntervalMillis = maintenanceIntervalMillis;
+		return this;
+	}
+
+	/**
+	 * @return the minSize
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getMinSize() {
+		return minSize;
+	}
+
+	/**
+	 * @return the maxSize
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return the maxWaitMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getMaxWaitMillis() {
+		return maxWaitMillis;
+	}
+
+	/**
+	 * @return the idleTimeoutMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getIdleTimeoutMillis() {
+		return idleTimeoutMillis;
+	}
+
+	/**
+	 * @return the maintenanceIntervalMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getMaintenanceIntervalMillis() {
+		return maintenanceIntervalMillis;
+	}
+}
@@ -3,7 +3,11 @@
  */
 package com.kevinguanchedarias.sqs.producer;
 
+import java.nio.ByteBuffer;
+
 import com.kevinguanchedarias.sqs.Message;
+import com.kevinguanchedarias.sqs.SqsRuntime;
+import com.kevinguanchedarias.sqs.protocol.SqsProtocolEncoder;
 
 /**
  * 
@@ -12,6 +16,27 @@ import com.kevinguanchedarias.sqs.Message;
  */
 public class TextProducer extends AbstractProducer<String> implements Producer<String> {
 
+	/**
+	 * Uses the default runtime
+	 * 
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TextProducer() {
+		super();
+	}
+
+	/**
+	 * 
+	 * @param runtime
+	 * @see SqsRuntime#createTextProducer()
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TextProducer(SqsRuntime runtime) {
+		super(runtime);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -21,7 +46,19 @@ public class TextProducer extends AbstractProducer<String> implements Producer<S
 	 */
 	@Override
 	protected String createMessageBody(Message<String> message) {
-		return "\"" + message.getBody() + "\"";
+		return SqsProtocolEncoder.toJsonString(message.getBody());
+	}
+
+	/**
+	 * Quotes and escapes the body directly into the buffer of the encoder
+	 * 
+	 * @see com.kevinguanchedarias.sqs.producer.AbstractProducer#createMessageBodyFrame(com.kevinguanchedarias.sqs.Message,
+	 *      com.kevinguanchedarias.sqs.protocol.SqsProtocolEncoder)
+	 * @since 1.1.0
+	 */
+	@Override
+	protected ByteBuffer createMessageBodyFrame(Message<String> message, SqsProtocolEncoder target) {
+		return target.encodeJsonStringBody(message.getBody());
 	}
 
 }
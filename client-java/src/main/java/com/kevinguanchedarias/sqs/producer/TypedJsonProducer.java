@@ -0,0 +1,87 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.producer;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.kevinguanchedarias.sqs.Message;
+import com.kevinguanchedarias.sqs.SqsRuntime;
+import com.kevinguanchedarias.sqs.exception.SqsBadJsonException;
+import com.kevinguanchedarias.sqs.protocol.SqsProtocolEncoder;
+
+/**
+ * Produces messages which body is a user POJO, serialized as JSON directly into
+ * the bytes that are sent, without intermediate Strings <br>
+ * The ObjectWriter is built once, on construction
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class TypedJsonProducer<T extends Serializable> extends AbstractProducer<T> {
+	private final ObjectWriter writer;
+
+	/**
+	 *
+	 * @param mapper
+	 * @param type   The class of the bodies
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TypedJsonProducer(ObjectMapper mapper, Class<T> type) {
+		writer = mapper.writerFor(type);
+	}
+
+	/**
+	 *
+	 * @param runtime
+	 * @param mapper
+	 * @param type    The class of the bodies
+	 * @see SqsRuntime#createTypedJsonProducer(ObjectMapper, Class)
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public TypedJsonProducer(SqsRuntime runtime, ObjectMapper mapper, Class<T> type) {
+		super(runtime);
+		writer = mapper.writerFor(type);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * com.kevinguanchedarias.sqs.producer.AbstractProducer#createMessageBody(com.
+	 * kevinguanchedarias.sqs.Message)
+	 */
+	@Override
+	protected String createMessageBody(Message<T> message) {
+		try {
+			return writer.writeValueAsString(message.getBody());
+		} catch (JsonProcessingException e) {
+			throw new SqsBadJsonException(
+					"Couldn't create the JSON, in the future, run something like RUN ABORT_MESSAGE", e);
+		}
+	}
+
+	/**
+	 * Serializes the body directly into the buffer of the encoder, which is
+	 * reused between messages
+	 *
+	 * @see com.kevinguanchedarias.sqs.producer.AbstractProducer#createMessageBodyFrame(com.kevinguanchedarias.sqs.Message,
+	 *      com.kevinguanchedarias.sqs.protocol.SqsProtocolEncoder)
+	 */
+	@Override
+	protected ByteBuffer createMessageBodyFrame(Message<T> message, SqsProtocolEncoder target) {
+		try {
+			return target.encodeMessageBody(out -> writer.writeValue(out, message.getBody()));
+		} catch (IOException e) {
+			throw new SqsBadJsonException(
+					"Couldn't create the JSON, in the future, run something like RUN ABORT_MESSAGE", e);
+		}
+	}
+}
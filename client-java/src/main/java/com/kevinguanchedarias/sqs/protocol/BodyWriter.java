@@ -0,0 +1,26 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.protocol;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the body of a message directly into the encoder buffer
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@FunctionalInterface
+public interface BodyWriter {
+
+	/**
+	 * 
+	 * @param out <b>NOTICE:</b> Must not be kept after returning
+	 * @throws IOException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void writeTo(OutputStream out) throws IOException;
+}
@@ -0,0 +1,140 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.protocol;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread safe pool of the big buffers the encoders and decoders grow into, so
+ * consecutive big messages don't allocate (and throw away) a new buffer each
+ * <br>
+ * The buffers are grouped by power of two capacities, from
+ * {@link #MIN_POOLED_CAPACITY} to {@link #MAX_POOLED_CAPACITY}, bigger ones are
+ * allocated with the exact capacity and never pooled <br>
+ * The small buffers are owned by each encoder or decoder, and are never
+ * returned to the pool
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class BufferPool {
+	public static final int MIN_POOLED_CAPACITY = 1024;
+	public static final int MAX_POOLED_CAPACITY = 16 * 1024 * 1024;
+
+	private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_POOLED_CAPACITY);
+	private static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_POOLED_CAPACITY) - MIN_SHIFT + 1;
+
+	/**
+	 * Allocates each time, and drops the released buffers, used when there is
+	 * no runtime <br>
+	 * Declared after the size classes, as its constructor uses them
+	 *
+	 * @since 1.1.0
+	 */
+	public static final BufferPool UNPOOLED = new BufferPool(0);
+
+	private final long maxPooledBytes;
+	private final AtomicLong pooledBytes = new AtomicLong();
+	private final Queue<ByteBuffer>[] heapBuffers = createSizeClasses();
+	private final Queue<ByteBuffer>[] directBuffers = createSizeClasses();
+
+	/**
+	 *
+	 * @param maxPooledBytes Max sum of the capacities of the buffers waiting in
+	 *                       the pool, the buffers released beyond it are left to
+	 *                       the garbage collector
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public BufferPool(long maxPooledBytes) {
+		this.maxPooledBytes = maxPooledBytes;
+	}
+
+	/**
+	 * Takes a cleared buffer of at least the specified capacity, rounded up to
+	 * the next power of two
+	 *
+	 * @param minCapacity
+	 * @param direct
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ByteBuffer acquire(int minCapacity, boolean direct) {
+		if (minCapacity > MAX_POOLED_CAPACITY) {
+			return allocate(minCapacity, direct);
+		}
+		int sizeClass = sizeClassOf(minCapacity);
+		ByteBuffer retVal = (direct ? directBuffers : heapBuffers)[sizeClass].poll();
+		if (retVal == null) {
+			return allocate(MIN_POOLED_CAPACITY << sizeClass, direct);
+		}
+		pooledBytes.addAndGet(-retVal.capacity());
+		retVal.clear();
+		return retVal;
+	}
+
+	/**
+	 * Returns a buffer taken with {@link #acquire(int, boolean)}, the caller
+	 * must not use it, nor any view of it, after this call
+	 *
+	 * @param buffer
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void release(ByteBuffer buffer) {
+		int capacity = buffer.capacity();
+		if (capacity < MIN_POOLED_CAPACITY || capacity > MAX_POOLED_CAPACITY || Integer.bitCount(capacity) != 1) {
+			return;
+		}
+		if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+			pooledBytes.addAndGet(-capacity);
+		} else {
+			(buffer.isDirect() ? directBuffers : heapBuffers)[sizeClassOf(capacity)].offer(buffer);
+		}
+	}
+
+	/**
+	 *
+	 * @return The sum of the capacities of the buffers waiting in the pool
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getPooledBytes() {
+		return pooledBytes.get();
+	}
+
+	/**
+	 *
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getMaxPooledBytes() {
+		return maxPooledBytes;
+	}
+
+	private static int sizeClassOf(int capacity) {
+		if (capacity <= MIN_POOLED_CAPACITY) {
+			return 0;
+		}
+		return 32 - Integer.numberOfLeadingZeros(capacity - 1) - MIN_SHIFT;
+	}
+
+	private static ByteBuffer allocate(int capacity, boolean direct) {
+		return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Queue<ByteBuffer>[] createSizeClasses() {
+		Queue<ByteBuffer>[] retVal = (Queue<ByteBuffer>[]) new Queue<?>[SIZE_CLASSES];
+		for (int i = 0; i < SIZE_CLASSES; i++) {
+			retVal[i] = new ConcurrentLinkedQueue<>();
+		}
+		return retVal;
+	}
+}
@@ -0,0 +1,28 @@
+/**
+ * 
+ */
+package com.kevinguanchedarias.sqs.protocol;
+
+/**
+ * Parses a frame directly from the bytes of the read buffer, avoiding the
+ * creation of an intermediate String
+ * 
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+@FunctionalInterface
+public interface FrameParser<R> {
+
+	/**
+	 * <b>NOTICE:</b> The source array is reused after this method returns, so it
+	 * must not be kept
+	 * 
+	 * @param source
+	 * @param offset Start of the frame in the source
+	 * @param length Bytes of the frame, without the line terminator
+	 * @return The parsed value, can't be null
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public R parse(byte[] source, int offset, int length);
+}
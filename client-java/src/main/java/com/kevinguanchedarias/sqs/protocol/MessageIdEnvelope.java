@@ -0,0 +1,142 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.protocol;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.kevinguanchedarias.sqs.exception.SqsRuntimeException;
+
+/**
+ * The JSON object that carries the id a producer assigned to a message, along
+ * with its body: <br>
+ * <code>{"$sqsId":"16 hex digits","body":the original body}</code> <br>
+ * It's always written without spaces, and the id always has 16 digits, so the
+ * consumers detect it by its first bytes, and find the body at a fixed offset
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class MessageIdEnvelope {
+	private static final byte[] PREFIX = "{\"$sqsId\":\"".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] BODY_KEY = "\",\"body\":".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+	private static final int ID_DIGITS = 16;
+	private static final int HEADER_LENGTH = PREFIX.length + ID_DIGITS + BODY_KEY.length;
+	private static final byte SUFFIX = '}';
+
+	private MessageIdEnvelope() {
+		// Static methods only
+	}
+
+	/**
+	 * Wraps the body of the frame with the id
+	 *
+	 * @param id
+	 * @param bodyFrame A view returned by the encoder, with the body followed by
+	 *                  the END_MESSAGE line
+	 * @param target    The encoder of the frame
+	 * @return The envelope followed by the END_MESSAGE line
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static ByteBuffer wrap(long id, ByteBuffer bodyFrame, SqsProtocolEncoder target) {
+		ByteBuffer body = bodyFrame.duplicate();
+		body.limit(body.limit() - SqsProtocolEncoder.END_MESSAGE_SUFFIX_LENGTH);
+		try {
+			// The encoder keeps the bytes of the frame when it grows, so the body can
+			// be read while the envelope is appended
+			return target.encodeMessageBody(out -> {
+				byte[] header = new byte[HEADER_LENGTH];
+				System.arraycopy(PREFIX, 0, header, 0, PREFIX.length);
+				for (int i = 0; i < ID_DIGITS; i++) {
+					header[PREFIX.length + i] = HEX[(int) (id >>> (60 - i * 4)) & 0xF];
+				}
+				System.arraycopy(BODY_KEY, 0, header, PREFIX.length + ID_DIGITS, BODY_KEY.length);
+				out.write(header);
+				if (body.hasArray()) {
+					out.write(body.array(), body.arrayOffset() + body.position(), body.remaining());
+				} else {
+					byte[] copy = new byte[body.remaining()];
+					body.get(copy);
+					out.write(copy);
+				}
+				out.write(SUFFIX);
+			});
+		} catch (IOException e) {
+			throw new SqsRuntimeException("Couldn't wrap the body with the message id", e);
+		}
+	}
+
+	/**
+	 *
+	 * @param source
+	 * @param offset
+	 * @param length
+	 * @return true if the body is an envelope
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static boolean isEnvelope(byte[] source, int offset, int length) {
+		if (length < HEADER_LENGTH + 1 || source[offset + length - 1] != SUFFIX) {
+			return false;
+		}
+		for (int i = 0; i < PREFIX.length; i++) {
+			if (source[offset + i] != PREFIX[i]) {
+				return false;
+			}
+		}
+		for (int i = 0; i < BODY_KEY.length; i++) {
+			if (source[offset + PREFIX.length + ID_DIGITS + i] != BODY_KEY[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 *
+	 * @param source An envelope, as checked by
+	 *               {@link #isEnvelope(byte[], int, int)}
+	 * @param offset
+	 * @return The id of the message
+	 * @throws NumberFormatException When the id is not hexadecimal
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static long getId(byte[] source, int offset) {
+		long retVal = 0;
+		for (int i = offset + PREFIX.length; i < offset + PREFIX.length + ID_DIGITS; i++) {
+			int digit = Character.digit(source[i], 16);
+			if (digit == -1) {
+				throw new NumberFormatException("The message id is not hexadecimal");
+			}
+			retVal = (retVal << 4) | digit;
+		}
+		return retVal;
+	}
+
+	/**
+	 *
+	 * @param offset Of the envelope
+	 * @return The offset of the original body
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static int getBodyOffset(int offset) {
+		return offset + HEADER_LENGTH;
+	}
+
+	/**
+	 *
+	 * @param length Of the envelope
+	 * @return The length of the original body
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static int getBodyLength(int length) {
+		return length - HEADER_LENGTH - 1;
+	}
+}
@@ -0,0 +1,313 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.kevinguanchedarias.sqs.exception.SqsInvalidServerResponseException;
+
+/**
+ * Incremental decoder that splits the server responses in <i>\r\n</i>
+ * terminated frames <br>
+ * The read buffer is kept per connection, and only grows when a single frame
+ * doesn't fit in it, after the big frame has been consumed, the buffer goes
+ * back to its initial capacity <br>
+ * Bytes following a frame are kept for the next one, so it doesn't matter if
+ * the TCP stack joins or splits the responses <br>
+ * <b>NOTICE:</b> Not thread safe, there must be an instance per connection
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class SqsProtocolDecoder {
+	private static final byte CR = '\r';
+	private static final byte LF = '\n';
+	private static final FrameParser<String> UTF8_PARSER = (source, offset, length) -> new String(source, offset,
+			length, StandardCharsets.UTF_8);
+
+	private final int initialCapacity;
+	private final int maxCapacity;
+	private final boolean direct;
+	private final BufferPool bufferPool;
+	private final ByteBuffer initialBuffer;
+	private ByteBuffer buffer;
+	private int readIndex;
+	private int scanIndex;
+	private byte[] directScratch;
+
+	/**
+	 *
+	 * @param initialCapacity The size of the buffer when there are no big frames
+	 * @param maxCapacity     The max size a single frame can have
+	 * @param direct          If true will use a direct buffer, which avoids one
+	 *                        copy when reading from the socket
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsProtocolDecoder(int initialCapacity, int maxCapacity, boolean direct) {
+		this(initialCapacity, maxCapacity, direct, BufferPool.UNPOOLED);
+	}
+
+	/**
+	 *
+	 * @param initialCapacity The size of the buffer when there are no big frames
+	 * @param maxCapacity     The max size a single frame can have
+	 * @param direct          If true will use a direct buffer, which avoids one
+	 *                        copy when reading from the socket
+	 * @param bufferPool      Provides the buffers used by the big frames
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsProtocolDecoder(int initialCapacity, int maxCapacity, boolean direct, BufferPool bufferPool) {
+		if (initialCapacity < 2 || initialCapacity > maxCapacity) {
+			throw new IllegalArgumentException(
+					"initialCapacity must be between 2 and maxCapacity, specified " + initialCapacity);
+		}
+		this.initialCapacity = initialCapacity;
+		this.maxCapacity = maxCapacity;
+		this.direct = direct;
+		this.bufferPool = bufferPool;
+		initialBuffer = direct ? ByteBuffer.allocateDirect(initialCapacity) : ByteBuffer.allocate(initialCapacity);
+		buffer = initialBuffer;
+	}
+
+	/**
+	 * Returns the next complete frame (without the line terminator), or null if
+	 * more bytes are required <br>
+	 * Empty lines are skipped, as the server surrounds some responses with them
+	 *
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String nextFrame() {
+		return nextFrame(UTF8_PARSER);
+	}
+
+	/**
+	 * Passes the bytes of the next complete frame to the parser, the parser is
+	 * not invoked if more bytes are required <br>
+	 * Empty lines are skipped
+	 *
+	 * @param parser
+	 * @return The result of the parser, or null if more bytes are required
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public <R> R nextFrame(FrameParser<R> parser) {
+		int frameEnd;
+		while ((frameEnd = findFrameEnd()) != -1) {
+			int frameStart = readIndex;
+			readIndex = frameEnd + 2;
+			scanIndex = readIndex;
+			if (frameEnd > frameStart) {
+				R frame = parse(parser, frameStart, frameEnd - frameStart);
+				releaseIfDrained();
+				return frame;
+			}
+		}
+		releaseIfDrained();
+		return null;
+	}
+
+	/**
+	 * Returns the buffer in which the socket should write the incoming bytes <br>
+	 * Will compact or grow the buffer when there is no free space
+	 *
+	 * @return
+	 * @throws SqsInvalidServerResponseException When a frame is bigger than the
+	 *                                           max capacity
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ByteBuffer readTarget() {
+		if (!buffer.hasRemaining()) {
+			if (readIndex > 0) {
+				compact();
+			} else {
+				grow();
+			}
+		}
+		return buffer;
+	}
+
+	/**
+	 * Returns true if there are bytes received that have not been returned as
+	 * frames yet
+	 *
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean hasPendingBytes() {
+		return buffer.position() > readIndex;
+	}
+
+	/**
+	 * Discards any pending byte, used when the connection is opened again
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void reset() {
+		readIndex = buffer.position();
+		releaseIfDrained();
+	}
+
+	/**
+	 *
+	 * @return The current capacity of the read buffer
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getCapacity() {
+		return buffer.capacity();
+	}
+
+	/**
+	 * Decodes a body sent as a JSON string, removing the quotes and the escapes
+	 * <br>
+	 * When there are no escapes, the String is created directly from the bytes
+	 * inside the quotes, unquoted bodies are returned as they are
+	 *
+	 * @param source
+	 * @param offset
+	 * @param length
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static String decodeJsonString(byte[] source, int offset, int length) {
+		if (length < 2 || source[offset] != '"' || source[offset + length - 1] != '"') {
+			return new String(source, offset, length, StandardCharsets.UTF_8);
+		}
+		String inner = new String(source, offset + 1, length - 2, StandardCharsets.UTF_8);
+		for (int i = offset + 1; i < offset + length - 1; i++) {
+			if (source[i] == '\\') {
+				return unescapeJson(inner);
+			}
+		}
+		return inner;
+	}
+
+	/**
+	 * Same as {@link #decodeJsonString(byte[], int, int)} for an already decoded
+	 * body
+	 *
+	 * @param body
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static String decodeJsonString(String body) {
+		if (body.length() < 2 || body.charAt(0) != '"' || body.charAt(body.length() - 1) != '"') {
+			return body;
+		}
+		String inner = body.substring(1, body.length() - 1);
+		return inner.indexOf('\\') == -1 ? inner : unescapeJson(inner);
+	}
+
+	private static String unescapeJson(String value) {
+		StringBuilder retVal = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char current = value.charAt(i);
+			if (current != '\\' || i + 1 == value.length()) {
+				retVal.append(current);
+				continue;
+			}
+			char escaped = value.charAt(++i);
+			switch (escaped) {
+			case 'n':
+				retVal.append('\n');
+				break;
+			case 'r':
+				retVal.append('\r');
+				break;
+			case 't':
+				retVal.append('\t');
+				break;
+			case 'b':
+				retVal.append('\b');
+				break;
+			case 'f':
+				retVal.append('\f');
+				break;
+			case 'u':
+				if (i + 4 < value.length()) {
+					retVal.append((char) Integer.parseInt(value.substring(i + 1, i + 5), 16));
+					i += 4;
+				} else {
+					retVal.append('\\').append(escaped);
+				}
+				break;
+			default:
+				retVal.append(escaped);
+			}
+		}
+		return retVal.toString();
+	}
+
+	private int findFrameEnd() {
+		int end = buffer.position();
+		for (int i = Math.max(scanIndex, readIndex); i < end - 1; i++) {
+			if (buffer.get(i) == CR && buffer.get(i + 1) == LF) {
+				return i;
+			}
+		}
+		scanIndex = Math.max(readIndex, end - 1);
+		return -1;
+	}
+
+	private <R> R parse(FrameParser<R> parser, int start, int length) {
+		if (buffer.hasArray()) {
+			return parser.parse(buffer.array(), buffer.arrayOffset() + start, length);
+		} else {
+			if (directScratch == null || directScratch.length < length) {
+				directScratch = new byte[Math.max(length, initialCapacity)];
+			}
+			ByteBuffer view = buffer.duplicate();
+			view.limit(start + length).position(start);
+			view.get(directScratch, 0, length);
+			R retVal = parser.parse(directScratch, 0, length);
+			if (directScratch.length > initialCapacity) {
+				directScratch = null;
+			}
+			return retVal;
+		}
+	}
+
+	private void releaseIfDrained() {
+		if (readIndex == buffer.position()) {
+			if (buffer != initialBuffer) {
+				bufferPool.release(buffer);
+				buffer = initialBuffer;
+			}
+			buffer.clear();
+			readIndex = 0;
+			scanIndex = 0;
+		}
+	}
+
+	private void compact() {
+		buffer.limit(buffer.position());
+		buffer.position(readIndex);
+		buffer.compact();
+		scanIndex -= readIndex;
+		readIndex = 0;
+	}
+
+	private void grow() {
+		if (buffer.capacity() >= maxCapacity) {
+			throw SqsInvalidServerResponseException.fromOversizedResponse(maxCapacity);
+		}
+		ByteBuffer newBuffer = bufferPool.acquire((int) Math.min((long) buffer.capacity() * 2, maxCapacity), direct);
+		buffer.flip();
+		newBuffer.put(buffer);
+		if (buffer != initialBuffer) {
+			bufferPool.release(buffer);
+		}
+		buffer = newBuffer;
+	}
+}
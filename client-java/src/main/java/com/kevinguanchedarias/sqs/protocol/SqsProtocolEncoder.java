@@ -0,0 +1,359 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.protocol;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes the variable lines of the SQS protocol directly as UTF-8 bytes, into
+ * a buffer reused between messages <br>
+ * Call {@link #begin()} before encoding the lines of a message, each encode
+ * method returns a view of the bytes it appended, the views are valid until
+ * the next {@link #begin()} <br>
+ * The constant lines are in
+ * {@link com.kevinguanchedarias.sqs.enumerations.ProtocolCommand} <br>
+ * <b>NOTICE:</b> Not thread safe, there must be an instance per connection, or
+ * per thread
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class SqsProtocolEncoder {
+	/**
+	 * Bytes appended after the body by the encodeMessageBody methods
+	 * 
+	 * @since 1.1.0
+	 */
+	public static final int END_MESSAGE_SUFFIX_LENGTH = 15;
+	private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] SET_PREFIX = "SET ".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] SET_SUFFIX = ";\r\n".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] END_MESSAGE_SUFFIX = "\r\nEND_MESSAGE\r\n".getBytes(StandardCharsets.UTF_8);
+	private static final int MAX_BYTES_PER_CHAR = 6;
+
+	private final BufferPool bufferPool;
+	private final ByteBuffer initialBuffer;
+	private final List<ByteBuffer> outgrownBuffers = new ArrayList<>();
+	private final CharsetEncoder utf8 = StandardCharsets.UTF_8.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+	private final OutputStream bufferStream = new BufferOutputStream();
+	private ByteBuffer buffer;
+
+	/**
+	 *
+	 * @param initialCapacity The size of the buffer when there are no big
+	 *                        messages
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsProtocolEncoder(int initialCapacity) {
+		this(initialCapacity, BufferPool.UNPOOLED);
+	}
+
+	/**
+	 *
+	 * @param initialCapacity The size of the buffer when there are no big
+	 *                        messages
+	 * @param bufferPool      Provides the buffers used by the big messages
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public SqsProtocolEncoder(int initialCapacity, BufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+		initialBuffer = ByteBuffer.allocate(initialCapacity);
+		buffer = initialBuffer;
+	}
+
+	/**
+	 * Starts a new message, the views returned before are no longer valid <br>
+	 * If the last message required growing the buffer, the big buffers go back
+	 * to the pool, and the initial one is used again
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void begin() {
+		if (buffer != initialBuffer) {
+			for (ByteBuffer outgrown : outgrownBuffers) {
+				bufferPool.release(outgrown);
+			}
+			outgrownBuffers.clear();
+			bufferPool.release(buffer);
+			buffer = initialBuffer;
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Encodes <i>SET key=value;\r\n</i>
+	 *
+	 * @param key
+	 * @param value
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ByteBuffer encodeSet(String key, CharSequence value) {
+		int start = buffer.position();
+		put(SET_PREFIX);
+		putUtf8(key);
+		put((byte) '=');
+		putUtf8(value);
+		put(SET_SUFFIX);
+		return view(start);
+	}
+
+	/**
+	 * Encodes <i>SET key=value;\r\n</i>, writing the digits without creating a
+	 * String
+	 *
+	 * @param key
+	 * @param value
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ByteBuffer encodeSet(String key, long value) {
+		int start = buffer.position();
+		put(SET_PREFIX);
+		putUtf8(key);
+		put((byte) '=');
+		putDigits(value);
+		put(SET_SUFFIX);
+		return view(start);
+	}
+
+	/**
+	 * Encodes the body, followed by the END_MESSAGE line
+	 *
+	 * @param body
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ByteBuffer encodeMessageBody(CharSequence body) {
+		int start = buffer.position();
+		putUtf8(body);
+		put(END_MESSAGE_SUFFIX);
+		return view(start);
+	}
+
+	/**
+	 * Lets the writer write the body directly into the buffer, followed by the
+	 * END_MESSAGE line
+	 *
+	 * @param writer
+	 * @return
+	 * @throws IOException Thrown by the writer
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ByteBuffer encodeMessageBody(BodyWriter writer) throws IOException {
+		int start = buffer.position();
+		writer.writeTo(bufferStream);
+		put(END_MESSAGE_SUFFIX);
+		return view(start);
+	}
+
+	/**
+	 * Encodes the body as a JSON string, quoted and escaped in a single pass,
+	 * followed by the END_MESSAGE line <br>
+	 * As line breaks are escaped, the body can't end the section before time
+	 *
+	 * @param body
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ByteBuffer encodeJsonStringBody(CharSequence body) {
+		int start = buffer.position();
+		put((byte) '"');
+		int length = body.length();
+		for (int i = 0; i < length; i++) {
+			ensureRemaining(MAX_BYTES_PER_CHAR);
+			char current = body.charAt(i);
+			if (current == '"' || current == '\\') {
+				buffer.put((byte) '\\').put((byte) current);
+			} else if (current < 0x20) {
+				putEscapedControl(current);
+			} else if (current < 0x80) {
+				buffer.put((byte) current);
+			} else if (current < 0x800) {
+				buffer.put((byte) (0xC0 | (current >> 6))).put((byte) (0x80 | (current & 0x3F)));
+			} else if (Character.isHighSurrogate(current) && i + 1 < length
+					&& Character.isLowSurrogate(body.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(current, body.charAt(++i));
+				buffer.put((byte) (0xF0 | (codePoint >> 18))).put((byte) (0x80 | ((codePoint >> 12) & 0x3F)))
+						.put((byte) (0x80 | ((codePoint >> 6) & 0x3F))).put((byte) (0x80 | (codePoint & 0x3F)));
+			} else if (Character.isSurrogate(current)) {
+				buffer.put((byte) '?');
+			} else {
+				buffer.put((byte) (0xE0 | (current >> 12))).put((byte) (0x80 | ((current >> 6) & 0x3F)))
+						.put((byte) (0x80 | (current & 0x3F)));
+			}
+		}
+		put((byte) '"');
+		put(END_MESSAGE_SUFFIX);
+		return view(start);
+	}
+
+	/**
+	 * Quotes and escapes the value as a JSON string
+	 *
+	 * @param value
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static String toJsonString(CharSequence value) {
+		StringBuilder retVal = new StringBuilder(value.length() + 2).append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char current = value.charAt(i);
+			if (current == '"' || current == '\\') {
+				retVal.append('\\').append(current);
+			} else if (current < 0x20) {
+				retVal.append(String.format("\\u%04x", (int) current));
+			} else {
+				retVal.append(current);
+			}
+		}
+		return retVal.append('"').toString();
+	}
+
+	/**
+	 * Copies the encoded bytes to a buffer owned by the caller, used when the
+	 * bytes have to survive the next {@link #begin()}
+	 *
+	 * @param views Views returned by this encoder, or command frames
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static ByteBuffer copyOf(ByteBuffer... views) {
+		int size = 0;
+		for (ByteBuffer view : views) {
+			size += view.remaining();
+		}
+		ByteBuffer retVal = ByteBuffer.allocate(size);
+		for (ByteBuffer view : views) {
+			retVal.put(view.duplicate());
+		}
+		retVal.flip();
+		return retVal;
+	}
+
+	private void putEscapedControl(char current) {
+		buffer.put((byte) '\\');
+		switch (current) {
+		case '\n':
+			buffer.put((byte) 'n');
+			break;
+		case '\r':
+			buffer.put((byte) 'r');
+			break;
+		case '\t':
+			buffer.put((byte) 't');
+			break;
+		case '\b':
+			buffer.put((byte) 'b');
+			break;
+		case '\f':
+			buffer.put((byte) 'f');
+			break;
+		default:
+			buffer.put((byte) 'u').put((byte) '0').put((byte) '0').put(HEX[current >> 4]).put(HEX[current & 0xF]);
+		}
+	}
+
+	private void putUtf8(CharSequence value) {
+		CharBuffer chars = CharBuffer.wrap(value);
+		utf8.reset();
+		ensureRemaining((int) (chars.remaining() * utf8.averageBytesPerChar()));
+		CoderResult result;
+		while ((result = utf8.encode(chars, buffer, true)).isOverflow()) {
+			ensureRemaining(Math.max(chars.remaining(), 16) * 3);
+		}
+		while (utf8.flush(buffer).isOverflow()) {
+			ensureRemaining(16);
+		}
+		if (result.isError()) {
+			throw new IllegalStateException("Unexpected encoding result " + result);
+		}
+	}
+
+	private void putDigits(long value) {
+		if (value == Long.MIN_VALUE) {
+			putUtf8(Long.toString(value));
+			return;
+		}
+		ensureRemaining(20);
+		long remaining = value;
+		if (remaining < 0) {
+			buffer.put((byte) '-');
+			remaining = -remaining;
+		}
+		long divisor = 1;
+		while (remaining / divisor >= 10) {
+			divisor *= 10;
+		}
+		for (; divisor > 0; divisor /= 10) {
+			buffer.put((byte) ('0' + (remaining / divisor) % 10));
+		}
+	}
+
+	private void put(byte value) {
+		ensureRemaining(1);
+		buffer.put(value);
+	}
+
+	private void put(byte[] value) {
+		ensureRemaining(value.length);
+		buffer.put(value);
+	}
+
+	private ByteBuffer view(int start) {
+		ByteBuffer retVal = buffer.duplicate();
+		retVal.limit(buffer.position()).position(start);
+		return retVal;
+	}
+
+	private class BufferOutputStream extends OutputStream {
+		@Override
+		public void write(int value) {
+			put((byte) value);
+		}
+
+		@Override
+		public void write(byte[] source, int offset, int length) {
+			ensureRemaining(length);
+			buffer.put(source, offset, length);
+		}
+	}
+
+	/**
+	 * The outgrown buffers are kept until {@link #begin()}, as the views
+	 * returned before still point to them
+	 */
+	private void ensureRemaining(int bytes) {
+		if (buffer.remaining() < bytes) {
+			int required = buffer.position() + bytes;
+			ByteBuffer newBuffer = bufferPool.acquire(Math.max(required, buffer.capacity() * 2), false);
+			buffer.flip();
+			newBuffer.put(buffer);
+			if (buffer != initialBuffer) {
+				outgrownBuffers.add(buffer);
+			}
+			buffer = newBuffer;
+		}
+	}
+}
@@ -0,0 +1,187 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.protocol;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.kevinguanchedarias.sqs.exception.SqsInvalidServerResponseException;
+
+/**
+ * A part of a streamed body, sent as the body of its own message, a JSON
+ * object the server accepts: <br>
+ * <code>{"$sqsChunk":"group id","seq":0,"last":false,"data":"base64"}</code>
+ * <br>
+ * It's always written without spaces, so the consumers detect it by its first
+ * bytes
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public final class StreamChunk {
+	private static final byte[] PREFIX = "{\"$sqsChunk\":\"".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] SEQUENCE_KEY = "\",\"seq\":".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] LAST_TRUE = ",\"last\":true,\"data\":\"".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] LAST_FALSE = ",\"last\":false,\"data\":\"".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] SUFFIX = "\"}".getBytes(StandardCharsets.UTF_8);
+
+	private final String groupId;
+	private final long sequence;
+	private final boolean last;
+	private final ByteBuffer data;
+
+	/**
+	 *
+	 * @param groupId  null for a body that was not streamed
+	 * @param sequence Position of the chunk in the stream, starting at 0
+	 * @param last
+	 * @param data
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public StreamChunk(String groupId, long sequence, boolean last, ByteBuffer data) {
+		this.groupId = groupId;
+		this.sequence = sequence;
+		this.last = last;
+		this.data = data;
+	}
+
+	/**
+	 * Encodes the chunk as the body of a message, followed by the END_MESSAGE
+	 * line
+	 *
+	 * @param target
+	 * @param groupId  Same for all the chunks of a stream, must not contain
+	 *                 quotes nor backslashes
+	 * @param sequence
+	 * @param last
+	 * @param source
+	 * @param offset
+	 * @param length
+	 * @return A view of the encoder
+	 * @throws IOException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static ByteBuffer encode(SqsProtocolEncoder target, String groupId, long sequence, boolean last,
+			byte[] source, int offset, int length) throws IOException {
+		return target.encodeMessageBody(out -> {
+			out.write(PREFIX);
+			out.write(groupId.getBytes(StandardCharsets.UTF_8));
+			out.write(SEQUENCE_KEY);
+			out.write(Long.toString(sequence).getBytes(StandardCharsets.UTF_8));
+			out.write(last ? LAST_TRUE : LAST_FALSE);
+			ByteBuffer encoded = Base64.getEncoder().encode(ByteBuffer.wrap(source, offset, length));
+			out.write(encoded.array(), encoded.arrayOffset() + encoded.position(), encoded.remaining());
+			out.write(SUFFIX);
+		});
+	}
+
+	/**
+	 *
+	 * @param source
+	 * @param offset
+	 * @param length
+	 * @return null if the body is not a chunk
+	 * @throws SqsInvalidServerResponseException When the body starts like a
+	 *                                           chunk, but it's not valid
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public static StreamChunk parse(byte[] source, int offset, int length) {
+		int end = offset + length;
+		if (!matches(source, offset, end, PREFIX)) {
+			return null;
+		}
+		int position = offset + PREFIX.length;
+		int groupIdStart = position;
+		while (position < end && source[position] != '"') {
+			position++;
+		}
+		String groupId = new String(source, groupIdStart, position - groupIdStart, StandardCharsets.UTF_8);
+		if (!matches(source, position, end, SEQUENCE_KEY)) {
+			throw invalidChunk();
+		}
+		position += SEQUENCE_KEY.length;
+		long sequence = 0;
+		int digitsStart = position;
+		while (position < end && source[position] >= '0' && source[position] <= '9') {
+			sequence = sequence * 10 + (source[position++] - '0');
+		}
+		boolean last;
+		if (position > digitsStart && matches(source, position, end, LAST_TRUE)) {
+			last = true;
+			position += LAST_TRUE.length;
+		} else if (position > digitsStart && matches(source, position, end, LAST_FALSE)) {
+			last = false;
+			position += LAST_FALSE.length;
+		} else {
+			throw invalidChunk();
+		}
+		if (!matches(source, end - SUFFIX.length, end, SUFFIX) || end - SUFFIX.length < position) {
+			throw invalidChunk();
+		}
+		try {
+			ByteBuffer data = Base64.getDecoder()
+					.decode(ByteBuffer.wrap(source, position, end - SUFFIX.length - position));
+			return new StreamChunk(groupId, sequence, last, data);
+		} catch (IllegalArgumentException e) {
+			throw invalidChunk();
+		}
+	}
+
+	/**
+	 * @return the groupId
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String getGroupId() {
+		return groupId;
+	}
+
+	/**
+	 * @return the sequence
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * @return the last
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isLast() {
+		return last;
+	}
+
+	/**
+	 * @return the data
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public ByteBuffer getData() {
+		return data;
+	}
+
+	private static SqsInvalidServerResponseException invalidChunk() {
+		return SqsInvalidServerResponseException.fromInvalidBody("stream chunk");
+	}
+
+	private static boolean matches(byte[] source, int start, int end, byte[] expected) {
+		if (end - start < expected.length) {
+			return false;
+		}
+		for (int i = 0; i < expected.length; i++) {
+			if (source[start + i] != expected[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
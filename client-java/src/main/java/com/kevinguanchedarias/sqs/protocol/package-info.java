@@ -0,0 +1,9 @@
+
+/**
+ * Has the classes that translate between the wire format of the SQS server and
+ * the client
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+package com.kevinguanchedarias.sqs.protocol;
@@ -144,6 +144,10 @@ export class SimpleQueueServer {
             await SocketHandlingUtil.asyncWrite(session.socket, 'OK\r\n');
             session.socket.destroy();
         });
+        SocketHandlingUtil.addCommand('PING', async (session) => {
+            await SocketHandlingUtil.asyncWrite(session.socket, 'OK\r\n');
+            session.buffer = '';
+        });
     }
 
     private _handleSocketError(err: Error): void {
@@ -0,0 +1,534 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.testkit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.kevinguanchedarias.sqs.testkit.enumerations.FaultType;
+
+/**
+ * Embeddable stand-in of the SQS server, speaking the same protocol
+ * (HELO/CONFIG/METADATA/MESSAGE/GET_MESSAGE/RUN QUIT/RUN PING/RUN RESET_ACK) over a
+ * single <i>java.nio</i> selector thread, with in memory queues <br>
+ * Unlike the Node server, each QUEUE is independent, and has its own consumer
+ * <br>
+ * Responses can be delayed, and faults injected, see
+ * {@link EmbeddedSqsServerConfig}
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class EmbeddedSqsServer implements Closeable {
+	private static final long FRAGMENT_GAP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final int MAX_FRAGMENTS = 16;
+
+	/**
+	 * Same as the Node server, so many clients can connect at once
+	 */
+	private static final int ACCEPT_BACKLOG = 511;
+	private static final byte[] INJECTED_ERROR = "ERROR: Injected fault\r\n".getBytes(StandardCharsets.UTF_8);
+
+	private final EmbeddedSqsServerConfig config;
+	private final Selector selector;
+	private final ServerSocketChannel serverChannel;
+	private final Thread selectorThread;
+	private final Random random;
+	private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+	private final PriorityQueue<Timer> timers = new PriorityQueue<>();
+	private final Map<String, MemoryQueue> queues = new HashMap<>();
+	private final Deque<FaultType> forcedFaults = new ArrayDeque<>();
+	private final List<ServerConnection> connections = new ArrayList<>();
+	private final AtomicInteger openConnections = new AtomicInteger();
+	private final AtomicLong acceptedMessages = new AtomicLong();
+	private final AtomicLong deliveredMessages = new AtomicLong();
+	private final AtomicLong acknowledgedMessages = new AtomicLong();
+	private final AtomicLong injectedFaults = new AtomicLong();
+	private volatile boolean running = true;
+	private volatile Exception failure;
+	private long timerSequence;
+
+	/**
+	 * Starts a server with the default configuration, in a free port of the
+	 * loopback interface
+	 *
+	 * @throws IOException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public EmbeddedSqsServer() throws IOException {
+		this(new EmbeddedSqsServerConfig());
+	}
+
+	/**
+	 *
+	 * @param config
+	 * @throws IOException
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public EmbeddedSqsServer(EmbeddedSqsServerConfig config) throws IOException {
+		this.config = config;
+		random = new Random(config.getRandomSeed());
+		selector = Selector.open();
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.bind(new InetSocketAddress(config.getHost(), config.getPort()), ACCEPT_BACKLOG);
+		serverChannel.configureBlocking(false);
+		serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+		selectorThread = new Thread(this::selectLoop, "sqs-testkit-selector");
+		selectorThread.setDaemon(true);
+		selectorThread.start();
+	}
+
+	/**
+	 *
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String getHost() {
+		return config.getHost();
+	}
+
+	/**
+	 *
+	 * @return The port the server is listening on
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getPort() {
+		return serverChannel.socket().getLocalPort();
+	}
+
+	/**
+	 * Adds a ready message to the queue, as if a producer had sent it
+	 *
+	 * @param queue
+	 * @param body  The body as it travels in the wire, Ex: text bodies are
+	 *              quoted
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void enqueue(String queue, String body) {
+		runOnSelector(() -> {
+			acceptedMessages.incrementAndGet();
+			offer(getQueue(queue), body);
+		});
+	}
+
+	/**
+	 *
+	 * @param queue
+	 * @return The messages accepted and ready to be delivered, in delivery order
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public List<String> getReadyMessages(String queue) {
+		return callOnSelector(() -> new ArrayList<>(getQueue(queue).getReady()));
+	}
+
+	/**
+	 *
+	 * @param queue
+	 * @return The messages the consumer has closed with <i>SET ACK=FALSE</i>,
+	 *         waiting for a RESET_ACK or a new consumer
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public List<String> getNackedMessages(String queue) {
+		return callOnSelector(() -> new ArrayList<>(getQueue(queue).getNacked()));
+	}
+
+	/**
+	 *
+	 * @param queue
+	 * @return The accepted messages which deliver date has not been reached yet
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getDelayedMessages(String queue) {
+		return callOnSelector(() -> getQueue(queue).getDelayed());
+	}
+
+	/**
+	 * Injects the fault in the next command received by any connection,
+	 * regardless of the configured probabilities <br>
+	 * Can be called many times to inject faults in consecutive commands
+	 *
+	 * @param type
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public void injectFault(FaultType type) {
+		callOnSelector(() -> forcedFaults.add(type));
+	}
+
+	/**
+	 *
+	 * @return Number of messages accepted from producers, or enqueued
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getAcceptedMessages() {
+		return acceptedMessages.get();
+	}
+
+	/**
+	 *
+	 * @return Number of messages sent to consumers, including redeliveries
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getDeliveredMessages() {
+		return deliveredMessages.get();
+	}
+
+	/**
+	 *
+	 * @return Number of GET_MESSAGE sections closed with ACK
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getAcknowledgedMessages() {
+		return acknowledgedMessages.get();
+	}
+
+	/**
+	 *
+	 * @return Number of faults injected, either configured or forced
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getInjectedFaults() {
+		return injectedFaults.get();
+	}
+
+	/**
+	 *
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getOpenConnections() {
+		return openConnections.get();
+	}
+
+	/**
+	 * The error that stopped the selector thread, after it the server closes
+	 * all the connections and stops listening, tests should check it's null
+	 *
+	 * @return null while the server works
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public Exception getFailure() {
+		return failure;
+	}
+
+	/**
+	 * Closes all the connections and stops listening
+	 *
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		running = false;
+		selector.wakeup();
+		try {
+			selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	EmbeddedSqsServerConfig getConfig() {
+		return config;
+	}
+
+	MemoryQueue getQueue(String name) {
+		return queues.computeIfAbsent(name, key -> new MemoryQueue());
+	}
+
+	/**
+	 * Decides which fault, if any, should be injected in the command being
+	 * processed
+	 *
+	 * @return null if none
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	FaultType rollFault() {
+		FaultType retVal = forcedFaults.poll();
+		if (retVal == null) {
+			for (FaultType type : FaultType.values()) {
+				double probability = config.getFaultProbability(type);
+				if (probability > 0 && random.nextDouble() < probability) {
+					retVal = type;
+					break;
+				}
+			}
+		}
+		if (retVal != null) {
+			injectedFaults.incrementAndGet();
+		}
+		return retVal;
+	}
+
+	/**
+	 * Sends the response after the configured latency, applying the fault
+	 *
+	 * @param connection
+	 * @param response
+	 * @param fault      Only STALL and FRAGMENT are applied here, the others
+	 *                   prevent processing the command
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void respond(ServerConnection connection, byte[] response, FaultType fault) {
+		if (fault == FaultType.STALL) {
+			return;
+		}
+		long latency = config.getMinLatencyNanos()
+				+ (long) (random.nextDouble() * (config.getMaxLatencyNanos() - config.getMinLatencyNanos()));
+		long now = System.nanoTime();
+		long due = Math.max(now + latency, connection.getLastResponseDue());
+		if (fault == FaultType.FRAGMENT) {
+			int fragments = Math.min(response.length, MAX_FRAGMENTS);
+			int fragmentSize = (response.length + fragments - 1) / fragments;
+			for (int offset = 0; offset < response.length; offset += fragmentSize) {
+				ByteBuffer fragment = ByteBuffer.wrap(response, offset, Math.min(fragmentSize, response.length - offset));
+				due += FRAGMENT_GAP_NANOS;
+				schedule(due, () -> connection.write(fragment));
+			}
+		} else if (due <= now) {
+			connection.write(ByteBuffer.wrap(response));
+		} else {
+			schedule(due, () -> connection.write(ByteBuffer.wrap(response)));
+		}
+		connection.setLastResponseDue(due);
+	}
+
+	/**
+	 * Closes the connection after the responses already scheduled have been sent
+	 *
+	 * @param connection
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void closeAfterResponses(ServerConnection connection) {
+		if (connection.getLastResponseDue() - System.nanoTime() <= 0) {
+			connection.closeAfterFlush();
+		} else {
+			schedule(connection.getLastResponseDue(), connection::closeAfterFlush);
+		}
+	}
+
+	void respondInjectedError(ServerConnection connection) {
+		respond(connection, INJECTED_ERROR, null);
+	}
+
+	/**
+	 * Accepts a message of a producer, it's ready when its deliver date is
+	 * reached
+	 *
+	 * @param queue
+	 * @param body
+	 * @param delayMillis
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void accept(MemoryQueue queue, String body, long delayMillis) {
+		acceptedMessages.incrementAndGet();
+		if (delayMillis <= 0) {
+			offer(queue, body);
+		} else {
+			queue.setDelayed(queue.getDelayed() + 1);
+			schedule(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis), () -> {
+				queue.setDelayed(queue.getDelayed() - 1);
+				offer(queue, body);
+			});
+		}
+	}
+
+	/**
+	 * Delivers the next ready message to the consumer, if it's waiting for one
+	 *
+	 * @param queue
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void deliverIfWaiting(MemoryQueue queue) {
+		ServerConnection consumer = queue.getConsumer();
+		if (consumer != null && consumer.isWaitingMessage() && !queue.getReady().isEmpty()) {
+			deliveredMessages.incrementAndGet();
+			consumer.deliver(queue.getReady().poll());
+		}
+	}
+
+	void acknowledged(MemoryQueue queue, String message, boolean ack) {
+		if (ack) {
+			acknowledgedMessages.incrementAndGet();
+		} else {
+			queue.getNacked().add(message);
+		}
+	}
+
+	void connectionClosed(ServerConnection connection) {
+		openConnections.decrementAndGet();
+		connections.remove(connection);
+	}
+
+	private void offer(MemoryQueue queue, String body) {
+		queue.getReady().add(body);
+		deliverIfWaiting(queue);
+	}
+
+	private void schedule(long dueNanos, Runnable action) {
+		timers.add(new Timer(dueNanos, timerSequence++, action));
+	}
+
+	private void runOnSelector(Runnable task) {
+		tasks.add(task);
+		selector.wakeup();
+	}
+
+	private <R> R callOnSelector(Supplier<R> task) {
+		if (Thread.currentThread() == selectorThread) {
+			return task.get();
+		}
+		CompletableFuture<R> future = new CompletableFuture<>();
+		runOnSelector(() -> future.complete(task.get()));
+		try {
+			return future.get(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting the selector thread", e);
+		} catch (ExecutionException | TimeoutException e) {
+			throw new IllegalStateException("The selector thread didn't answer", e);
+		}
+	}
+
+	private void selectLoop() {
+		try {
+			while (running) {
+				Timer next = timers.peek();
+				long timeoutMillis = next == null ? 0
+						: Math.max(1, TimeUnit.NANOSECONDS.toMillis(next.dueNanos - System.nanoTime()));
+				selector.select(timeoutMillis);
+				runTasks();
+				runDueTimers();
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					handleKey(key);
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			failure = e;
+		} finally {
+			new ArrayList<>(connections).forEach(ServerConnection::close);
+			closeQuietly(serverChannel);
+			closeQuietly(selector);
+		}
+	}
+
+	private void runTasks() {
+		Runnable task;
+		while ((task = tasks.poll()) != null) {
+			task.run();
+		}
+	}
+
+	private void runDueTimers() {
+		long now = System.nanoTime();
+		while (!timers.isEmpty() && timers.peek().dueNanos - now <= 0) {
+			timers.poll().action.run();
+		}
+	}
+
+	private void handleKey(SelectionKey key) throws IOException {
+		if (!key.isValid()) {
+			return;
+		}
+		if (key.isAcceptable()) {
+			SocketChannel channel = serverChannel.accept();
+			if (channel != null) {
+				channel.configureBlocking(false);
+				channel.socket().setTcpNoDelay(true);
+				ServerConnection connection = new ServerConnection(this, channel,
+						channel.register(selector, SelectionKey.OP_READ));
+				connections.add(connection);
+				openConnections.incrementAndGet();
+				connection.start();
+			}
+		} else {
+			ServerConnection connection = (ServerConnection) key.attachment();
+			if (key.isReadable()) {
+				connection.onReadable();
+			}
+			if (key.isValid() && key.isWritable()) {
+				connection.onWritable();
+			}
+		}
+	}
+
+	private void closeQuietly(Closeable closeable) {
+		try {
+			closeable.close();
+		} catch (IOException e) {
+			// Closing anyway
+		}
+	}
+
+	/**
+	 * Action to run in the selector thread, at the given time, ordered by
+	 * creation when the time is the same
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	private static class Timer implements Comparable<Timer> {
+		private final long dueNanos;
+		private final long sequence;
+		private final Runnable action;
+
+		private Timer(long dueNanos, long sequence, Runnable action) {
+			this.dueNanos = dueNanos;
+			this.sequence = sequence;
+			this.action = action;
+		}
+
+		@Override
+		public int compareTo(Timer other) {
+			long difference = dueNanos - other.dueNanos;
+			return difference != 0 ? Long.signum(difference) : Long.compare(sequence, other.sequence);
+		}
+	}
+}
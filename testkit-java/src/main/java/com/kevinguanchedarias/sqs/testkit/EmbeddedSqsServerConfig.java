@@ -0,0 +1,204 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.testkit;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.kevinguanchedarias.sqs.testkit.enumerations.FaultType;
+
+/**
+ * Configuration of the {@link EmbeddedSqsServer}
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public class EmbeddedSqsServerConfig {
+	private String host = "127.0.0.1";
+	private int port;
+	private long minLatencyNanos;
+	private long maxLatencyNanos;
+	private final Map<FaultType, Double> faultProbabilities = new EnumMap<>(FaultType.class);
+	private long randomSeed = System.nanoTime();
+	private boolean jsonValidation = true;
+	private boolean pipelining = true;
+
+	/**
+	 *
+	 * @param host The address to listen on, by default the loopback
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public EmbeddedSqsServerConfig withHost(String host) {
+		this.host = host;
+		return this;
+	}
+
+	/**
+	 *
+	 * @param port By default 0, which chooses a free port
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public EmbeddedSqsServerConfig withPort(int port) {
+		this.port = port;
+		return this;
+	}
+
+	/**
+	 * Delays every response by a random time between <i>min</i> and <i>max</i>
+	 * <br>
+	 * The responses of a connection keep their order, a response is never sent
+	 * before the previous one
+	 *
+	 * @param min
+	 * @param max
+	 * @param unit
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public EmbeddedSqsServerConfig withLatency(long min, long max, TimeUnit unit) {
+		if (min < 0 || max < min) {
+			throw new IllegalArgumentException("Latency must be 0 <= min <= max");
+		}
+		minLatencyNanos = unit.toNanos(min);
+		maxLatencyNanos = unit.toNanos(max);
+		return this;
+	}
+
+	/**
+	 * Defines the probability of injecting the fault instead of a normal
+	 * response, each response rolls for every configured fault
+	 *
+	 * @param type
+	 * @param probability Between 0 and 1
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public EmbeddedSqsServerConfig withFaultProbability(FaultType type, double probability) {
+		if (probability < 0 || probability > 1) {
+			throw new IllegalArgumentException("Probability must be between 0 and 1");
+		}
+		faultProbabilities.put(type, probability);
+		return this;
+	}
+
+	/**
+	 *
+	 * @param randomSeed Seed of the latency and fault rolls, to reproduce a run
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public EmbeddedSqsServerConfig withRandomSeed(long randomSeed) {
+		this.randomSeed = randomSeed;
+		return this;
+	}
+
+	/**
+	 *
+	 * @param jsonValidation If true (default) rejects message bodies that are
+	 *                       not valid JSON, as the Node server does
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public EmbeddedSqsServerConfig withJsonValidation(boolean jsonValidation) {
+		this.jsonValidation = jsonValidation;
+		return this;
+	}
+
+	/**
+	 *
+	 * @param pipelining If true (default) announces the PIPELINING capability
+	 *                   after the HELO, false greets as the Node server, so the
+	 *                   clients don't pipeline
+	 * @return
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public EmbeddedSqsServerConfig withPipelining(boolean pipelining) {
+		this.pipelining = pipelining;
+		return this;
+	}
+
+	/**
+	 * @return the host
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * @return the port, 0 means a free one
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public int getPort() {
+		return port;
+	}
+
+	/**
+	 * @return the min latency of the responses
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getMinLatencyNanos() {
+		return minLatencyNanos;
+	}
+
+	/**
+	 * @return the max latency of the responses
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getMaxLatencyNanos() {
+		return maxLatencyNanos;
+	}
+
+	/**
+	 *
+	 * @param type
+	 * @return 0 if the fault has not been configured
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public double getFaultProbability(FaultType type) {
+		return faultProbabilities.getOrDefault(type, 0D);
+	}
+
+	/**
+	 * @return the random seed
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public long getRandomSeed() {
+		return randomSeed;
+	}
+
+	/**
+	 * @return true if the bodies must be valid JSON
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isJsonValidation() {
+		return jsonValidation;
+	}
+
+	/**
+	 * @return true if the PIPELINING capability is announced
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	public boolean isPipelining() {
+		return pipelining;
+	}
+}
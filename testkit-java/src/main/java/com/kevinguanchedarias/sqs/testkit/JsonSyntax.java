@@ -0,0 +1,176 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.testkit;
+
+/**
+ * Checks that a message body is valid JSON, as the Node server does with
+ * JSON.parse() before accepting it
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+final class JsonSyntax {
+	private final String input;
+	private int index;
+
+	private JsonSyntax(String input) {
+		this.input = input;
+	}
+
+	/**
+	 *
+	 * @param input
+	 * @return True if the input is a single JSON value, surrounded by optional
+	 *         whitespace
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	static boolean isValid(String input) {
+		JsonSyntax syntax = new JsonSyntax(input);
+		return syntax.value() && syntax.skipWhitespace() == input.length();
+	}
+
+	private boolean value() {
+		if (skipWhitespace() == input.length()) {
+			return false;
+		}
+		char current = input.charAt(index);
+		switch (current) {
+		case '{':
+			return object();
+		case '[':
+			return array();
+		case '"':
+			return string();
+		case 't':
+			return literal("true");
+		case 'f':
+			return literal("false");
+		case 'n':
+			return literal("null");
+		default:
+			return number();
+		}
+	}
+
+	private boolean object() {
+		index++;
+		if (skipWhitespace() < input.length() && input.charAt(index) == '}') {
+			index++;
+			return true;
+		}
+		do {
+			if (skipWhitespace() == input.length() || input.charAt(index) != '"' || !string()
+					|| !expect(':') || !value()) {
+				return false;
+			}
+		} while (accept(','));
+		return expect('}');
+	}
+
+	private boolean array() {
+		index++;
+		if (skipWhitespace() < input.length() && input.charAt(index) == ']') {
+			index++;
+			return true;
+		}
+		do {
+			if (!value()) {
+				return false;
+			}
+		} while (accept(','));
+		return expect(']');
+	}
+
+	private boolean string() {
+		index++;
+		while (index < input.length()) {
+			char current = input.charAt(index++);
+			if (current == '"') {
+				return true;
+			} else if (current < 0x20) {
+				return false;
+			} else if (current == '\\') {
+				if (index == input.length()) {
+					return false;
+				}
+				char escaped = input.charAt(index++);
+				if (escaped == 'u') {
+					if (index + 4 > input.length()) {
+						return false;
+					}
+					for (int i = 0; i < 4; i++) {
+						if (Character.digit(input.charAt(index++), 16) == -1) {
+							return false;
+						}
+					}
+				} else if ("\"\\/bfnrt".indexOf(escaped) == -1) {
+					return false;
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean number() {
+		int start = index;
+		accept('-');
+		if (!digits()) {
+			return false;
+		}
+		if (input.charAt(start) == '0' || (input.charAt(start) == '-' && input.charAt(start + 1) == '0')) {
+			if (index - start > (input.charAt(start) == '-' ? 2 : 1)) {
+				return false;
+			}
+		}
+		if (accept('.') && !digits()) {
+			return false;
+		}
+		if (index < input.length() && (input.charAt(index) == 'e' || input.charAt(index) == 'E')) {
+			index++;
+			if (!accept('+')) {
+				accept('-');
+			}
+			return digits();
+		}
+		return true;
+	}
+
+	private boolean digits() {
+		int start = index;
+		while (index < input.length() && input.charAt(index) >= '0' && input.charAt(index) <= '9') {
+			index++;
+		}
+		return index > start;
+	}
+
+	private boolean literal(String expected) {
+		if (input.startsWith(expected, index)) {
+			index += expected.length();
+			return true;
+		}
+		return false;
+	}
+
+	private boolean expect(char expected) {
+		skipWhitespace();
+		return accept(expected);
+	}
+
+	private boolean accept(char expected) {
+		skipWhitespace();
+		if (index < input.length() && input.charAt(index) == expected) {
+			index++;
+			return true;
+		}
+		return false;
+	}
+
+	private int skipWhitespace() {
+		while (index < input.length() && " \t\r\n".indexOf(input.charAt(index)) != -1) {
+			index++;
+		}
+		return index;
+	}
+}
@@ -0,0 +1,62 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.testkit;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * In memory state of a queue of the embedded server <br>
+ * <b>NOTICE:</b> Only accessed from the selector thread
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+class MemoryQueue {
+	private final Deque<String> ready = new ArrayDeque<>();
+	private final List<String> nacked = new ArrayList<>();
+	private ServerConnection consumer;
+	private int delayed;
+
+	Deque<String> getReady() {
+		return ready;
+	}
+
+	List<String> getNacked() {
+		return nacked;
+	}
+
+	ServerConnection getConsumer() {
+		return consumer;
+	}
+
+	void setConsumer(ServerConnection consumer) {
+		this.consumer = consumer;
+	}
+
+	int getDelayed() {
+		return delayed;
+	}
+
+	void setDelayed(int delayed) {
+		this.delayed = delayed;
+	}
+
+	/**
+	 * Makes the messages that the consumer didn't want to acknowledge available
+	 * again, before the other ready messages, as the Node server does with
+	 * RESET_ACK and when the consumer connects or disconnects
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void resetAck() {
+		for (int i = nacked.size() - 1; i >= 0; i--) {
+			ready.addFirst(nacked.get(i));
+		}
+		nacked.clear();
+	}
+}
@@ -0,0 +1,427 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.testkit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.kevinguanchedarias.sqs.testkit.enumerations.FaultType;
+
+/**
+ * Protocol state of a connection of the embedded server, mirrors the sections
+ * of the Node server <br>
+ * <b>NOTICE:</b> Only accessed from the selector thread
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+class ServerConnection {
+	private static final Pattern SET_PATTERN = Pattern.compile("SET (\\w+)=([^;]+);");
+	private static final byte[] HELO = toBytes("HELO SERVER\r\n");
+	private static final byte[] HELO_PIPELINING = toBytes("HELO SERVER PIPELINING\r\n");
+	private static final byte[] OK = toBytes("OK\r\n");
+	private static final int READ_BUFFER_SIZE = 16 * 1024;
+	private static final String PRODUCER = "PRODUCER";
+	private static final String CONSUMER = "CONSUMER";
+
+	private enum Section {
+		CONFIG, METADATA, MESSAGE, GET_MESSAGE
+	}
+
+	private final EmbeddedSqsServer server;
+	private final SocketChannel channel;
+	private final SelectionKey key;
+	private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+	private final Deque<ByteBuffer> outbound = new ArrayDeque<>();
+	private final Deque<String> pausedLines = new ArrayDeque<>();
+	private final Map<String, String> sessionConfig = new HashMap<>();
+	private final Map<String, String> messageConfig = new HashMap<>();
+	private final Map<String, String> ackConfig = new HashMap<>();
+	private final StringBuilder body = new StringBuilder();
+	private byte[] line = new byte[256];
+	private int lineLength;
+	private Section expectedSection = Section.CONFIG;
+	private Section openSection;
+	private boolean bodyStarted;
+	private MemoryQueue queue;
+	private boolean waitingMessage;
+	private FaultType waitingFault;
+	private String currentMessage;
+	private long lastResponseDue;
+	private boolean closeAfterFlush;
+	private boolean closed;
+
+	ServerConnection(EmbeddedSqsServer server, SocketChannel channel, SelectionKey key) {
+		this.server = server;
+		this.channel = channel;
+		this.key = key;
+		key.attach(this);
+	}
+
+	void start() {
+		write(ByteBuffer.wrap(server.getConfig().isPipelining() ? HELO_PIPELINING : HELO));
+	}
+
+	boolean isWaitingMessage() {
+		return waitingMessage;
+	}
+
+	long getLastResponseDue() {
+		return lastResponseDue;
+	}
+
+	void setLastResponseDue(long lastResponseDue) {
+		this.lastResponseDue = lastResponseDue;
+	}
+
+	/**
+	 * Sends the message to the consumer, which was waiting for it in an open
+	 * GET_MESSAGE section, and then processes the lines received meanwhile
+	 *
+	 * @param message
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void deliver(String message) {
+		waitingMessage = false;
+		currentMessage = message;
+		openSection = Section.GET_MESSAGE;
+		server.respond(this, toBytes(message + "\r\nOK\r\n"), waitingFault);
+		waitingFault = null;
+		while (!waitingMessage && !closed && !pausedLines.isEmpty()) {
+			handleLine(pausedLines.poll());
+		}
+	}
+
+	/**
+	 * Closes the connection once the pending writes have been flushed
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void closeAfterFlush() {
+		closeAfterFlush = true;
+		onWritable();
+	}
+
+	void write(ByteBuffer buffer) {
+		if (closed) {
+			return;
+		}
+		outbound.add(buffer);
+		onWritable();
+	}
+
+	void onReadable() {
+		int read;
+		try {
+			read = channel.read(readBuffer);
+		} catch (IOException e) {
+			read = -1;
+		}
+		if (read == -1) {
+			close();
+			return;
+		}
+		readBuffer.flip();
+		while (readBuffer.hasRemaining() && !closed) {
+			byte current = readBuffer.get();
+			if (current == '\n') {
+				int length = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+				lineLength = 0;
+				onLine(new String(line, 0, length, StandardCharsets.UTF_8));
+			} else {
+				if (lineLength == line.length) {
+					line = Arrays.copyOf(line, line.length * 2);
+				}
+				line[lineLength++] = current;
+			}
+		}
+		readBuffer.clear();
+	}
+
+	void onWritable() {
+		if (closed) {
+			return;
+		}
+		try {
+			while (!outbound.isEmpty()) {
+				ByteBuffer next = outbound.peek();
+				channel.write(next);
+				if (next.hasRemaining()) {
+					key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+					return;
+				}
+				outbound.poll();
+			}
+			if (key.isValid()) {
+				key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+			}
+			if (closeAfterFlush) {
+				close();
+			}
+		} catch (IOException e) {
+			close();
+		}
+	}
+
+	/**
+	 * Closes the socket, a message delivered but not acknowledged goes back to
+	 * the head of the queue
+	 *
+	 * @since 1.1.0
+	 * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+	 */
+	void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		key.cancel();
+		try {
+			channel.close();
+		} catch (IOException e) {
+			// Closing anyway
+		}
+		if (queue != null && queue.getConsumer() == this) {
+			if (currentMessage != null) {
+				queue.getReady().addFirst(currentMessage);
+			}
+			queue.setConsumer(null);
+			queue.resetAck();
+		}
+		server.connectionClosed(this);
+	}
+
+	private void onLine(String input) {
+		if (waitingMessage) {
+			pausedLines.add(input);
+		} else {
+			handleLine(input);
+		}
+	}
+
+	private void handleLine(String input) {
+		if (openSection == Section.MESSAGE && !input.equals("END_MESSAGE")) {
+			if (bodyStarted) {
+				body.append("\r\n");
+			}
+			body.append(input);
+			bodyStarted = true;
+			return;
+		}
+		if (input.isEmpty()) {
+			return;
+		}
+		FaultType fault = server.rollFault();
+		if (fault == FaultType.DISCONNECT) {
+			close();
+		} else if (fault == FaultType.ERROR_RESPONSE) {
+			server.respondInjectedError(this);
+		} else if (input.startsWith("RUN ")) {
+			runCommand(input.substring(4).trim(), fault);
+		} else if (openSection == null) {
+			if (input.equals("START_" + expectedSection.name())) {
+				openSection(fault);
+			}
+		} else if (input.startsWith("SET ")) {
+			handleSet(input, fault);
+		} else if (input.equals("END_" + openSection.name())) {
+			endSection(fault);
+		}
+	}
+
+	private void openSection(FaultType fault) {
+		if (expectedSection == Section.GET_MESSAGE) {
+			waitingMessage = true;
+			waitingFault = fault;
+			server.deliverIfWaiting(queue);
+		} else {
+			openSection = expectedSection;
+			if (openSection == Section.MESSAGE) {
+				body.setLength(0);
+				bodyStarted = false;
+			}
+			respond(OK, fault);
+		}
+	}
+
+	private void handleSet(String input, FaultType fault) {
+		Matcher matcher = SET_PATTERN.matcher(input);
+		if (!matcher.find()) {
+			return;
+		}
+		String key = matcher.group(1);
+		String value = matcher.group(2);
+		Map<String, String> target = findSetTarget();
+		if (isAssignable(key, value)) {
+			target.put(key, value);
+			respond(toBytes("\r\nOK: (" + key + "=" + value + ")\r\n"), fault);
+		} else {
+			respond(toBytes("\r\nERROR: Key " + key + " is not something assignable\r\n"), fault);
+		}
+	}
+
+	private Map<String, String> findSetTarget() {
+		switch (openSection) {
+		case CONFIG:
+			return sessionConfig;
+		case GET_MESSAGE:
+			return ackConfig;
+		default:
+			return messageConfig;
+		}
+	}
+
+	private boolean isAssignable(String key, String value) {
+		switch (openSection) {
+		case CONFIG:
+			return key.equals("QUEUE") || (key.equals("ROLE") && (value.equals(PRODUCER) || value.equals(CONSUMER)));
+		case METADATA:
+			return key.equals("DELIVER_TIMESTAMP") || (key.equals("DELIVER_DATE") && parseDate(value) != null);
+		case GET_MESSAGE:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	private void endSection(FaultType fault) {
+		String error;
+		switch (openSection) {
+		case CONFIG:
+			error = sessionConfig.containsKey("QUEUE") && sessionConfig.containsKey("ROLE") ? null
+					: "Missing configuration";
+			break;
+		case METADATA:
+			error = findMetadataError();
+			break;
+		case MESSAGE:
+			error = !server.getConfig().isJsonValidation() || JsonSyntax.isValid(body.toString()) ? null
+					: "Invalid JSON was specified";
+			break;
+		default:
+			error = null;
+		}
+		if (error != null) {
+			respond(toBytes("ERROR: " + error + "\r\n"), fault);
+			if (openSection == Section.MESSAGE) {
+				body.setLength(0);
+				bodyStarted = false;
+			}
+			return;
+		}
+		Section closedSection = openSection;
+		openSection = null;
+		switch (closedSection) {
+		case CONFIG:
+			respond(OK, fault);
+			onConfigured();
+			break;
+		case METADATA:
+			expectedSection = Section.MESSAGE;
+			respond(OK, fault);
+			break;
+		case MESSAGE:
+			server.accept(queue, body.toString(), findDelayMillis());
+			messageConfig.clear();
+			expectedSection = Section.METADATA;
+			respond(OK, fault);
+			break;
+		default:
+			server.acknowledged(queue, currentMessage, !"FALSE".equals(ackConfig.get("ACK")));
+			currentMessage = null;
+			respond(OK, fault);
+		}
+	}
+
+	private void onConfigured() {
+		queue = server.getQueue(sessionConfig.get("QUEUE"));
+		if (PRODUCER.equals(sessionConfig.get("ROLE"))) {
+			expectedSection = Section.METADATA;
+		} else if (queue.getConsumer() != null) {
+			respond(toBytes("ERROR: There is already a consumer connected\r\n"), null);
+			server.closeAfterResponses(this);
+		} else {
+			queue.setConsumer(this);
+			queue.resetAck();
+			expectedSection = Section.GET_MESSAGE;
+		}
+	}
+
+	private String findMetadataError() {
+		boolean hasDate = messageConfig.containsKey("DELIVER_DATE");
+		boolean hasTimestamp = messageConfig.containsKey("DELIVER_TIMESTAMP");
+		if (!hasDate && !hasTimestamp) {
+			return "Missing DELIVER_DATE or DELIVER_TIMESTAMP";
+		} else if (hasDate && hasTimestamp) {
+			return "Can NOT specify both DELIVER_DATE and DELIVER_TIMESTAMP";
+		}
+		return null;
+	}
+
+	private long findDelayMillis() {
+		if (messageConfig.containsKey("DELIVER_DATE")) {
+			return parseDate(messageConfig.get("DELIVER_DATE")).toEpochMilli() - System.currentTimeMillis();
+		}
+		try {
+			return Long.parseLong(messageConfig.get("DELIVER_TIMESTAMP").trim());
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private void runCommand(String command, FaultType fault) {
+		String name = command.split("\\s", 2)[0];
+		if (name.equals("QUIT")) {
+			respond(OK, fault);
+			server.closeAfterResponses(this);
+		} else if (name.equals("PING")) {
+			respond(OK, fault);
+		} else if (name.equals("RESET_ACK")) {
+			if (!CONSUMER.equals(sessionConfig.get("ROLE"))) {
+				respond(toBytes("ERROR: You are not a consumer\r\n"), fault);
+			} else if (openSection == Section.GET_MESSAGE) {
+				respond(toBytes("ERROR: Can NOT run this command inside GET_MESSAGE section\r\n"), fault);
+			} else {
+				queue.resetAck();
+				respond(OK, fault);
+			}
+		} else {
+			respond(toBytes("ERROR: Command with name " + name + " doesn't exists\r\n"), fault);
+		}
+	}
+
+	private void respond(byte[] response, FaultType fault) {
+		server.respond(this, response, fault);
+	}
+
+	private static Instant parseDate(String value) {
+		try {
+			return Instant.ofEpochMilli(Long.parseLong(value.trim()));
+		} catch (NumberFormatException e) {
+			try {
+				return Instant.parse(value.trim());
+			} catch (DateTimeParseException e2) {
+				return null;
+			}
+		}
+	}
+
+	private static byte[] toBytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,35 @@
+/**
+ *
+ */
+package com.kevinguanchedarias.sqs.testkit.enumerations;
+
+/**
+ * Faults the embedded server can inject instead of a normal response
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+public enum FaultType {
+
+	/**
+	 * The connection is closed instead of responding
+	 */
+	DISCONNECT,
+
+	/**
+	 * Responds <i>ERROR: Injected fault</i>, the command is not processed
+	 */
+	ERROR_RESPONSE,
+
+	/**
+	 * The command is processed, but the response is never sent, the connection
+	 * stays open
+	 */
+	STALL,
+
+	/**
+	 * The response is sent in small pieces, in separate writes, to exercise the
+	 * client decoder
+	 */
+	FRAGMENT
+}
@@ -0,0 +1,7 @@
+/**
+ * Has the enumerations of the testkit
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+package com.kevinguanchedarias.sqs.testkit.enumerations;
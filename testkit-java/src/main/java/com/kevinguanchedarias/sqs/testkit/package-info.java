@@ -0,0 +1,8 @@
+/**
+ * Has an embeddable stand-in of the SQS server, to test and load test the
+ * clients without the Node server
+ *
+ * @since 1.1.0
+ * @author Kevin Guanche Darias <kevin@kevinguanchedarias.com>
+ */
+package com.kevinguanchedarias.sqs.testkit;